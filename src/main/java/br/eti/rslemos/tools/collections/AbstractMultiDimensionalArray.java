@@ -166,6 +166,39 @@ public abstract class AbstractMultiDimensionalArray<T> implements MultiDimension
 			throw new ArrayIndexOutOfBoundsException();
 	}
 
+	protected void checkBoundaries(int i) {
+		if (sizes.length != 1)
+			throw new IllegalArgumentException("Wrong number of dimensions: 1");
+		
+		if (i < 0 || i >= sizes[0])
+			throw new ArrayIndexOutOfBoundsException(i);
+	}
+
+	protected void checkBoundaries(int i, int j) {
+		if (sizes.length != 2)
+			throw new IllegalArgumentException("Wrong number of dimensions: 2");
+		
+		if (i < 0 || i >= sizes[0])
+			throw new ArrayIndexOutOfBoundsException(i);
+		
+		if (j < 0 || j >= sizes[1])
+			throw new ArrayIndexOutOfBoundsException(j);
+	}
+
+	protected void checkBoundaries(int i, int j, int k) {
+		if (sizes.length != 3)
+			throw new IllegalArgumentException("Wrong number of dimensions: 3");
+		
+		if (i < 0 || i >= sizes[0])
+			throw new ArrayIndexOutOfBoundsException(i);
+		
+		if (j < 0 || j >= sizes[1])
+			throw new ArrayIndexOutOfBoundsException(j);
+		
+		if (k < 0 || k >= sizes[2])
+			throw new ArrayIndexOutOfBoundsException(k);
+	}
+
 	private static int[] appendDimension(int... pos) {
 		int newPos[] = new int[pos.length + 1];
 		System.arraycopy(pos, 0, newPos, 0, pos.length);
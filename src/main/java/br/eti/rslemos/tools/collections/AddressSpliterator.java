@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// walks a range of row-major linear offsets of a MultiDimensionalArray;
+// splits on boundaries of the outermost dimension while the range spans more than one of its
+// indices, and halfway through the range afterwards, so that every split knows its exact size
+abstract class AddressSpliterator<R> implements Spliterator<R> {
+	protected final int[] sizes;
+	private final long rowSize;
+	private long index;
+	private final long fence;
+	
+	// coordinates of index; computed on first use
+	private int[] pos;
+
+	protected AddressSpliterator(int[] sizes, long index, long fence) {
+		this.sizes = sizes;
+		this.rowSize = sizes.length > 0 && sizes[0] > 0 ? volume(sizes) / sizes[0] : 0;
+		this.index = index;
+		this.fence = fence;
+	}
+
+	static long volume(int... sizes) {
+		if (MultiDimensionalArrays.isEmpty(sizes))
+			return 0;
+		
+		long volume = 1;
+		for (int size : sizes)
+			volume *= size;
+		
+		return volume;
+	}
+
+	protected abstract R element(int[] pos);
+
+	// whether pos is to be visited at all; subclasses that skip addresses
+	// must also drop SIZED and SUBSIZED from their characteristics
+	protected boolean accept(int[] pos) {
+		return true;
+	}
+
+	protected abstract AddressSpliterator<R> split(long index, long fence);
+
+	public boolean tryAdvance(Consumer<? super R> action) {
+		while (index < fence) {
+			if (pos == null)
+				pos = coordinates(index);
+			
+			boolean accepted = accept(pos);
+			R element = accepted ? element(pos) : null;
+			if (++index < fence)
+				increment(pos);
+			
+			if (accepted) {
+				action.accept(element);
+				return true;
+			}
+		}
+		
+		return false;
+	}
+
+	public void forEachRemaining(Consumer<? super R> action) {
+		if (index >= fence)
+			return;
+		
+		if (pos == null)
+			pos = coordinates(index);
+		
+		while (true) {
+			boolean accepted = accept(pos);
+			R element = accepted ? element(pos) : null;
+			
+			if (++index < fence) {
+				increment(pos);
+				if (accepted)
+					action.accept(element);
+			} else {
+				if (accepted)
+					action.accept(element);
+				return;
+			}
+		}
+	}
+
+	public Spliterator<R> trySplit() {
+		long remaining = fence - index;
+		if (remaining < 2)
+			return null;
+		
+		long mid = index + remaining / 2;
+		
+		if (remaining > rowSize) {
+			// align on the outermost dimension
+			long aligned = (mid / rowSize) * rowSize;
+			if (aligned <= index)
+				aligned += rowSize;
+			
+			if (aligned < fence)
+				mid = aligned;
+		}
+		
+		AddressSpliterator<R> prefix = split(index, mid);
+		index = mid;
+		pos = null;
+		
+		return prefix;
+	}
+
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED;
+	}
+
+	private int[] coordinates(long index) {
+		int[] pos = new int[sizes.length];
+		
+		for (int d = sizes.length - 1; d >= 0; d--) {
+			pos[d] = (int) (index % sizes[d]);
+			index /= sizes[d];
+		}
+		
+		return pos;
+	}
+
+	private void increment(int[] pos) {
+		for (int d = pos.length - 1; d >= 0; d--) {
+			if (++pos[d] < sizes[d])
+				return;
+			
+			pos[d] = 0;
+		}
+	}
+
+	static <T> Spliterator<T> elements(MultiDimensionalArray<T> array) {
+		int[] sizes = array.length();
+		return new Elements<T>(array, sizes, 0, volume(sizes));
+	}
+
+	static Spliterator<int[]> addresses(int... sizes) {
+		sizes = sizes.clone();
+		return new Addresses(sizes, 0, volume(sizes));
+	}
+
+	static <T> Spliterator<Map.Entry<int[], T>> entries(MultiDimensionalArray<T> array) {
+		int[] sizes = array.length();
+		return new Entries<T>(array, sizes, 0, volume(sizes));
+	}
+
+	private static final class Elements<T> extends AddressSpliterator<T> {
+		private final MultiDimensionalArray<T> array;
+
+		Elements(MultiDimensionalArray<T> array, int[] sizes, long index, long fence) {
+			super(sizes, index, fence);
+			this.array = array;
+		}
+
+		@Override
+		protected T element(int[] pos) {
+			return MultiDimensionalArrays.get(array, pos);
+		}
+
+		@Override
+		protected AddressSpliterator<T> split(long index, long fence) {
+			return new Elements<T>(array, sizes, index, fence);
+		}
+	}
+
+	private static final class Addresses extends AddressSpliterator<int[]> {
+		Addresses(int[] sizes, long index, long fence) {
+			super(sizes, index, fence);
+		}
+
+		@Override
+		protected int[] element(int[] pos) {
+			return pos.clone();
+		}
+
+		@Override
+		protected AddressSpliterator<int[]> split(long index, long fence) {
+			return new Addresses(sizes, index, fence);
+		}
+
+		@Override
+		public int characteristics() {
+			return super.characteristics() | NONNULL | DISTINCT;
+		}
+	}
+
+	private static final class Entries<T> extends AddressSpliterator<Map.Entry<int[], T>> {
+		private final MultiDimensionalArray<T> array;
+
+		Entries(MultiDimensionalArray<T> array, int[] sizes, long index, long fence) {
+			super(sizes, index, fence);
+			this.array = array;
+		}
+
+		@Override
+		protected Map.Entry<int[], T> element(int[] pos) {
+			return new AbstractMap.SimpleImmutableEntry<int[], T>(pos.clone(), MultiDimensionalArrays.get(array, pos));
+		}
+
+		@Override
+		protected AddressSpliterator<Map.Entry<int[], T>> split(long index, long fence) {
+			return new Entries<T>(array, sizes, index, fence);
+		}
+
+		@Override
+		public int characteristics() {
+			return super.characteristics() | NONNULL | DISTINCT;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Arrays;
+
+// a live window over any array, for those that can't stride their own views:
+// dimension d of the view walks dimension axes[d] of array, starting at origin;
+// the dimensions of array left out (by fix) stay at origin. Sliced dimensions are
+// bounded; the others run up to the end of array, following it as it grows
+class ArrayView<T> extends AbstractMultiDimensionalArray<T> {
+	private static final int OPEN = -1;
+	
+	private final MultiDimensionalArray<T> array;
+	// live lengths of array, if it keeps them in place
+	private final int[] extent;
+	private final int[] origin;
+	private final int[] axes;
+	private final int[] bounds;
+
+	private ArrayView(MultiDimensionalArray<T> array, int[] origin, int[] axes, int[] bounds) {
+		super(new int[axes.length]);
+		
+		this.array = array;
+		this.extent = array instanceof AbstractMultiDimensionalArray 
+				? ((AbstractMultiDimensionalArray<T>) array).sizes 
+				: array.length();
+		this.origin = origin;
+		this.axes = axes;
+		this.bounds = bounds;
+		
+		for (int d = 0; d < sizes.length; d++)
+			sizes[d] = length(d);
+	}
+
+	// the whole of array, as a view (array itself, if already one)
+	static <T> ArrayView<T> of(MultiDimensionalArray<T> array) {
+		if (array instanceof ArrayView)
+			return (ArrayView<T>) array;
+		
+		int n = array.dimensions();
+		int[] axes = new int[n];
+		for (int i = 0; i < n; i++)
+			axes[i] = i;
+		
+		int[] bounds = new int[n];
+		Arrays.fill(bounds, OPEN);
+		
+		return new ArrayView<T>(array, new int[n], axes, bounds);
+	}
+
+	// array may have grown since this view was taken, so sizes only holds for bounded
+	// dimensions: the others are always measured anew, and never written back, so that
+	// concurrent readers share nothing mutable
+	private int length(int dimension) {
+		return bounds[dimension] != OPEN ? bounds[dimension] : extent[axes[dimension]] - origin[axes[dimension]];
+	}
+
+	// this view, bounded to where array currently ends
+	private ArrayView<T> snapshot() {
+		return new ArrayView<T>(array, origin, axes, length());
+	}
+
+	private boolean isBounded() {
+		for (int bound : bounds) {
+			if (bound == OPEN)
+				return false;
+		}
+		
+		return true;
+	}
+
+	private int[] translate(int[] pos) {
+		int[] address = origin.clone();
+		for (int d = 0; d < pos.length; d++)
+			address[axes[d]] += pos[d];
+		
+		return address;
+	}
+
+	// extends dimension of a growing array so that this view spans length along it;
+	// false if it can't (either array doesn't grow or dimension is bounded)
+	boolean grow(int dimension, int length) {
+		if (bounds[dimension] != OPEN || !(array instanceof ChunkedArray))
+			return false;
+		
+		((ChunkedArray<T>) array).grow(axes[dimension], origin[axes[dimension]] + length);
+		return true;
+	}
+
+	// informational methods
+
+	@Override
+	public int[] length() {
+		int[] length = new int[sizes.length];
+		for (int d = 0; d < length.length; d++)
+			length[d] = length(d);
+		
+		return length;
+	}
+
+	// storage methods
+
+	public T get(int... pos) {
+		checkBoundaries(pos);
+		return array.get(translate(pos));
+	}
+
+	public T set(T element, int... pos) {
+		checkBoundaries(pos);
+		return array.set(element, translate(pos));
+	}
+
+	// view methods
+
+	public ArrayView<T> slice(int dimension, int from, int to) {
+		if (dimension < 0 || dimension >= sizes.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		int length = length(dimension);
+		
+		if (from < 0 || from > length)
+			throw new ArrayIndexOutOfBoundsException(from);
+		
+		if (to < 0 || to > length)
+			throw new ArrayIndexOutOfBoundsException(to);
+		
+		if (to < from)
+			throw new ArrayIndexOutOfBoundsException();
+		
+		int[] newOrigin = origin.clone();
+		newOrigin[axes[dimension]] += from;
+		
+		int[] newBounds = bounds.clone();
+		newBounds[dimension] = to - from;
+		
+		return new ArrayView<T>(array, newOrigin, axes, newBounds);
+	}
+
+	public ArrayView<T> swap(int dimensionA, int dimensionB) {
+		if (dimensionA < 0 || dimensionA >= sizes.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimensionA);
+
+		if (dimensionB < 0 || dimensionB >= sizes.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimensionB);
+		
+		int[] newAxes = axes.clone();
+		newAxes[dimensionA] = axes[dimensionB];
+		newAxes[dimensionB] = axes[dimensionA];
+		
+		int[] newBounds = bounds.clone();
+		newBounds[dimensionA] = bounds[dimensionB];
+		newBounds[dimensionB] = bounds[dimensionA];
+		
+		return new ArrayView<T>(array, origin, newAxes, newBounds);
+	}
+
+	public ArrayView<T> transpose() {
+		return new ArrayView<T>(array, origin, reverse(axes), reverse(bounds));
+	}
+
+	// the cells at index along dimension, as an array of one dimension less
+	public ArrayView<T> fix(int dimension, int index) {
+		if (dimension < 0 || dimension >= sizes.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		if (index < 0 || index >= length(dimension))
+			throw new ArrayIndexOutOfBoundsException(index);
+		
+		int[] newOrigin = origin.clone();
+		newOrigin[axes[dimension]] += index;
+		
+		return new ArrayView<T>(array, newOrigin, remove(axes, dimension), remove(bounds, dimension));
+	}
+
+	// auxiliary methods
+
+	@Override
+	protected void checkBoundaries(int[] pos) {
+		if (pos.length != sizes.length)
+			throw new IllegalArgumentException("Wrong number of dimensions: " + pos.length);
+		
+		if (sizes.length == 0)
+			throw new ArrayIndexOutOfBoundsException();
+		
+		for (int d = 0; d < pos.length; d++) {
+			if (pos[d] < 0 || pos[d] >= length(d))
+				throw new ArrayIndexOutOfBoundsException(pos[d]);
+		}
+	}
+
+	private static int[] remove(int[] is, int i) {
+		int[] result = new int[is.length - 1];
+		System.arraycopy(is, 0, result, 0, i);
+		System.arraycopy(is, i + 1, result, i, result.length - i);
+		return result;
+	}
+
+	private static int[] reverse(int[] is) {
+		int[] result = new int[is.length];
+		for (int i = 0; i < is.length; i++)
+			result[i] = is[is.length - i - 1];
+		
+		return result;
+	}
+
+	// java.lang.Object methods
+
+	@Override
+	public int hashCode() {
+		return isBounded() ? super.hashCode() : snapshot().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return isBounded() ? super.toString() : snapshot().toString();
+	}
+}
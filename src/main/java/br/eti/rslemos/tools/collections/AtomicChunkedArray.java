@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// ChunkedArray for many concurrent readers and writers: every read and write of a cell
+// has volatile semantics, as in AtomicPackedArray, and growing never moves a cell, so
+// that threads may keep reading and writing while another one grows the array. Growth
+// serializes only with itself; before replacing the directory it seals the slots still
+// free in the old one, so that no chunk can be installed where the new one won't see it
+public class AtomicChunkedArray<T> extends AbstractMultiDimensionalArray<T> {
+	// chunks hold 2^CHUNK_BITS cells (or a single one, for no dimensions at all)
+	private static final int CHUNK_BITS = 12;
+	
+	// stands in a sealed slot of a directory that is being replaced
+	private static final AtomicReferenceArray<Object> SEALED = new AtomicReferenceArray<Object>(0);
+	
+	private final int[] shifts;
+	private final int[] masks;
+	private final int chunkSize;
+	
+	private volatile Directory directory;
+
+	// sizes and chunk capacity, both in each dimension, and the chunks themselves,
+	// in row-major order over capacity; replaced as a whole on every growth
+	private static final class Directory {
+		final int[] sizes;
+		final int[] capacity;
+		final AtomicReferenceArray<AtomicReferenceArray<Object>> chunks;
+		
+		Directory(int[] sizes, int[] capacity, AtomicReferenceArray<AtomicReferenceArray<Object>> chunks) {
+			this.sizes = sizes;
+			this.capacity = capacity;
+			this.chunks = chunks;
+		}
+	}
+
+	public AtomicChunkedArray(int... sizes) {
+		super(sizes.clone());
+		
+		int n = sizes.length;
+		shifts = new int[n];
+		masks = new int[n];
+		int bits = 0;
+		for (int i = 0; i < n; i++) {
+			shifts[i] = CHUNK_BITS / n + (i >= n - CHUNK_BITS % n ? 1 : 0);
+			masks[i] = (1 << shifts[i]) - 1;
+			bits += shifts[i];
+		}
+		chunkSize = 1 << bits;
+		
+		int[] capacity = new int[n];
+		for (int i = 0; i < n; i++) {
+			capacity[i] = chunksFor(i, sizes[i]);
+		}
+		
+		directory = new Directory(sizes.clone(), capacity, new AtomicReferenceArray<AtomicReferenceArray<Object>>(SimplePackedArray.computeSize(capacity)));
+	}
+
+	public AtomicChunkedArray(MultiDimensionalArray<T> init) {
+		this(init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			T element = init.get(address);
+			if (element != null)
+				set(element, address);
+		}
+	}
+
+	public AtomicChunkedArray(Object init, int... sizes) {
+		this(new JavaArrayMultiDimensionalArray<T>(init, sizes));
+	}
+
+	private int chunksFor(int dimension, int length) {
+		return (length + masks[dimension]) >> shifts[dimension];
+	}
+
+	// extends dimension up to length (never shrinks it); new cells are null
+	public void grow(int dimension, int length) {
+		if (dimension < 0 || dimension >= sizes.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		if (length > directory.sizes[dimension])
+			grow0(dimension, length);
+	}
+
+	private synchronized void grow0(int dimension, int length) {
+		Directory directory = this.directory;
+		if (length <= directory.sizes[dimension])
+			return;
+		
+		int[] newSizes = directory.sizes.clone();
+		newSizes[dimension] = length;
+		
+		int[] capacity = directory.capacity;
+		AtomicReferenceArray<AtomicReferenceArray<Object>> chunks = directory.chunks;
+		
+		int needed = chunksFor(dimension, length);
+		if (needed > capacity[dimension]) {
+			capacity = capacity.clone();
+			capacity[dimension] = Math.max(needed, capacity[dimension] * 2);
+			chunks = new AtomicReferenceArray<AtomicReferenceArray<Object>>(SimplePackedArray.computeSize(capacity));
+			
+			Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(directory.capacity);
+			for (int from = 0; addresses.hasNext(); from++) {
+				int[] address = addresses.next();
+				
+				if (directory.chunks.get(from) == null && directory.chunks.compareAndSet(from, null, SEALED))
+					continue;
+				
+				// chunks are never taken out, so failing to seal means one is there by now
+				chunks.set(chunkIndex(capacity, address), directory.chunks.get(from));
+			}
+		}
+		
+		sizes[dimension] = length;
+		this.directory = new Directory(newSizes, capacity, chunks);
+	}
+
+	private static int chunkIndex(int[] capacity, int[] chunk) {
+		int index = 0;
+		for (int i = 0; i < chunk.length; i++)
+			index = index * capacity[i] + chunk[i];
+		
+		return index;
+	}
+
+	// informational methods
+
+	@Override
+	public int[] length() {
+		return directory.sizes.clone();
+	}
+
+	// storage methods
+
+	public T get(int... pos) {
+		Directory directory = this.directory;
+		checkBoundaries(directory, pos);
+		
+		return load(directory, chunk(directory, pos), cell(pos));
+	}
+
+	public T set(T element, int... pos) {
+		Directory directory = this.directory;
+		checkBoundaries(directory, pos);
+		
+		int cell = cell(pos);
+		for (;;) {
+			AtomicReferenceArray<Object> cells = chunk(directory, chunk(directory, pos), element != null);
+			if (cells == null)
+				return null;
+			
+			if (cells != SEALED) {
+				@SuppressWarnings("unchecked")
+				T old = (T) cells.getAndSet(cell, element);
+				return old;
+			}
+			
+			// the directory is being replaced; the new one is about to be published
+			Thread.yield();
+			directory = this.directory;
+		}
+	}
+
+	private int chunk(Directory directory, int[] pos) {
+		int chunk = 0;
+		for (int i = 0; i < pos.length; i++)
+			chunk = chunk * directory.capacity[i] + (pos[i] >> shifts[i]);
+		
+		return chunk;
+	}
+
+	private int cell(int[] pos) {
+		int cell = 0;
+		for (int i = 0; i < pos.length; i++)
+			cell = (cell << shifts[i]) | (pos[i] & masks[i]);
+		
+		return cell;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T load(Directory directory, int chunk, int cell) {
+		// a sealed slot had no chunk, so its cells were never written
+		AtomicReferenceArray<Object> cells = directory.chunks.get(chunk);
+		return cells != null && cells != SEALED ? (T) cells.get(cell) : null;
+	}
+
+	// null if the chunk is missing and create is false
+	private AtomicReferenceArray<Object> chunk(Directory directory, int chunk, boolean create) {
+		AtomicReferenceArray<Object> cells = directory.chunks.get(chunk);
+		if (cells != null || !create)
+			return cells;
+		
+		directory.chunks.compareAndSet(chunk, null, new AtomicReferenceArray<Object>(chunkSize));
+		return directory.chunks.get(chunk);
+	}
+
+	private void checkBoundaries(Directory directory, int[] pos) {
+		if (pos.length != directory.sizes.length)
+			throw new IllegalArgumentException("Wrong number of dimensions: " + pos.length);
+		
+		if (pos.length == 0)
+			throw new ArrayIndexOutOfBoundsException();
+		
+		for (int i = 0; i < pos.length; i++) {
+			if (pos[i] < 0 || pos[i] >= directory.sizes[i])
+				throw new ArrayIndexOutOfBoundsException(pos[i]);
+		}
+	}
+
+	// view methods; views see the array grow along every dimension they don't slice
+
+	public MultiDimensionalArray<T> slice(int dimension, int from, int to) {
+		return ArrayView.of(this).slice(dimension, from, to);
+	}
+
+	public MultiDimensionalArray<T> swap(int dimensionA, int dimensionB) {
+		return ArrayView.of(this).swap(dimensionA, dimensionB);
+	}
+
+	public MultiDimensionalArray<T> transpose() {
+		return ArrayView.of(this).transpose();
+	}
+
+	// the cells at index along dimension, as an array of one dimension less
+	public MultiDimensionalArray<T> fix(int dimension, int index) {
+		return ArrayView.of(this).fix(dimension, index);
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// every read and write of a cell has volatile semantics, so that
+// threads may share the array without any further synchronization
+public class AtomicPackedArray<T> extends PackedArray<T> {
+	final AtomicReferenceArray<T> cells;
+
+	public AtomicPackedArray(int... sizes) {
+		this(new AtomicReferenceArray<T>(computeSize(sizes)), sizes, computeStrides(sizes), 0);
+	}
+
+	public AtomicPackedArray(MultiDimensionalArray<T> init) {
+		this(init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			cells.set(computeAddress(address), init.get(address));
+		}
+	}
+
+	public AtomicPackedArray(Object init, int... sizes) {
+		this(new JavaArrayMultiDimensionalArray<T>(init, sizes));
+	}
+
+	protected AtomicPackedArray(AtomicReferenceArray<T> cells, int[] sizes, int[] strides, int base) {
+		super(null, sizes, strides, base);
+		this.cells = cells;
+	}
+
+	@Override
+	protected AtomicPackedArray<T> view(int[] sizes, int[] strides, int base) {
+		return new AtomicPackedArray<T>(cells, sizes, strides, base);
+	}
+
+	// storage methods
+
+	// sets the cell to update only if it still holds expect (compared by identity)
+	public boolean compareAndSet(T expect, T update, int... pos) {
+		checkBoundaries(pos);
+		return cells.compareAndSet(computeAddress(pos), expect, update);
+	}
+
+	@Override
+	protected T load(int address) {
+		return cells.get(address);
+	}
+
+	@Override
+	protected T store(int address, T element) {
+		return cells.getAndSet(address, element);
+	}
+
+	// view methods
+
+	@Override
+	public AtomicPackedArray<T> slice(int dimension, int from, int to) {
+		return (AtomicPackedArray<T>) super.slice(dimension, from, to);
+	}
+
+	@Override
+	public AtomicPackedArray<T> swap(int dimensionA, int dimensionB) {
+		return (AtomicPackedArray<T>) super.swap(dimensionA, dimensionB);
+	}
+
+	@Override
+	public AtomicPackedArray<T> transpose() {
+		return (AtomicPackedArray<T>) super.transpose();
+	}
+
+	@Override
+	public AtomicPackedArray<T> fix(int dimension, int index) {
+		return (AtomicPackedArray<T>) super.fix(dimension, index);
+	}
+}
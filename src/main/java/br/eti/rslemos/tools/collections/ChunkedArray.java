@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Iterator;
+
+// cells live in fixed-size hypercubic chunks, allocated on first write, so that
+// any dimension can grow without moving a single cell: growing only updates the
+// size, and, once the chunks along that dimension run out, reallocates the
+// directory of chunks with twice their number along it. Each new index thus
+// costs O(1) amortized (O(number of chunks) once in every doubling), against
+// the O(number of cells) of recopying a packed array.
+public class ChunkedArray<T> extends AbstractMultiDimensionalArray<T> {
+	// chunks hold 2^CHUNK_BITS cells (or a single one, for no dimensions at all)
+	private static final int CHUNK_BITS = 12;
+	
+	// log2 of the chunk length along each dimension: CHUNK_BITS spread as evenly as
+	// possible, inner dimensions taking the remainder, so that chunks never shrink
+	// to a single cell however many dimensions there are
+	private final int[] shifts;
+	private final int[] masks;
+	private final int chunkSize;
+	// those of dimension 0, the same for every dimension in the fixed-arity accessors
+	// (CHUNK_BITS splits evenly over 1, 2 or 3 dimensions)
+	private final int shift;
+	private final int mask;
+	
+	// directory of chunks, in row-major order over capacity
+	private int[] capacity;
+	private Object[][] chunks;
+
+	public ChunkedArray(int... sizes) {
+		super(sizes.clone());
+		
+		int n = sizes.length;
+		shifts = new int[n];
+		masks = new int[n];
+		int bits = 0;
+		for (int i = 0; i < n; i++) {
+			shifts[i] = CHUNK_BITS / n + (i >= n - CHUNK_BITS % n ? 1 : 0);
+			masks[i] = (1 << shifts[i]) - 1;
+			bits += shifts[i];
+		}
+		chunkSize = 1 << bits;
+		shift = n > 0 ? shifts[0] : 0;
+		mask = n > 0 ? masks[0] : 0;
+		
+		capacity = new int[n];
+		for (int i = 0; i < n; i++) {
+			capacity[i] = chunksFor(i, sizes[i]);
+		}
+		
+		chunks = new Object[SimplePackedArray.computeSize(capacity)][];
+	}
+
+	public ChunkedArray(MultiDimensionalArray<T> init) {
+		this(init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			T element = init.get(address);
+			if (element != null)
+				set(element, address);
+		}
+	}
+
+	public ChunkedArray(Object init, int... sizes) {
+		this(new JavaArrayMultiDimensionalArray<T>(init, sizes));
+	}
+
+	private int chunksFor(int dimension, int length) {
+		return (length + masks[dimension]) >> shifts[dimension];
+	}
+
+	// extends dimension up to length (never shrinks it); new cells are null
+	public void grow(int dimension, int length) {
+		if (dimension < 0 || dimension >= sizes.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		if (length <= sizes[dimension])
+			return;
+		
+		int needed = chunksFor(dimension, length);
+		if (needed > capacity[dimension]) {
+			int[] newCapacity = capacity.clone();
+			newCapacity[dimension] = Math.max(needed, capacity[dimension] * 2);
+			
+			Object[][] newChunks = new Object[SimplePackedArray.computeSize(newCapacity)][];
+			
+			Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(capacity);
+			for (int from = 0; addresses.hasNext(); from++) {
+				int[] address = addresses.next();
+				if (chunks[from] != null)
+					newChunks[chunkIndex(newCapacity, address)] = chunks[from];
+			}
+			
+			capacity = newCapacity;
+			chunks = newChunks;
+		}
+		
+		sizes[dimension] = length;
+	}
+
+	private static int chunkIndex(int[] capacity, int[] chunk) {
+		int index = 0;
+		for (int i = 0; i < chunk.length; i++)
+			index = index * capacity[i] + chunk[i];
+		
+		return index;
+	}
+
+	// storage methods
+
+	public T get(int... pos) {
+		checkBoundaries(pos);
+		
+		int chunk = 0;
+		int cell = 0;
+		for (int i = 0; i < pos.length; i++) {
+			chunk = chunk * capacity[i] + (pos[i] >> shifts[i]);
+			cell = (cell << shifts[i]) | (pos[i] & masks[i]);
+		}
+		
+		return load(chunk, cell);
+	}
+
+	public T set(T element, int... pos) {
+		checkBoundaries(pos);
+		
+		int chunk = 0;
+		int cell = 0;
+		for (int i = 0; i < pos.length; i++) {
+			chunk = chunk * capacity[i] + (pos[i] >> shifts[i]);
+			cell = (cell << shifts[i]) | (pos[i] & masks[i]);
+		}
+		
+		return store(chunk, cell, element);
+	}
+
+	@Override
+	public T get(int i) {
+		checkBoundaries(i);
+		return load(i >> shift, i & mask);
+	}
+
+	@Override
+	public T get(int i, int j) {
+		checkBoundaries(i, j);
+		return load((i >> shift) * capacity[1] + (j >> shift), ((i & mask) << shift) | (j & mask));
+	}
+
+	@Override
+	public T get(int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return load(((i >> shift) * capacity[1] + (j >> shift)) * capacity[2] + (k >> shift), 
+				((((i & mask) << shift) | (j & mask)) << shift) | (k & mask));
+	}
+
+	@Override
+	public T set(T element, int i) {
+		checkBoundaries(i);
+		return store(i >> shift, i & mask, element);
+	}
+
+	@Override
+	public T set(T element, int i, int j) {
+		checkBoundaries(i, j);
+		return store((i >> shift) * capacity[1] + (j >> shift), ((i & mask) << shift) | (j & mask), element);
+	}
+
+	@Override
+	public T set(T element, int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return store(((i >> shift) * capacity[1] + (j >> shift)) * capacity[2] + (k >> shift), 
+				((((i & mask) << shift) | (j & mask)) << shift) | (k & mask), element);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T load(int chunk, int cell) {
+		Object[] cells = chunks[chunk];
+		return cells != null ? (T) cells[cell] : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T store(int chunk, int cell, T element) {
+		Object[] cells = chunks[chunk];
+		if (cells == null) {
+			if (element == null)
+				return null;
+			
+			cells = chunks[chunk] = new Object[chunkSize];
+		}
+		
+		T old = (T) cells[cell];
+		cells[cell] = element;
+		return old;
+	}
+
+	// view methods; views see the array grow along every dimension they don't slice
+
+	public MultiDimensionalArray<T> slice(int dimension, int from, int to) {
+		return ArrayView.of(this).slice(dimension, from, to);
+	}
+
+	public MultiDimensionalArray<T> swap(int dimensionA, int dimensionB) {
+		return ArrayView.of(this).swap(dimensionA, dimensionB);
+	}
+
+	public MultiDimensionalArray<T> transpose() {
+		return ArrayView.of(this).transpose();
+	}
+
+	// the cells at index along dimension, as an array of one dimension less
+	public MultiDimensionalArray<T> fix(int dimension, int index) {
+		return ArrayView.of(this).fix(dimension, index);
+	}
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+// two dimensions (rows, columns), stored column by column: each column is a
+// PackedArray of its own, of a primitive kind for columns of int, long, float or
+// double type, so that scanning a column walks contiguous, unboxed memory.
+// Primitive columns cannot hold null: their cells read zero until set.
+public class ColumnarArray<T> extends AbstractMultiDimensionalArray<T> {
+	
+	private final PackedArray<T>[] columns;
+	// what an unset cell holds in each column
+	private final Object[] zeros;
+
+	public ColumnarArray(int rows, Class<?>... types) {
+		super(rows, types.length);
+		
+		columns = newColumns(types.length);
+		zeros = new Object[types.length];
+		for (int j = 0; j < types.length; j++) {
+			@SuppressWarnings("unchecked")
+			PackedArray<T> column = (PackedArray<T>) newColumn(types[j], rows);
+			columns[j] = column;
+			zeros[j] = zero(types[j]);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> PackedArray<T>[] newColumns(int length) {
+		return (PackedArray<T>[]) new PackedArray<?>[length];
+	}
+
+	private static PackedArray<?> newColumn(Class<?> type, int rows) {
+		if (type == int.class)
+			return new IntPackedArray(new int[] {rows});
+		
+		if (type == long.class)
+			return new LongPackedArray(new int[] {rows});
+		
+		if (type == float.class)
+			return new FloatPackedArray(new int[] {rows});
+		
+		if (type == double.class)
+			return new DoublePackedArray(new int[] {rows});
+		
+		return new PackedArray<Object>(new int[] {rows});
+	}
+
+	private static Object zero(Class<?> type) {
+		if (type == int.class)
+			return 0;
+		
+		if (type == long.class)
+			return 0L;
+		
+		if (type == float.class)
+			return 0F;
+		
+		if (type == double.class)
+			return 0D;
+		
+		return null;
+	}
+
+	// the storage of column j, an IntPackedArray for an int column and so on;
+	// replaced by a longer one on every grow
+	public PackedArray<?> column(int j) {
+		return columns[j];
+	}
+
+	// extends the rows up to length (never shrinks them); new cells are null (or zero)
+	public void grow(int length) {
+		if (length <= sizes[0])
+			return;
+		
+		for (int j = 0; j < columns.length; j++) {
+			PackedArray<T> column = columns[j].allocate(new int[] {length});
+			MultiDimensionalArrays.copy(columns[j], new int[] {0}, column, new int[] {0}, new int[] {sizes[0]});
+			columns[j] = column;
+		}
+		
+		sizes[0] = length;
+	}
+
+	// moves rows column by column, in bulk if both columns have the same storage kind
+	boolean bulkCopy(int[] srcFrom, ColumnarArray<T> dst, int[] dstFrom, int[] lengths) {
+		// columns of a copy onto itself would overlap
+		if (this == dst && srcFrom[1] != dstFrom[1])
+			return false;
+		
+		for (int i = 0; i < 2; i++) {
+			if (lengths[i] < 0 
+					|| srcFrom[i] < 0 || srcFrom[i] + lengths[i] > this.sizes[i] 
+					|| dstFrom[i] < 0 || dstFrom[i] + lengths[i] > dst.sizes[i])
+				return false;
+		}
+		
+		for (int j = 0; j < lengths[1]; j++) {
+			MultiDimensionalArrays.copy(
+					this.columns[srcFrom[1] + j], new int[] {srcFrom[0]}, 
+					dst.columns[dstFrom[1] + j], new int[] {dstFrom[0]}, 
+					new int[] {lengths[0]});
+		}
+		
+		return true;
+	}
+
+	// storage methods
+
+	public T get(int... pos) {
+		checkBoundaries(pos);
+		return columns[pos[1]].get(pos[0]);
+	}
+
+	public T set(T element, int... pos) {
+		checkBoundaries(pos);
+		return set(element, pos[0], pos[1]);
+	}
+
+	@Override
+	public T get(int i, int j) {
+		checkBoundaries(i, j);
+		return columns[j].get(i);
+	}
+
+	@Override
+	public T set(T element, int i, int j) {
+		checkBoundaries(i, j);
+		return columns[j].set(element, i);
+	}
+
+	// puts cell (i, j) back as it was before any set: null, or zero in a primitive column
+	@SuppressWarnings("unchecked")
+	T unset(int i, int j) {
+		checkBoundaries(i, j);
+		return columns[j].set((T) zeros[j], i);
+	}
+
+	// view methods; views read and write through this array, so they survive a grow
+	// (and see the new rows, unless they slice the rows)
+
+	public MultiDimensionalArray<T> slice(int dimension, int from, int to) {
+		return ArrayView.of(this).slice(dimension, from, to);
+	}
+
+	public MultiDimensionalArray<T> swap(int dimensionA, int dimensionB) {
+		return ArrayView.of(this).swap(dimensionA, dimensionB);
+	}
+
+	public MultiDimensionalArray<T> transpose() {
+		return ArrayView.of(this).transpose();
+	}
+}
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// OrderedMultiDimensionalMap for many concurrent readers and writers, without locks:
+// the first thread to publish a new key in the index of a dimension takes the next
+// ordinal by CAS on the length of that dimension, and cells are read and written
+// with volatile semantics. Capacity is fixed by the backing array, unless it is an
+// AtomicChunkedArray, which grows on demand.
+public class ConcurrentMultiDimensionalMap<K, V> implements MultiDimensionalMap<K, V> {
+	
+	// stands for the null key in the indexes
+	private static final Object NULL = new Object();
+	
+	private final MultiDimensionalArray<V> array;
+	private final ConcurrentMap<Object, Slot>[] index;
+	private final AtomicInteger[] length;
+	private final int[] capacity;
+
+	public ConcurrentMultiDimensionalMap(int... capacity) {
+		this(new AtomicPackedArray<V>(capacity));
+	}
+
+	// array must itself be thread-safe
+	public ConcurrentMultiDimensionalMap(MultiDimensionalArray<V> array) {
+		this.array = array;
+		capacity = array.length();
+		length = new AtomicInteger[capacity.length];
+		index = newIndex(capacity.length);
+		for (int i = 0; i < index.length; i++) {
+			length[i] = new AtomicInteger();
+			index[i] = new ConcurrentHashMap<Object, Slot>();
+		}
+	}
+
+	private ConcurrentMultiDimensionalMap(MultiDimensionalArray<V> array, ConcurrentMap<Object, Slot>[] index, AtomicInteger[] length, int[] capacity) {
+		this.array = array;
+		this.index = index;
+		this.length = length;
+		this.capacity = capacity;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ConcurrentMap<Object, Slot>[] newIndex(int dimensions) {
+		return (ConcurrentMap<Object, Slot>[]) new ConcurrentMap<?, ?>[dimensions];
+	}
+
+	// ordinal of a key, published before being known
+	private static final class Slot {
+		static final int PENDING = -1;
+		static final int FAILED = -2;
+		
+		// waiters yield this many times, then park for twice as long each time, up to MAX_PARK
+		private static final int SPINS = 64;
+		private static final long MAX_PARK = 1L << 20;
+		
+		volatile int ordinal = PENDING;
+		
+		int await() {
+			int ordinal;
+			long park = 1024;
+			for (int spins = 0; (ordinal = this.ordinal) == PENDING; spins++) {
+				if (spins < SPINS) {
+					Thread.yield();
+				} else {
+					LockSupport.parkNanos(this, park);
+					park = Math.min(park << 1, MAX_PARK);
+				}
+			}
+			
+			return ordinal;
+		}
+	}
+
+	private int[] computeAddress(K... key) {
+		int[] address = new int[key.length];
+		
+		for (int i = 0; i < key.length; i++) {
+			address[i] = computeAddress(i, key[i]);
+		}
+		
+		return address;
+	}
+
+	// a thread waiting for another one to number key takes over if that one fails
+	private int computeAddress(int dimension, K key) {
+		Object k = key != null ? key : NULL;
+		
+		for (;;) {
+			Slot slot = index[dimension].get(k);
+			if (slot == null) {
+				Slot candidate = new Slot();
+				slot = index[dimension].putIfAbsent(k, candidate);
+				
+				if (slot == null) {
+					boolean published = false;
+					try {
+						candidate.ordinal = allocAddress(dimension);
+						published = true;
+						return candidate.ordinal;
+					} finally {
+						if (!published) {
+							// release the waiters, and let the key be tried again
+							candidate.ordinal = Slot.FAILED;
+							index[dimension].remove(k, candidate);
+						}
+					}
+				}
+			}
+			
+			int ordinal = slot.await();
+			if (ordinal >= 0)
+				return ordinal;
+		}
+	}
+
+	// storage is grown before the ordinal is claimed, so a failed growth claims nothing
+	private int allocAddress(int dimension) {
+		int ordinal;
+		do {
+			ordinal = length[dimension].get();
+			
+			if (array instanceof AtomicChunkedArray)
+				((AtomicChunkedArray<V>) array).grow(dimension, ordinal + 1);
+			else if (ordinal == capacity[dimension])
+				throw new ArrayIndexOutOfBoundsException(capacity[dimension]);
+		} while (!length[dimension].compareAndSet(ordinal, ordinal + 1));
+		
+		return ordinal;
+	}
+
+	// -1 if key was never put along dimension (or is still being put)
+	private int indexOf(int dimension, K key) {
+		Slot slot = index[dimension].get(key != null ? key : NULL);
+		return slot != null ? slot.ordinal : -1;
+	}
+
+	private void checkDimensions(K... key) {
+		if (key.length != index.length)
+			throw new IllegalArgumentException("Wrong number of dimensions: " + key.length);
+	}
+
+	// reads never register keys: a key unknown to any dimension means there's no element there
+	public V get(K... key) {
+		checkDimensions(key);
+		
+		switch (key.length) {
+		case 1: {
+			int i = indexOf(0, key[0]);
+			return i < 0 ? null : array.get(i);
+		}
+		case 2: {
+			int i = indexOf(0, key[0]);
+			int j = indexOf(1, key[1]);
+			return i < 0 || j < 0 ? null : array.get(i, j);
+		}
+		case 3: {
+			int i = indexOf(0, key[0]);
+			int j = indexOf(1, key[1]);
+			int k = indexOf(2, key[2]);
+			return i < 0 || j < 0 || k < 0 ? null : array.get(i, j, k);
+		}
+		default: {
+			int[] address = new int[key.length];
+			for (int d = 0; d < key.length; d++) {
+				if ((address[d] = indexOf(d, key[d])) < 0)
+					return null;
+			}
+			
+			return array.get(address);
+		}
+		}
+	}
+
+	public void put(V element, K... key) {
+		checkDimensions(key);
+		
+		switch (key.length) {
+		case 1:
+			array.set(element, computeAddress(0, key[0]));
+			break;
+		case 2:
+			array.set(element, computeAddress(0, key[0]), computeAddress(1, key[1]));
+			break;
+		case 3:
+			array.set(element, computeAddress(0, key[0]), computeAddress(1, key[1]), computeAddress(2, key[2]));
+			break;
+		default:
+			array.set(element, computeAddress(key));
+		}
+	}
+
+	public int length(int dimension) {
+		if (dimension < 0 || dimension >= index.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		return length[dimension].get();
+	}
+
+	public int dimensions() {
+		return array.dimensions();
+	}
+
+	// view methods
+
+	// the cells at key along dimension, as a live map of one dimension less that shares
+	// storage and keys with this one; key must be known already
+	public ConcurrentMultiDimensionalMap<K, V> fix(int dimension, K key) {
+		if (dimension < 0 || dimension >= index.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		if (!(array instanceof PackedArray))
+			throw new UnsupportedOperationException("Cannot fix a dimension of " + array.getClass().getName());
+		
+		// like get, never registers key
+		int ordinal = indexOf(dimension, key);
+		if (ordinal < 0)
+			throw new NoSuchElementException("Unknown key: " + key);
+		
+		PackedArray<V> view = ((PackedArray<V>) array).fix(dimension, ordinal);
+		
+		ConcurrentMap<Object, Slot>[] newIndex = newIndex(index.length - 1);
+		System.arraycopy(index, 0, newIndex, 0, dimension);
+		System.arraycopy(index, dimension + 1, newIndex, dimension, newIndex.length - dimension);
+		
+		AtomicInteger[] newLength = new AtomicInteger[length.length - 1];
+		System.arraycopy(length, 0, newLength, 0, dimension);
+		System.arraycopy(length, dimension + 1, newLength, dimension, newLength.length - dimension);
+		
+		int[] newCapacity = new int[capacity.length - 1];
+		System.arraycopy(capacity, 0, newCapacity, 0, dimension);
+		System.arraycopy(capacity, dimension + 1, newCapacity, dimension, newCapacity.length - dimension);
+		
+		return new ConcurrentMultiDimensionalMap<K, V>(view, newIndex, newLength, newCapacity);
+	}
+
+}
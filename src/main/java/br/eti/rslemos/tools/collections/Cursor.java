@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.NoSuchElementException;
+
+// walks every cell of a MultiDimensionalArray in row-major order without allocating:
+// 
+//   Cursor<T> cursor = array.cursor();
+//   while (cursor.advance()) {
+//       ... cursor.coordinate(i) ... cursor.get() ... cursor.set(e) ...
+//   }
+public abstract class Cursor<T> {
+	private static final int BEFORE = 0;
+	private static final int ON = 1;
+	private static final int AFTER = 2;
+	
+	protected final int[] sizes;
+	protected final int[] pos;
+	private int ordinal;
+	private int state;
+
+	protected Cursor(int... sizes) {
+		this.sizes = sizes.clone();
+		this.pos = new int[sizes.length];
+		this.ordinal = -1;
+		this.state = BEFORE;
+	}
+
+	public boolean advance() {
+		if (state == ON) {
+			ordinal++;
+			for (int d = pos.length - 1; d >= 0; d--) {
+				if (++pos[d] < sizes[d]) {
+					moved(d, +1);
+					return true;
+				}
+				
+				pos[d] = 0;
+				moved(d, 1 - sizes[d]);
+			}
+			
+			state = AFTER;
+			return false;
+		} else if (state == BEFORE) {
+			if (MultiDimensionalArrays.isEmpty(sizes)) {
+				state = AFTER;
+				return false;
+			}
+			
+			ordinal = 0;
+			state = ON;
+			return true;
+		} else
+			return false;
+	}
+
+	public int coordinate(int dimension) {
+		checkPosition();
+		return pos[dimension];
+	}
+
+	// offset of the current cell in the linear storage of the array;
+	// arrays without linear storage report the row-major ordinal
+	public int linearOffset() {
+		checkPosition();
+		return ordinal;
+	}
+
+	public abstract T get();
+
+	public abstract T set(T element);
+
+	// called whenever the coordinate along dimension changes by delta
+	protected void moved(int dimension, int delta) {
+	}
+
+	protected final void checkPosition() {
+		if (state != ON)
+			throw new NoSuchElementException();
+	}
+
+	// for arrays without anything better than get(int...)/set(T, int...)
+	static <T> Cursor<T> over(final MultiDimensionalArray<T> array) {
+		return new Cursor<T>(array.length()) {
+			@Override
+			public T get() {
+				checkPosition();
+				return array.get(pos);
+			}
+
+			@Override
+			public T set(T element) {
+				checkPosition();
+				return array.set(element, pos);
+			}
+		};
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Iterator;
+
+// cells hold unboxed double values: they read 0 until set, and null cannot be stored
+public class DoublePackedArray extends PackedArray<Double> {
+	final double[] values;
+
+	public DoublePackedArray(int... sizes) {
+		this(new double[computeSize(sizes)], sizes, computeStrides(sizes), 0);
+	}
+
+	public DoublePackedArray(MultiDimensionalArray<Double> init) {
+		this(init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		if (init instanceof DoublePackedArray) {
+			DoublePackedArray packed = (DoublePackedArray) init;
+			while(addresses.hasNext()) {
+				int[] address = addresses.next();
+				values[computeAddress(address)] = packed.getDouble(address);
+			}
+		} else {
+			while(addresses.hasNext()) {
+				int[] address = addresses.next();
+				Double element = init.get(address);
+				if (element != null)
+					values[computeAddress(address)] = element;
+			}
+		}
+	}
+
+	public DoublePackedArray(Object init, int... sizes) {
+		this(new JavaArrayMultiDimensionalArray<Double>(init, sizes));
+	}
+
+	protected DoublePackedArray(double[] values, int[] sizes, int[] strides, int base) {
+		super(null, sizes, strides, base);
+		this.values = values;
+	}
+
+	@Override
+	protected DoublePackedArray view(int[] sizes, int[] strides, int base) {
+		return new DoublePackedArray(this.values, sizes, strides, base);
+	}
+
+	@Override
+	protected DoublePackedArray allocate(int[] sizes) {
+		return new DoublePackedArray(sizes);
+	}
+
+	@Override
+	Object storage() {
+		return values;
+	}
+
+	// storage methods
+
+	public double getDouble(int... pos) {
+		checkBoundaries(pos);
+		return values[computeAddress(pos)];
+	}
+
+	public double setDouble(double element, int... pos) {
+		checkBoundaries(pos);
+		return storeDouble(computeAddress(pos), element);
+	}
+
+	public double getDouble(int i) {
+		checkBoundaries(i);
+		return values[computeAddress(i)];
+	}
+
+	public double getDouble(int i, int j) {
+		checkBoundaries(i, j);
+		return values[computeAddress(i, j)];
+	}
+
+	public double getDouble(int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return values[computeAddress(i, j, k)];
+	}
+
+	public double setDouble(double element, int i) {
+		checkBoundaries(i);
+		return storeDouble(computeAddress(i), element);
+	}
+
+	public double setDouble(double element, int i, int j) {
+		checkBoundaries(i, j);
+		return storeDouble(computeAddress(i, j), element);
+	}
+
+	public double setDouble(double element, int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return storeDouble(computeAddress(i, j, k), element);
+	}
+
+	@Override
+	protected Double load(int address) {
+		return values[address];
+	}
+
+	@Override
+	protected Double store(int address, Double element) {
+		if (element == null)
+			throw new NullPointerException("DoublePackedArray cannot hold null");
+		
+		return storeDouble(address, element);
+	}
+
+	private double storeDouble(int address, double element) {
+		double old = values[address];
+		values[address] = element;
+		return old;
+	}
+
+	// view methods
+
+	@Override
+	public DoublePackedArray slice(int dimension, int from, int to) {
+		return (DoublePackedArray) super.slice(dimension, from, to);
+	}
+
+	@Override
+	public DoublePackedArray swap(int dimensionA, int dimensionB) {
+		return (DoublePackedArray) super.swap(dimensionA, dimensionB);
+	}
+
+	@Override
+	public DoublePackedArray transpose() {
+		return (DoublePackedArray) super.transpose();
+	}
+
+	@Override
+	public DoublePackedArray fix(int dimension, int index) {
+		return (DoublePackedArray) super.fix(dimension, index);
+	}
+}
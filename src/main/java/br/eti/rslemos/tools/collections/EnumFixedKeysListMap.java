@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+// columns are the constants of an enum, looked up by ordinal
+public class EnumFixedKeysListMap<K extends Enum<K>, V> extends FixedKeysListMap<K, V> {
+
+	private final Class<K> keyType;
+
+	public EnumFixedKeysListMap(Class<K> keyType) {
+		this(keyType, keyType.getEnumConstants());
+	}
+
+	// columnar mode, types given in ordinal order; see FixedKeysListMap
+	public EnumFixedKeysListMap(Class<K> keyType, Class<?>... types) {
+		super(new ColumnarArray<V>(0, types), false, keyType.getEnumConstants());
+		this.keyType = keyType;
+	}
+
+	private EnumFixedKeysListMap(Class<K> keyType, K[] keys) {
+		super(new PackedArray<V>(new int[] {0, keys.length}), false, keys);
+		this.keyType = keyType;
+	}
+
+	public V get(int i, K key) {
+		if (i < 0 || i >= size())
+			throw new IndexOutOfBoundsException();
+		
+		return get(i, key.ordinal());
+	}
+
+	@Override
+	protected V put(int i, K key, V value) {
+		if (i < 0 || i >= size())
+			throw new IndexOutOfBoundsException();
+		
+		return set(value, i, key.ordinal());
+	}
+
+	@Override
+	public int columnOf(Object key) {
+		return EnumFixedSizeListMap.ordinal(keyType, key);
+	}
+}
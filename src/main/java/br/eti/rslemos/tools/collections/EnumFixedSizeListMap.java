@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+// columns are the constants of an enum, looked up by ordinal
+public class EnumFixedSizeListMap<K extends Enum<K>, V> extends FixedSizeListMap<K, V> {
+
+	private final Class<K> keyType;
+
+	public EnumFixedSizeListMap(Class<K> keyType, int length) {
+		this(keyType, length, keyType.getEnumConstants());
+	}
+
+	private EnumFixedSizeListMap(Class<K> keyType, int length, K[] keys) {
+		super(new PackedArray<V>(new int[] {length, keys.length}), false, keys);
+		this.keyType = keyType;
+	}
+
+	public V get(int i, K key) {
+		if (i < 0 || i >= size())
+			throw new IndexOutOfBoundsException();
+		
+		return get(i, key.ordinal());
+	}
+
+	@Override
+	protected V put(int i, K key, V value) {
+		if (i < 0 || i >= size())
+			throw new IndexOutOfBoundsException();
+		
+		return set(value, i, key.ordinal());
+	}
+
+	@Override
+	public int columnOf(Object key) {
+		return ordinal(keyType, key);
+	}
+
+	// -1 if key is not a constant of keyType
+	static int ordinal(Class<?> keyType, Object key) {
+		if (key == null)
+			return -1;
+		
+		// constants with a body are instances of an anonymous subclass
+		Class<?> type = key.getClass();
+		if (type != keyType && type.getSuperclass() != keyType)
+			return -1;
+		
+		return ((Enum<?>) key).ordinal();
+	}
+}
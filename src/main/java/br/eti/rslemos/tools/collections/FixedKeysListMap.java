@@ -20,6 +20,7 @@
  ******************************************************************************/
 package br.eti.rslemos.tools.collections;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 
@@ -28,7 +29,36 @@ public class FixedKeysListMap<K, V> extends FixedSizeListMap<K, V> {
 	private int size;
 	
 	public FixedKeysListMap(K... keys) {
-		super(new SimplePackedArray<V>(0, keys.length), keys);
+		this(new PackedArray<V>(new int[] {0, keys.length}), true, keys);
+	}
+
+	// columnar mode: one column per key, of a primitive kind if its type is int, long,
+	// float or double (which cannot hold null); see ColumnarArray
+	public FixedKeysListMap(Class<?>[] types, K... keys) {
+		this(new ColumnarArray<V>(0, sortTypes(types, keys)), true, keys);
+	}
+
+	// types follow their keys as these get sorted
+	@SuppressWarnings("unchecked")
+	private static Class<?>[] sortTypes(Class<?>[] types, final Object[] keys) {
+		if (types.length != keys.length || !sortable(keys))
+			return types;
+		
+		Integer[] order = new Integer[keys.length];
+		for (int j = 0; j < order.length; j++)
+			order[j] = j;
+		
+		Arrays.sort(order, (a, b) -> ((Comparable<Object>) keys[a]).compareTo(keys[b]));
+		
+		Class<?>[] sorted = new Class<?>[types.length];
+		for (int j = 0; j < sorted.length; j++)
+			sorted[j] = types[order[j]];
+		
+		return sorted;
+	}
+
+	protected FixedKeysListMap(MultiDimensionalArray<V> array, boolean indexed, K... keys) {
+		super(array, indexed, keys);
 		size = 0;
 	}
 
@@ -86,8 +116,12 @@ public class FixedKeysListMap<K, V> extends FixedSizeListMap<K, V> {
 			if (newCapacity < minCapacity)
 				newCapacity = minCapacity;
 			// minCapacity is usually close to size, so this is a win:
-			array = new SimplePackedArray<V>(newCapacity, array.length()[1]);
-			MultiDimensionalArrays.copy(oldData, array);
+			if (array instanceof ColumnarArray) {
+				((ColumnarArray<V>) array).grow(newCapacity);
+			} else {
+				array = new PackedArray<V>(new int[] {newCapacity, array.length()[1]});
+				MultiDimensionalArrays.copy(oldData, array);
+			}
 		}
 	}
 }
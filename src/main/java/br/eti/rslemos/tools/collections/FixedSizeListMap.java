@@ -34,19 +34,86 @@ import java.util.Set;
 public class FixedSizeListMap<K, V> extends AbstractList<Map<K, V>> implements List<Map<K, V>> {
 
 	protected MultiDimensionalArray<V> array;
+	// sorted, unless not all of them are Comparable (then in the given order)
 	protected final K[] keys;
+	// column of each key, for lookup only
+	private final OrdinalIndex<K> index;
 
 	public FixedSizeListMap(int length, K... keys) {
-		this(new SimplePackedArray<V>(length, keys.length), keys);
+		this(new PackedArray<V>(new int[] {length, keys.length}), keys);
 	}
 
 	protected FixedSizeListMap(MultiDimensionalArray<V> array, K... keys) {
+		this(array, true, keys);
+	}
+
+	// subclasses that override columnOf may do without the index
+	protected FixedSizeListMap(MultiDimensionalArray<V> array, boolean indexed, K... keys) {
 		if (array.length()[1] != keys.length)
 			throw new IllegalArgumentException("Second dimension must have exact number of keys");
 		
 		this.array = array;
 		this.keys = keys.clone();
-		Arrays.sort(this.keys);
+		if (sortable(this.keys))
+			Arrays.sort(this.keys);
+		
+		this.index = indexed ? index(this.keys) : null;
+	}
+
+	static boolean sortable(Object[] keys) {
+		for (Object key : keys) {
+			if (!(key instanceof Comparable))
+				return false;
+		}
+		
+		return true;
+	}
+
+	// null is no key, as for any sorted key set
+	private static <K> OrdinalIndex<K> index(K[] keys) {
+		OrdinalIndex<K> index = new OrdinalIndex<K>(keys.length);
+		for (K key : keys) {
+			if (key == null)
+				throw new NullPointerException("Null key");
+			
+			int size = index.size();
+			if (index.add(key) < size)
+				throw new IllegalArgumentException("Duplicate key: " + key);
+		}
+		
+		return index;
+	}
+
+	// -1 if not one of the keys
+	public int columnOf(Object key) {
+		return index.indexOf(key);
+	}
+
+	// the values under key in every row, as a one-dimension view of the storage;
+	// reads and writes go straight through, until rows are added or removed
+	@SuppressWarnings("unchecked")
+	public PackedArray<V> column(K key) {
+		int j = columnOf(key);
+		if (j < 0)
+			throw new IllegalArgumentException("Unknown key: " + key);
+		
+		PackedArray<V> column;
+		if (array instanceof ColumnarArray)
+			column = (PackedArray<V>) ((ColumnarArray<V>) array).column(j);
+		else if (array instanceof PackedArray)
+			column = ((PackedArray<V>) array).fix(1, j);
+		else
+			throw new UnsupportedOperationException("Cannot view a column of " + array.getClass().getName());
+		
+		// storage may have room for more rows than there are
+		return column.slice(0, 0, size());
+	}
+
+	// looking null up fails, as it did when keys were binary searched; subclasses that
+	// override columnOf decide for themselves
+	private void checkLookup(Object key) {
+		if (key == null && index != null)
+			throw new NullPointerException();
 	}
 
 	protected V get(int i, int j) {
@@ -54,7 +121,9 @@ public class FixedSizeListMap<K, V> extends AbstractList<Map<K, V>> implements L
 	}
 
 	protected V get(int i, Object key) {
-		int idx = Arrays.binarySearch(keys, key);
+		checkLookup(key);
+		
+		int idx = columnOf(key);
 		if (idx < 0)
 			return null;
 		
@@ -65,10 +134,20 @@ public class FixedSizeListMap<K, V> extends AbstractList<Map<K, V>> implements L
 		return array.set(value, i, j);
 	}
 
+	// cell (i, j) as before any put, for keys missing from a row set as a whole;
+	// primitive columns can't hold null, so they are put back to zero
+	protected V unset(int i, int j) {
+		return array instanceof ColumnarArray ? ((ColumnarArray<V>) array).unset(i, j) : array.set(null, i, j);
+	}
+
 	protected V put(int i, K key, V value) {
-		int idx = Arrays.binarySearch(keys, key);
-		if (idx < 0)
+		int idx = columnOf(key);
+		if (idx < 0) {
+			if (key == null)
+				throw new NullPointerException();
+			
 			throw new IllegalArgumentException();
+		}
 		
 		return set(value, i, idx);
 	}
@@ -78,7 +157,9 @@ public class FixedSizeListMap<K, V> extends AbstractList<Map<K, V>> implements L
 	}
 
 	protected boolean containsKey(int i, Object key) {
-		return Arrays.binarySearch(keys, key) >= 0;
+		checkLookup(key);
+		
+		return columnOf(key) >= 0;
 	}
 
 	protected K getKey(int i, int j) {
@@ -101,8 +182,12 @@ public class FixedSizeListMap<K, V> extends AbstractList<Map<K, V>> implements L
 	public Map<K, V> set(int i, Map<K, V> element) {
 		Map<K, V> map = get(i);
 		
-		for (K key : keys) {
-			map.put(key, element.get(key));
+		for (int j = 0; j < keys.length; j++) {
+			V value = element.get(keys[j]);
+			if (value != null)
+				map.put(keys[j], value);
+			else
+				unset(i, j);
 		}
 		
 		return map;
@@ -113,6 +198,132 @@ public class FixedSizeListMap<K, V> extends AbstractList<Map<K, V>> implements L
 		return array.length()[0];
 	}
 
+	// a reusable view of one row at a time, that allocates nothing while moving
+	// or accessing cells by column (see columnOf):
+	// 
+	//   RowCursor cursor = listMap.cursor();
+	//   while (cursor.advance()) {
+	//       ... cursor.getInt(column) ... cursor.set(column, value) ...
+	//   }
+	public RowCursor cursor() {
+		return new RowCursor();
+	}
+
+	public class RowCursor {
+		// -1 before the first row, size() after the last one
+		private int row = -1;
+
+		public boolean advance() {
+			if (row < size())
+				row++;
+			
+			return row < size();
+		}
+
+		public RowCursor moveTo(int row) {
+			if (row < 0 || row >= size())
+				throw new IndexOutOfBoundsException();
+			
+			this.row = row;
+			return this;
+		}
+
+		public int row() {
+			if (row < 0 || row >= size())
+				throw new NoSuchElementException();
+			
+			return row;
+		}
+
+		public K getKey(int column) {
+			return FixedSizeListMap.this.getKey(row(), column);
+		}
+
+		public V get(int column) {
+			return FixedSizeListMap.this.get(row(), column);
+		}
+
+		public V set(int column, V value) {
+			return FixedSizeListMap.this.set(value, row(), column);
+		}
+
+		// typed accessors read and write primitive columns unboxed;
+		// any other column must hold (non-null) numbers of the matching type
+
+		public int getInt(int column) {
+			PackedArray<?> storage = storage(column);
+			if (storage instanceof IntPackedArray)
+				return ((IntPackedArray) storage).getInt(row());
+			
+			return (Integer) get(column);
+		}
+
+		public long getLong(int column) {
+			PackedArray<?> storage = storage(column);
+			if (storage instanceof LongPackedArray)
+				return ((LongPackedArray) storage).getLong(row());
+			
+			return (Long) get(column);
+		}
+
+		public float getFloat(int column) {
+			PackedArray<?> storage = storage(column);
+			if (storage instanceof FloatPackedArray)
+				return ((FloatPackedArray) storage).getFloat(row());
+			
+			return (Float) get(column);
+		}
+
+		public double getDouble(int column) {
+			PackedArray<?> storage = storage(column);
+			if (storage instanceof DoublePackedArray)
+				return ((DoublePackedArray) storage).getDouble(row());
+			
+			return (Double) get(column);
+		}
+
+		@SuppressWarnings("unchecked")
+		public void setInt(int column, int value) {
+			PackedArray<?> storage = storage(column);
+			if (storage instanceof IntPackedArray)
+				((IntPackedArray) storage).setInt(value, row());
+			else
+				set(column, (V) Integer.valueOf(value));
+		}
+
+		@SuppressWarnings("unchecked")
+		public void setLong(int column, long value) {
+			PackedArray<?> storage = storage(column);
+			if (storage instanceof LongPackedArray)
+				((LongPackedArray) storage).setLong(value, row());
+			else
+				set(column, (V) Long.valueOf(value));
+		}
+
+		@SuppressWarnings("unchecked")
+		public void setFloat(int column, float value) {
+			PackedArray<?> storage = storage(column);
+			if (storage instanceof FloatPackedArray)
+				((FloatPackedArray) storage).setFloat(value, row());
+			else
+				set(column, (V) Float.valueOf(value));
+		}
+
+		@SuppressWarnings("unchecked")
+		public void setDouble(int column, double value) {
+			PackedArray<?> storage = storage(column);
+			if (storage instanceof DoublePackedArray)
+				((DoublePackedArray) storage).setDouble(value, row());
+			else
+				set(column, (V) Double.valueOf(value));
+		}
+
+		// looked up on every access, as adding rows may replace the storage
+		private PackedArray<?> storage(int column) {
+			return array instanceof ColumnarArray ? ((ColumnarArray<V>) array).column(column) : null;
+		}
+	}
+
 	private class FixedMap extends AbstractMap<K, V> {
 		private final int i;
 
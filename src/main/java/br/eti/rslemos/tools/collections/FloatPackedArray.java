@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Iterator;
+
+// cells hold unboxed float values: they read 0 until set, and null cannot be stored
+public class FloatPackedArray extends PackedArray<Float> {
+	final float[] values;
+
+	public FloatPackedArray(int... sizes) {
+		this(new float[computeSize(sizes)], sizes, computeStrides(sizes), 0);
+	}
+
+	public FloatPackedArray(MultiDimensionalArray<Float> init) {
+		this(init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		if (init instanceof FloatPackedArray) {
+			FloatPackedArray packed = (FloatPackedArray) init;
+			while(addresses.hasNext()) {
+				int[] address = addresses.next();
+				values[computeAddress(address)] = packed.getFloat(address);
+			}
+		} else {
+			while(addresses.hasNext()) {
+				int[] address = addresses.next();
+				Float element = init.get(address);
+				if (element != null)
+					values[computeAddress(address)] = element;
+			}
+		}
+	}
+
+	public FloatPackedArray(Object init, int... sizes) {
+		this(new JavaArrayMultiDimensionalArray<Float>(init, sizes));
+	}
+
+	protected FloatPackedArray(float[] values, int[] sizes, int[] strides, int base) {
+		super(null, sizes, strides, base);
+		this.values = values;
+	}
+
+	@Override
+	protected FloatPackedArray view(int[] sizes, int[] strides, int base) {
+		return new FloatPackedArray(this.values, sizes, strides, base);
+	}
+
+	@Override
+	protected FloatPackedArray allocate(int[] sizes) {
+		return new FloatPackedArray(sizes);
+	}
+
+	@Override
+	Object storage() {
+		return values;
+	}
+
+	// storage methods
+
+	public float getFloat(int... pos) {
+		checkBoundaries(pos);
+		return values[computeAddress(pos)];
+	}
+
+	public float setFloat(float element, int... pos) {
+		checkBoundaries(pos);
+		return storeFloat(computeAddress(pos), element);
+	}
+
+	public float getFloat(int i) {
+		checkBoundaries(i);
+		return values[computeAddress(i)];
+	}
+
+	public float getFloat(int i, int j) {
+		checkBoundaries(i, j);
+		return values[computeAddress(i, j)];
+	}
+
+	public float getFloat(int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return values[computeAddress(i, j, k)];
+	}
+
+	public float setFloat(float element, int i) {
+		checkBoundaries(i);
+		return storeFloat(computeAddress(i), element);
+	}
+
+	public float setFloat(float element, int i, int j) {
+		checkBoundaries(i, j);
+		return storeFloat(computeAddress(i, j), element);
+	}
+
+	public float setFloat(float element, int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return storeFloat(computeAddress(i, j, k), element);
+	}
+
+	@Override
+	protected Float load(int address) {
+		return values[address];
+	}
+
+	@Override
+	protected Float store(int address, Float element) {
+		if (element == null)
+			throw new NullPointerException("FloatPackedArray cannot hold null");
+		
+		return storeFloat(address, element);
+	}
+
+	private float storeFloat(int address, float element) {
+		float old = values[address];
+		values[address] = element;
+		return old;
+	}
+
+	// view methods
+
+	@Override
+	public FloatPackedArray slice(int dimension, int from, int to) {
+		return (FloatPackedArray) super.slice(dimension, from, to);
+	}
+
+	@Override
+	public FloatPackedArray swap(int dimensionA, int dimensionB) {
+		return (FloatPackedArray) super.swap(dimensionA, dimensionB);
+	}
+
+	@Override
+	public FloatPackedArray transpose() {
+		return (FloatPackedArray) super.transpose();
+	}
+
+	@Override
+	public FloatPackedArray fix(int dimension, int index) {
+		return (FloatPackedArray) super.fix(dimension, index);
+	}
+}
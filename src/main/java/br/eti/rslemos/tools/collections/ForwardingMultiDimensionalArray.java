@@ -20,6 +20,9 @@
  ******************************************************************************/
 package br.eti.rslemos.tools.collections;
 
+import java.util.Map;
+import java.util.stream.Stream;
+
 import com.google.common.collect.ForwardingObject;
 
 public abstract class ForwardingMultiDimensionalArray<T> extends ForwardingObject implements MultiDimensionalArray<T> {
@@ -44,6 +47,48 @@ public abstract class ForwardingMultiDimensionalArray<T> extends ForwardingObjec
 
 	public T set(T element, int... pos) {
 		return delegate().set(element, pos);
+	}
+
+	public T get(int i) {
+		return delegate().get(i);
+	}
+
+	public T get(int i, int j) {
+		return delegate().get(i, j);
+	}
+
+	public T get(int i, int j, int k) {
+		return delegate().get(i, j, k);
+	}
+
+	public T set(T element, int i) {
+		return delegate().set(element, i);
+	}
+
+	public T set(T element, int i, int j) {
+		return delegate().set(element, i, j);
+	}
+
+	public T set(T element, int i, int j, int k) {
+		return delegate().set(element, i, j, k);
+	}
+
+	// traversal methods
+
+	public Cursor<T> cursor() {
+		return delegate().cursor();
+	}
+
+	public Stream<T> elements() {
+		return delegate().elements();
+	}
+
+	public Stream<int[]> addresses() {
+		return delegate().addresses();
+	}
+
+	public Stream<Map.Entry<int[], T>> entries() {
+		return delegate().entries();
 	}
 
 	// view methods
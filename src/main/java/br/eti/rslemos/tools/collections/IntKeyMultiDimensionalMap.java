@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+// coordinates are ints, neither boxed nor, up to three dimensions, gathered into arrays
+public class IntKeyMultiDimensionalMap<V> extends PrimitiveKeyMultiDimensionalMap<V> {
+
+	// grows every dimension on demand
+	public IntKeyMultiDimensionalMap(int dimensions) {
+		this(new ChunkedArray<V>(new int[dimensions]));
+	}
+
+	public IntKeyMultiDimensionalMap(MultiDimensionalArray<V> array) {
+		super(array);
+	}
+
+	public V get(int i) {
+		return get0(i);
+	}
+
+	public V get(int i, int j) {
+		return get0(i, j);
+	}
+
+	public V get(int i, int j, int k) {
+		return get0(i, j, k);
+	}
+
+	public V get(int... key) {
+		return get0(widen(key));
+	}
+
+	public void put(V element, int i) {
+		put0(element, i);
+	}
+
+	public void put(V element, int i, int j) {
+		put0(element, i, j);
+	}
+
+	public void put(V element, int i, int j, int k) {
+		put0(element, i, j, k);
+	}
+
+	public void put(V element, int... key) {
+		put0(element, widen(key));
+	}
+
+	private static long[] widen(int[] key) {
+		long[] result = new long[key.length];
+		for (int i = 0; i < key.length; i++) {
+			result[i] = key[i];
+		}
+		
+		return result;
+	}
+
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Iterator;
+
+// cells hold unboxed int values: they read 0 until set, and null cannot be stored
+public class IntPackedArray extends PackedArray<Integer> {
+	final int[] values;
+
+	public IntPackedArray(int... sizes) {
+		this(new int[computeSize(sizes)], sizes, computeStrides(sizes), 0);
+	}
+
+	public IntPackedArray(MultiDimensionalArray<Integer> init) {
+		this(init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		if (init instanceof IntPackedArray) {
+			IntPackedArray packed = (IntPackedArray) init;
+			while(addresses.hasNext()) {
+				int[] address = addresses.next();
+				values[computeAddress(address)] = packed.getInt(address);
+			}
+		} else {
+			while(addresses.hasNext()) {
+				int[] address = addresses.next();
+				Integer element = init.get(address);
+				if (element != null)
+					values[computeAddress(address)] = element;
+			}
+		}
+	}
+
+	public IntPackedArray(Object init, int... sizes) {
+		this(new JavaArrayMultiDimensionalArray<Integer>(init, sizes));
+	}
+
+	protected IntPackedArray(int[] values, int[] sizes, int[] strides, int base) {
+		super(null, sizes, strides, base);
+		this.values = values;
+	}
+
+	@Override
+	protected IntPackedArray view(int[] sizes, int[] strides, int base) {
+		return new IntPackedArray(this.values, sizes, strides, base);
+	}
+
+	@Override
+	protected IntPackedArray allocate(int[] sizes) {
+		return new IntPackedArray(sizes);
+	}
+
+	@Override
+	Object storage() {
+		return values;
+	}
+
+	// storage methods
+
+	public int getInt(int... pos) {
+		checkBoundaries(pos);
+		return values[computeAddress(pos)];
+	}
+
+	public int setInt(int element, int... pos) {
+		checkBoundaries(pos);
+		return storeInt(computeAddress(pos), element);
+	}
+
+	public int getInt(int i) {
+		checkBoundaries(i);
+		return values[computeAddress(i)];
+	}
+
+	public int getInt(int i, int j) {
+		checkBoundaries(i, j);
+		return values[computeAddress(i, j)];
+	}
+
+	public int getInt(int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return values[computeAddress(i, j, k)];
+	}
+
+	public int setInt(int element, int i) {
+		checkBoundaries(i);
+		return storeInt(computeAddress(i), element);
+	}
+
+	public int setInt(int element, int i, int j) {
+		checkBoundaries(i, j);
+		return storeInt(computeAddress(i, j), element);
+	}
+
+	public int setInt(int element, int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return storeInt(computeAddress(i, j, k), element);
+	}
+
+	@Override
+	protected Integer load(int address) {
+		return values[address];
+	}
+
+	@Override
+	protected Integer store(int address, Integer element) {
+		if (element == null)
+			throw new NullPointerException("IntPackedArray cannot hold null");
+		
+		return storeInt(address, element);
+	}
+
+	private int storeInt(int address, int element) {
+		int old = values[address];
+		values[address] = element;
+		return old;
+	}
+
+	// view methods
+
+	@Override
+	public IntPackedArray slice(int dimension, int from, int to) {
+		return (IntPackedArray) super.slice(dimension, from, to);
+	}
+
+	@Override
+	public IntPackedArray swap(int dimensionA, int dimensionB) {
+		return (IntPackedArray) super.swap(dimensionA, dimensionB);
+	}
+
+	@Override
+	public IntPackedArray transpose() {
+		return (IntPackedArray) super.transpose();
+	}
+
+	@Override
+	public IntPackedArray fix(int dimension, int index) {
+		return (IntPackedArray) super.fix(dimension, index);
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+// open-addressing (linear probing) map from primitive longs to non-null values;
+// key 0 marks free slots, so it is kept aside
+class LongHashMap<V> {
+	private static final int MINIMUM_CAPACITY = 16;
+	
+	private long[] keys;
+	private V[] values;
+	private int size;
+	private V zeroValue;
+
+	LongHashMap() {
+		this(MINIMUM_CAPACITY);
+	}
+
+	@SuppressWarnings("unchecked")
+	LongHashMap(int expectedSize) {
+		int capacity = MINIMUM_CAPACITY;
+		while (capacity * 3 < expectedSize * 4)
+			capacity <<= 1;
+		
+		keys = new long[capacity];
+		values = (V[]) new Object[capacity];
+	}
+
+	int size() {
+		return zeroValue != null ? size + 1 : size;
+	}
+
+	V get(long key) {
+		if (key == 0)
+			return zeroValue;
+		
+		long[] keys = this.keys;
+		int mask = keys.length - 1;
+		for (int i = hash(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+			if (keys[i] == key)
+				return values[i];
+		}
+		
+		return null;
+	}
+
+	V put(long key, V value) {
+		if (value == null)
+			return remove(key);
+		
+		if (key == 0) {
+			V old = zeroValue;
+			zeroValue = value;
+			return old;
+		}
+		
+		int mask = keys.length - 1;
+		int i;
+		for (i = hash(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				V old = values[i];
+				values[i] = value;
+				return old;
+			}
+		}
+		
+		keys[i] = key;
+		values[i] = value;
+		
+		if (++size * 4 > keys.length * 3)
+			rehash(keys.length << 1);
+		
+		return null;
+	}
+
+	V remove(long key) {
+		if (key == 0) {
+			V old = zeroValue;
+			zeroValue = null;
+			return old;
+		}
+		
+		int mask = keys.length - 1;
+		for (int i = hash(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				V old = values[i];
+				shiftBack(i);
+				size--;
+				return old;
+			}
+		}
+		
+		return null;
+	}
+
+	// backward-shift deletion: no tombstones left behind
+	private void shiftBack(int hole) {
+		int mask = keys.length - 1;
+		
+		for (int i = (hole + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+			int home = hash(keys[i]) & mask;
+			
+			// can entry i move into the hole without getting behind its home slot?
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				values[hole] = values[i];
+				hole = i;
+			}
+		}
+		
+		keys[hole] = 0;
+		values[hole] = null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		V[] oldValues = values;
+		
+		keys = new long[capacity];
+		values = (V[]) new Object[capacity];
+		
+		int mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != 0) {
+				int i = hash(oldKeys[j]) & mask;
+				while (keys[i] != 0)
+					i = (i + 1) & mask;
+				
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	static int hash(long key) {
+		// multiplicative (Fibonacci) hashing, folded onto the low bits
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
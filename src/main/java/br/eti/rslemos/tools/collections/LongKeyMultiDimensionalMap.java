@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+// coordinates are longs, neither boxed nor, up to three dimensions, gathered into arrays
+public class LongKeyMultiDimensionalMap<V> extends PrimitiveKeyMultiDimensionalMap<V> {
+
+	// grows every dimension on demand
+	public LongKeyMultiDimensionalMap(int dimensions) {
+		this(new ChunkedArray<V>(new int[dimensions]));
+	}
+
+	public LongKeyMultiDimensionalMap(MultiDimensionalArray<V> array) {
+		super(array);
+	}
+
+	public V get(long i) {
+		return get0(i);
+	}
+
+	public V get(long i, long j) {
+		return get0(i, j);
+	}
+
+	public V get(long i, long j, long k) {
+		return get0(i, j, k);
+	}
+
+	public V get(long... key) {
+		return get0(key);
+	}
+
+	public void put(V element, long i) {
+		put0(element, i);
+	}
+
+	public void put(V element, long i, long j) {
+		put0(element, i, j);
+	}
+
+	public void put(V element, long i, long j, long k) {
+		put0(element, i, j, k);
+	}
+
+	public void put(V element, long... key) {
+		put0(element, key);
+	}
+
+}
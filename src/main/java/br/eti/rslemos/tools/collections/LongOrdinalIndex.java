@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Arrays;
+
+// numbers distinct primitive keys 0, 1, 2... in insertion order;
+// open addressing (linear probing) from key to ordinal, key 0 kept aside
+class LongOrdinalIndex {
+	private static final int MINIMUM_CAPACITY = 16;
+	
+	private long[] tableKeys;
+	// ordinal + 1 of the key living in each slot; 0 marks free slots
+	private int[] tableOrdinals;
+	private long[] keys;
+	private int size;
+	private int zeroOrdinal = -1;
+
+	LongOrdinalIndex() {
+		this(MINIMUM_CAPACITY);
+	}
+
+	LongOrdinalIndex(int expectedSize) {
+		int capacity = MINIMUM_CAPACITY;
+		while (capacity * 3 < expectedSize * 4)
+			capacity <<= 1;
+		
+		tableKeys = new long[capacity];
+		tableOrdinals = new int[capacity];
+		keys = new long[Math.max(expectedSize, 1)];
+	}
+
+	int size() {
+		return size;
+	}
+
+	long key(int ordinal) {
+		if (ordinal < 0 || ordinal >= size)
+			throw new ArrayIndexOutOfBoundsException(ordinal);
+		
+		return keys[ordinal];
+	}
+
+	// -1 if absent
+	int indexOf(long key) {
+		if (key == 0)
+			return zeroOrdinal;
+		
+		long[] tableKeys = this.tableKeys;
+		int mask = tableKeys.length - 1;
+		for (int i = LongHashMap.hash(key) & mask; tableKeys[i] != 0; i = (i + 1) & mask) {
+			if (tableKeys[i] == key)
+				return tableOrdinals[i] - 1;
+		}
+		
+		return -1;
+	}
+
+	// the ordinal of key, numbering it first if absent
+	int add(long key) {
+		if (key == 0) {
+			if (zeroOrdinal < 0)
+				zeroOrdinal = append(0);
+			
+			return zeroOrdinal;
+		}
+		
+		int mask = tableKeys.length - 1;
+		int i;
+		for (i = LongHashMap.hash(key) & mask; tableKeys[i] != 0; i = (i + 1) & mask) {
+			if (tableKeys[i] == key)
+				return tableOrdinals[i] - 1;
+		}
+		
+		int ordinal = append(key);
+		tableKeys[i] = key;
+		tableOrdinals[i] = ordinal + 1;
+		
+		if (size * 4 > tableKeys.length * 3)
+			rehash(tableKeys.length << 1);
+		
+		return ordinal;
+	}
+
+	private int append(long key) {
+		if (size == keys.length)
+			keys = Arrays.copyOf(keys, size << 1);
+		
+		keys[size] = key;
+		return size++;
+	}
+
+	private void rehash(int capacity) {
+		tableKeys = new long[capacity];
+		tableOrdinals = new int[capacity];
+		
+		int mask = capacity - 1;
+		for (int ordinal = 0; ordinal < size; ordinal++) {
+			if (ordinal != zeroOrdinal) {
+				int i = LongHashMap.hash(keys[ordinal]) & mask;
+				while (tableKeys[i] != 0)
+					i = (i + 1) & mask;
+				
+				tableKeys[i] = keys[ordinal];
+				tableOrdinals[i] = ordinal + 1;
+			}
+		}
+	}
+}
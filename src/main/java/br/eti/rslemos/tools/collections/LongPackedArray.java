@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Iterator;
+
+// cells hold unboxed long values: they read 0 until set, and null cannot be stored
+public class LongPackedArray extends PackedArray<Long> {
+	final long[] values;
+
+	public LongPackedArray(int... sizes) {
+		this(new long[computeSize(sizes)], sizes, computeStrides(sizes), 0);
+	}
+
+	public LongPackedArray(MultiDimensionalArray<Long> init) {
+		this(init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		if (init instanceof LongPackedArray) {
+			LongPackedArray packed = (LongPackedArray) init;
+			while(addresses.hasNext()) {
+				int[] address = addresses.next();
+				values[computeAddress(address)] = packed.getLong(address);
+			}
+		} else {
+			while(addresses.hasNext()) {
+				int[] address = addresses.next();
+				Long element = init.get(address);
+				if (element != null)
+					values[computeAddress(address)] = element;
+			}
+		}
+	}
+
+	public LongPackedArray(Object init, int... sizes) {
+		this(new JavaArrayMultiDimensionalArray<Long>(init, sizes));
+	}
+
+	protected LongPackedArray(long[] values, int[] sizes, int[] strides, int base) {
+		super(null, sizes, strides, base);
+		this.values = values;
+	}
+
+	@Override
+	protected LongPackedArray view(int[] sizes, int[] strides, int base) {
+		return new LongPackedArray(this.values, sizes, strides, base);
+	}
+
+	@Override
+	protected LongPackedArray allocate(int[] sizes) {
+		return new LongPackedArray(sizes);
+	}
+
+	@Override
+	Object storage() {
+		return values;
+	}
+
+	// storage methods
+
+	public long getLong(int... pos) {
+		checkBoundaries(pos);
+		return values[computeAddress(pos)];
+	}
+
+	public long setLong(long element, int... pos) {
+		checkBoundaries(pos);
+		return storeLong(computeAddress(pos), element);
+	}
+
+	public long getLong(int i) {
+		checkBoundaries(i);
+		return values[computeAddress(i)];
+	}
+
+	public long getLong(int i, int j) {
+		checkBoundaries(i, j);
+		return values[computeAddress(i, j)];
+	}
+
+	public long getLong(int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return values[computeAddress(i, j, k)];
+	}
+
+	public long setLong(long element, int i) {
+		checkBoundaries(i);
+		return storeLong(computeAddress(i), element);
+	}
+
+	public long setLong(long element, int i, int j) {
+		checkBoundaries(i, j);
+		return storeLong(computeAddress(i, j), element);
+	}
+
+	public long setLong(long element, int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return storeLong(computeAddress(i, j, k), element);
+	}
+
+	@Override
+	protected Long load(int address) {
+		return values[address];
+	}
+
+	@Override
+	protected Long store(int address, Long element) {
+		if (element == null)
+			throw new NullPointerException("LongPackedArray cannot hold null");
+		
+		return storeLong(address, element);
+	}
+
+	private long storeLong(int address, long element) {
+		long old = values[address];
+		values[address] = element;
+		return old;
+	}
+
+	// view methods
+
+	@Override
+	public LongPackedArray slice(int dimension, int from, int to) {
+		return (LongPackedArray) super.slice(dimension, from, to);
+	}
+
+	@Override
+	public LongPackedArray swap(int dimensionA, int dimensionB) {
+		return (LongPackedArray) super.swap(dimensionA, dimensionB);
+	}
+
+	@Override
+	public LongPackedArray transpose() {
+		return (LongPackedArray) super.transpose();
+	}
+
+	@Override
+	public LongPackedArray fix(int dimension, int index) {
+		return (LongPackedArray) super.fix(dimension, index);
+	}
+}
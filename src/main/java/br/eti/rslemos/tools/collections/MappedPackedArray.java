@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/*
+ * File layout (header in big-endian, cells in the recorded byte order):
+ * 
+ *   int     magic ("MDA1")
+ *   byte    byte order of cells (0 = big-endian, 1 = little-endian)
+ *   byte    element type code (see NativeType)
+ *   short   reserved
+ *   int     number of dimensions
+ *   int[]   sizes
+ *           padding up to a multiple of 8 bytes
+ *   cells   in row-major order
+ */
+public class MappedPackedArray<T extends Number> extends OffHeapPackedArray<T> {
+	static final int MAGIC = 0x4D444131;
+
+	protected MappedPackedArray(NativeType type, Memory memory, boolean owner, int[] sizes, int[] strides, int base) {
+		super(type, memory, owner, sizes, strides, base);
+	}
+
+	public static <T extends Number> MappedPackedArray<T> create(File file, Class<T> type, int... sizes) throws IOException {
+		NativeType nativeType = NativeType.of(type);
+		ByteOrder order = ByteOrder.nativeOrder();
+		
+		ByteBuffer header = ByteBuffer.allocate((int) headerLength(sizes.length));
+		header.putInt(MAGIC);
+		header.put((byte) (order == ByteOrder.BIG_ENDIAN ? 0 : 1));
+		header.put((byte) nativeType.code);
+		header.putShort((short) 0);
+		header.putInt(sizes.length);
+		for (int size : sizes)
+			header.putInt(size);
+		header.rewind();
+		
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			FileChannel channel = raf.getChannel();
+			channel.truncate(0);
+			while (header.hasRemaining())
+				channel.write(header);
+			
+			return map(channel, MapMode.READ_WRITE, nativeType, order, sizes.clone());
+		} finally {
+			raf.close();
+		}
+	}
+
+	public static <T extends Number> MappedPackedArray<T> open(File file, Class<T> type) throws IOException {
+		return open(file, type, MapMode.READ_WRITE);
+	}
+
+	public static <T extends Number> MappedPackedArray<T> open(File file, Class<T> type, MapMode mode) throws IOException {
+		MappedPackedArray<?> array = open(file, mode);
+		
+		if (array.type != NativeType.of(type)) {
+			array.close();
+			throw new IOException("Elements are of type " + array.type.type.getName());
+		}
+		
+		@SuppressWarnings("unchecked")
+		MappedPackedArray<T> result = (MappedPackedArray<T>) array;
+		return result;
+	}
+
+	public static MappedPackedArray<?> open(File file) throws IOException {
+		return open(file, MapMode.READ_WRITE);
+	}
+
+	// READ_ONLY needs only read access to the file, and rejects every set with
+	// ReadOnlyBufferException; PRIVATE keeps changes away from the file
+	public static MappedPackedArray<?> open(File file, MapMode mode) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, mode == MapMode.READ_ONLY ? "r" : "rw");
+		try {
+			FileChannel channel = raf.getChannel();
+			
+			long length = channel.size();
+			if (length < 12)
+				throw new EOFException("Truncated header: " + file);
+			
+			ByteBuffer fixed = read(channel, 0, 12);
+			if (fixed.getInt() != MAGIC)
+				throw new IOException("Not a multidimensional array file: " + file);
+			
+			byte orderCode = fixed.get();
+			if (orderCode != 0 && orderCode != 1)
+				throw new IOException("Corrupted header: unknown byte order " + orderCode + " in " + file);
+			ByteOrder order = orderCode == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+			
+			NativeType type;
+			try {
+				type = NativeType.of((char) fixed.get());
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Corrupted header: " + e.getMessage() + " in " + file, e);
+			}
+			fixed.getShort();
+			
+			// checked against the file first, so that a corrupted count never allocates
+			int dimensions = fixed.getInt();
+			if (dimensions < 0)
+				throw new IOException("Corrupted header: negative number of dimensions " + dimensions + " in " + file);
+			if (headerLength(dimensions) > length)
+				throw new EOFException("Truncated header: " + dimensions + " dimensions need " + headerLength(dimensions) + " bytes, file has " + length + ": " + file);
+			
+			ByteBuffer variable = read(channel, 12, 4 * dimensions);
+			int[] sizes = new int[dimensions];
+			long cells = dimensions > 0 ? 1 : 0;
+			try {
+				for (int i = 0; i < dimensions; i++) {
+					sizes[i] = variable.getInt();
+					if (sizes[i] < 0)
+						throw new IOException("Corrupted header: negative length " + sizes[i] + " along dimension " + i + " in " + file);
+					
+					cells = Math.multiplyExact(cells, sizes[i]);
+				}
+				
+				if (cells > Integer.MAX_VALUE)
+					throw new ArithmeticException();
+			} catch (ArithmeticException e) {
+				throw new IOException("Corrupted header: more than " + Integer.MAX_VALUE + " cells in " + file);
+			}
+			
+			long expected = headerLength(dimensions) + cells * type.width;
+			if (length < expected)
+				throw new EOFException("Truncated file: " + expected + " bytes expected, " + length + " found: " + file);
+			
+			return map(channel, mode, type, order, sizes);
+		} finally {
+			raf.close();
+		}
+	}
+
+	// the mapping outlives the channel
+	private static <T extends Number> MappedPackedArray<T> map(FileChannel channel, MapMode mode, NativeType type, ByteOrder order, int[] sizes) throws IOException {
+		long position = headerLength(sizes.length);
+		long bytes = (long) computeSize(sizes) * type.width;
+		
+		ByteBuffer[] segments = new ByteBuffer[(int) ((bytes + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+		for (int i = 0; i < segments.length; i++) {
+			long offset = (long) i << SEGMENT_SHIFT;
+			long size = Math.min(bytes - offset, SEGMENT_MASK + 1);
+			segments[i] = channel.map(mode, position + offset, size).order(order);
+		}
+		
+		return new MappedPackedArray<T>(type, new Memory(segments), true, sizes, computeStrides(sizes), 0);
+	}
+
+	private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new EOFException();
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private static long headerLength(int dimensions) {
+		return (12 + 4L * dimensions + 7) & ~7;
+	}
+
+	@Override
+	protected MappedPackedArray<T> view(int[] sizes, int[] strides, int base) {
+		return new MappedPackedArray<T>(type, memory, false, sizes, strides, base);
+	}
+
+	// writes every modified cell back to the file
+	public void force() {
+		for (ByteBuffer segment : memory.segments()) {
+			if (!segment.isReadOnly())
+				((MappedByteBuffer) segment).force();
+		}
+	}
+
+	// unmaps the file right away, after writing modified cells back; like
+	// any other off-heap array, closing a view does nothing
+	@Override
+	public void close() {
+		if (owner && !memory.isClosed())
+			force();
+		
+		super.close();
+	}
+
+	// view methods
+
+	@Override
+	public MappedPackedArray<T> slice(int dimension, int from, int to) {
+		return (MappedPackedArray<T>) super.slice(dimension, from, to);
+	}
+
+	@Override
+	public MappedPackedArray<T> swap(int dimensionA, int dimensionB) {
+		return (MappedPackedArray<T>) super.swap(dimensionA, dimensionB);
+	}
+
+	@Override
+	public MappedPackedArray<T> transpose() {
+		return (MappedPackedArray<T>) super.transpose();
+	}
+
+	@Override
+	public MappedPackedArray<T> fix(int dimension, int index) {
+		return (MappedPackedArray<T>) super.fix(dimension, index);
+	}
+}
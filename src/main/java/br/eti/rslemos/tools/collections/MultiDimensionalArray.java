@@ -20,6 +20,10 @@
  ******************************************************************************/
 package br.eti.rslemos.tools.collections;
 
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface MultiDimensionalArray<T> {
 
 	// informational methods
@@ -34,6 +38,53 @@ public interface MultiDimensionalArray<T> {
 
 	T set(T element, int... pos);
 
+	// fixed-arity (varargs-free) variants of the above; implementations backed by
+	// linear storage should override them
+
+	default T get(int i) {
+		return get(new int[] {i});
+	}
+
+	default T get(int i, int j) {
+		return get(new int[] {i, j});
+	}
+
+	default T get(int i, int j, int k) {
+		return get(new int[] {i, j, k});
+	}
+
+	default T set(T element, int i) {
+		return set(element, new int[] {i});
+	}
+
+	default T set(T element, int i, int j) {
+		return set(element, new int[] {i, j});
+	}
+
+	default T set(T element, int i, int j, int k) {
+		return set(element, new int[] {i, j, k});
+	}
+
+	// traversal methods
+
+	default Cursor<T> cursor() {
+		return Cursor.over(this);
+	}
+
+	// sequential streams, split on the outermost dimension when made parallel
+
+	default Stream<T> elements() {
+		return StreamSupport.stream(AddressSpliterator.elements(this), false);
+	}
+
+	default Stream<int[]> addresses() {
+		return StreamSupport.stream(AddressSpliterator.addresses(length()), false);
+	}
+
+	default Stream<Map.Entry<int[], T>> entries() {
+		return StreamSupport.stream(AddressSpliterator.entries(this), false);
+	}
+
 	// view methods
 
 	MultiDimensionalArray<T> slice(int dimension, int from, int to);
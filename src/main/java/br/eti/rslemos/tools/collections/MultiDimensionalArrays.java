@@ -23,9 +23,13 @@ package br.eti.rslemos.tools.collections;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RecursiveAction;
 
 public class MultiDimensionalArrays {
 	
+	// number of elements below which parallel operations stop splitting
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+	
 	private MultiDimensionalArrays() {
 		throw new UnsupportedOperationException(MultiDimensionalArrays.class + " not instantiable");
 	}
@@ -40,8 +44,13 @@ public class MultiDimensionalArrays {
 	public static <T> void copy(MultiDimensionalArray<T> src, int[] srcPos, MultiDimensionalArray<T> dst, int[] dstPos) {
 		int[] length = new int[min(src.dimensions(), srcPos.length, dst.dimensions(), dstPos.length)];
 		
-		for (int i = 0; i < length.length; i++) {
-			length[i] = min(src.length()[i] - srcPos[i], dst.length()[i] - dstPos[i]);
+		if (length.length > 0) {
+			int[] srcLength = src.length();
+			int[] dstLength = dst.length();
+			
+			for (int i = 0; i < length.length; i++) {
+				length[i] = min(srcLength[i] - srcPos[i], dstLength[i] - dstPos[i]);
+			}
 		}
 		
 		copy(src, srcPos, dst, dstPos, length);
@@ -60,6 +69,17 @@ public class MultiDimensionalArrays {
 		if (srcFrom.length != lengths.length)
 			throw new IllegalArgumentException("Wrong number of dimensions (lengths)");
 		
+		// contiguous runs between packed arrays are moved in bulk
+		if (src instanceof SimplePackedArray && dst instanceof SimplePackedArray) {
+			if (((SimplePackedArray<T>) src).bulkCopy(srcFrom, (SimplePackedArray<T>) dst, dstFrom, lengths))
+				return;
+		}
+		
+		if (src instanceof ColumnarArray && dst instanceof ColumnarArray) {
+			if (((ColumnarArray<T>) src).bulkCopy(srcFrom, (ColumnarArray<T>) dst, dstFrom, lengths))
+				return;
+		}
+		
 		int[] srcTo = new int[srcFrom.length];
 		int[] dstTo = new int[dstFrom.length];
 		
@@ -93,7 +113,267 @@ public class MultiDimensionalArrays {
 			int[] srcAddress = srcAddresses.next();
 			int[] dstAddress = dstAddresses.next();
 			
-			dst.set(src.get(srcAddress), dstAddress);
+			set(dst, get(src, srcAddress), dstAddress);
+		}
+	}
+
+	public static <T> void parallelCopy(MultiDimensionalArray<T> src, MultiDimensionalArray<T> dst) {
+		parallelCopy(src, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static <T> void parallelCopy(MultiDimensionalArray<T> src, MultiDimensionalArray<T> dst, int threshold) {
+		int[] length = new int[min(src.dimensions(), dst.dimensions())];
+		
+		if (length.length > 0) {
+			int[] srcLength = src.length();
+			int[] dstLength = dst.length();
+			
+			for (int i = 0; i < length.length; i++) {
+				length[i] = min(srcLength[i], dstLength[i]);
+			}
+		}
+		
+		parallelCopy(src, new int[src.dimensions()], dst, new int[dst.dimensions()], length, threshold);
+	}
+	
+	public static <T> void parallelCopy(MultiDimensionalArray<T> src, int[] srcFrom, MultiDimensionalArray<T> dst, int[] dstFrom, int[] lengths) {
+		parallelCopy(src, srcFrom, dst, dstFrom, lengths, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static <T> void parallelCopy(MultiDimensionalArray<T> src, int[] srcFrom, MultiDimensionalArray<T> dst, int[] dstFrom, int[] lengths, int threshold) {
+		if (src.dimensions() != dst.dimensions())
+			throw new IllegalArgumentException("Wrong number of dimensions (arrays)");
+		
+		if (src.dimensions() != srcFrom.length)
+			throw new IllegalArgumentException("Wrong number of dimensions (source offset)");
+			
+		if (dst.dimensions() != dstFrom.length)
+			throw new IllegalArgumentException("Wrong number of dimensions (destination offset)");
+		
+		if (srcFrom.length != lengths.length)
+			throw new IllegalArgumentException("Wrong number of dimensions (lengths)");
+		
+		if (threshold < 1)
+			throw new IllegalArgumentException("Illegal threshold: " + threshold);
+		
+		// the order of the element moves matters only when copying onto an overlapping region
+		if (src == dst && overlaps(srcFrom, dstFrom, lengths)) {
+			copy(src, srcFrom, dst, dstFrom, lengths);
+			return;
+		}
+		
+		if (!splittable(dst)) {
+			copy(src, srcFrom, dst, dstFrom, lengths);
+			return;
+		}
+		
+		new CopyAction<T>(src, srcFrom.clone(), dst, dstFrom.clone(), lengths.clone(), threshold).invoke();
+	}
+	
+	public static <T> void fill(MultiDimensionalArray<T> array, T element) {
+		fill(array, new int[array.dimensions()], array.length(), element);
+	}
+	
+	public static <T> void fill(MultiDimensionalArray<T> array, int[] from, int[] lengths, T element) {
+		if (array.dimensions() != from.length)
+			throw new IllegalArgumentException("Wrong number of dimensions (offset)");
+		
+		if (from.length != lengths.length)
+			throw new IllegalArgumentException("Wrong number of dimensions (lengths)");
+		
+		int[] to = new int[from.length];
+		
+		for (int i = 0; i < lengths.length; i++) {
+			to[i] = from[i] + lengths[i];
+		}
+		
+		Iterator<int[]> addresses = allAddresses(from, to);
+		
+		while (addresses.hasNext()) {
+			set(array, element, addresses.next());
+		}
+	}
+	
+	public static <T> void parallelFill(MultiDimensionalArray<T> array, T element) {
+		parallelFill(array, element, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static <T> void parallelFill(MultiDimensionalArray<T> array, T element, int threshold) {
+		parallelFill(array, new int[array.dimensions()], array.length(), element, threshold);
+	}
+	
+	public static <T> void parallelFill(MultiDimensionalArray<T> array, int[] from, int[] lengths, T element) {
+		parallelFill(array, from, lengths, element, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static <T> void parallelFill(MultiDimensionalArray<T> array, int[] from, int[] lengths, T element, int threshold) {
+		if (array.dimensions() != from.length)
+			throw new IllegalArgumentException("Wrong number of dimensions (offset)");
+		
+		if (from.length != lengths.length)
+			throw new IllegalArgumentException("Wrong number of dimensions (lengths)");
+		
+		if (threshold < 1)
+			throw new IllegalArgumentException("Illegal threshold: " + threshold);
+		
+		if (!splittable(array)) {
+			fill(array, from, lengths, element);
+			return;
+		}
+		
+		new FillAction<T>(array, from.clone(), lengths.clone(), element, threshold).invoke();
+	}
+	
+	// only arrays whose cells live in separate slots take concurrent writes to disjoint
+	// regions; sparse, chunked and columnar arrays restructure shared state on set
+	static boolean splittable(MultiDimensionalArray<?> array) {
+		return array instanceof SimplePackedArray && !(array instanceof SparsePackedArray);
+	}
+	
+	private static boolean overlaps(int[] fromA, int[] fromB, int[] lengths) {
+		for (int i = 0; i < lengths.length; i++) {
+			if (lengths[i] <= 0)
+				return false;
+			
+			if (fromA[i] + lengths[i] <= fromB[i] || fromB[i] + lengths[i] <= fromA[i])
+				return false;
+		}
+		
+		return true;
+	}
+	
+	// splits along the outermost dimension spanning more than one element
+	private static int splittingDimension(int[] lengths, int threshold) {
+		long volume = 1;
+		for (int length : lengths)
+			volume *= Math.max(length, 0);
+		
+		if (volume <= threshold)
+			return -1;
+		
+		for (int i = 0; i < lengths.length; i++) {
+			if (lengths[i] > 1)
+				return i;
+		}
+		
+		return -1;
+	}
+	
+	private static final class CopyAction<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final MultiDimensionalArray<T> src;
+		private final int[] srcFrom;
+		private final MultiDimensionalArray<T> dst;
+		private final int[] dstFrom;
+		private final int[] lengths;
+		private final int threshold;
+		
+		CopyAction(MultiDimensionalArray<T> src, int[] srcFrom, MultiDimensionalArray<T> dst, int[] dstFrom, int[] lengths, int threshold) {
+			this.src = src;
+			this.srcFrom = srcFrom;
+			this.dst = dst;
+			this.dstFrom = dstFrom;
+			this.lengths = lengths;
+			this.threshold = threshold;
+		}
+		
+		@Override
+		protected void compute() {
+			int d = splittingDimension(lengths, threshold);
+			
+			if (d < 0) {
+				copy(src, srcFrom, dst, dstFrom, lengths);
+				return;
+			}
+			
+			int half = lengths[d] / 2;
+			
+			int[] lowerLengths = lengths.clone();
+			lowerLengths[d] = half;
+			
+			int[] upperSrcFrom = srcFrom.clone();
+			int[] upperDstFrom = dstFrom.clone();
+			int[] upperLengths = lengths.clone();
+			upperSrcFrom[d] += half;
+			upperDstFrom[d] += half;
+			upperLengths[d] -= half;
+			
+			invokeAll(
+					new CopyAction<T>(src, srcFrom.clone(), dst, dstFrom.clone(), lowerLengths, threshold), 
+					new CopyAction<T>(src, upperSrcFrom, dst, upperDstFrom, upperLengths, threshold)
+				);
+		}
+	}
+	
+	private static final class FillAction<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final MultiDimensionalArray<T> array;
+		private final int[] from;
+		private final int[] lengths;
+		private final T element;
+		private final int threshold;
+		
+		FillAction(MultiDimensionalArray<T> array, int[] from, int[] lengths, T element, int threshold) {
+			this.array = array;
+			this.from = from;
+			this.lengths = lengths;
+			this.element = element;
+			this.threshold = threshold;
+		}
+		
+		@Override
+		protected void compute() {
+			int d = splittingDimension(lengths, threshold);
+			
+			if (d < 0) {
+				fill(array, from, lengths, element);
+				return;
+			}
+			
+			int half = lengths[d] / 2;
+			
+			int[] lowerLengths = lengths.clone();
+			lowerLengths[d] = half;
+			
+			int[] upperFrom = from.clone();
+			int[] upperLengths = lengths.clone();
+			upperFrom[d] += half;
+			upperLengths[d] -= half;
+			
+			invokeAll(
+					new FillAction<T>(array, from, lowerLengths, element, threshold), 
+					new FillAction<T>(array, upperFrom, upperLengths, element, threshold)
+				);
+		}
+	}
+
+	// dispatch to the fixed-arity accessors whenever possible
+
+	static <T> T get(MultiDimensionalArray<T> array, int[] pos) {
+		switch (pos.length) {
+		case 1:
+			return array.get(pos[0]);
+		case 2:
+			return array.get(pos[0], pos[1]);
+		case 3:
+			return array.get(pos[0], pos[1], pos[2]);
+		default:
+			return array.get(pos);
+		}
+	}
+
+	static <T> T set(MultiDimensionalArray<T> array, T element, int[] pos) {
+		switch (pos.length) {
+		case 1:
+			return array.set(element, pos[0]);
+		case 2:
+			return array.set(element, pos[0], pos[1]);
+		case 3:
+			return array.set(element, pos[0], pos[1], pos[2]);
+		default:
+			return array.set(element, pos);
 		}
 	}
 	
@@ -108,11 +388,12 @@ public class MultiDimensionalArrays {
 		if (!Arrays.equals(a.length(), b.length()))
 			return false;
 		
-		Iterator<int[]> addresses = allAddresses(a.length());
-		while(addresses.hasNext()) {
-			int[] address = addresses.next();
-			Object elementA = a.get(address);
-			Object elementB = b.get(address);
+		// both cursors walk in the same row-major order
+		Cursor<?> cursorA = a.cursor();
+		Cursor<?> cursorB = b.cursor();
+		while(cursorA.advance() && cursorB.advance()) {
+			Object elementA = cursorA.get();
+			Object elementB = cursorB.get();
 			
 			if (elementA != null ? !elementA.equals(elementB) : elementB != null)
 				return false;
@@ -121,6 +402,18 @@ public class MultiDimensionalArrays {
 		return true;
 	}
 
+	static boolean isEmpty(int... sizes) {
+		if (sizes.length == 0)
+			return true;
+		
+		for (int size : sizes) {
+			if (size == 0)
+				return true;
+		}
+		
+		return false;
+	}
+
 	public static Iterator<int[]> allAddresses(int... sizes) {
 		int[] offsets = new int[sizes.length];
 		return allAddresses(offsets, sizes);
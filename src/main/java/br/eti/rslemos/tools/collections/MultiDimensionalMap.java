@@ -30,4 +30,11 @@ public interface MultiDimensionalMap<K, V> {
 
 	int dimensions();
 
+	// view methods
+
+	// the cells at key along dimension, as a live map of one dimension less
+	default MultiDimensionalMap<K, V> fix(int dimension, K key) {
+		throw new UnsupportedOperationException();
+	}
+
 }
\ No newline at end of file
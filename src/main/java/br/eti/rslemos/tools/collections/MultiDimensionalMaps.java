@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static br.eti.rslemos.tools.collections.MultiDimensionalArrays.DEFAULT_PARALLEL_THRESHOLD;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+public class MultiDimensionalMaps {
+	
+	private MultiDimensionalMaps() {
+		throw new UnsupportedOperationException(MultiDimensionalMaps.class + " not instantiable");
+	}
+	
+	// aggregates, with collector, the non-null cells of map that differ only along the collapsed
+	// dimensions; the result keeps the other dimensions, in the same order and with the same keys.
+	// Groups without any value are left out (null). Runs in parallel, splitting along the kept
+	// dimensions first, and then along the collapsed ones, combining partial accumulations
+	public static <K, V, A, R> OrderedMultiDimensionalMap<K, R> rollUp(OrderedMultiDimensionalMap<K, V> map, Collector<? super V, A, R> collector, int... collapse) {
+		final Function<A, R> finisher = collector.finisher();
+		
+		return rollUp(map, collector, (int[] sizes) -> new PackedArray<R>(sizes), 
+				(target, a, pos) -> MultiDimensionalArrays.set(target, finisher.apply(a), pos), collapse);
+	}
+	
+	// primitive accumulators, stored as they are into a primitive array (see IntPackedArray.getInt
+	// and the like); groups without any value hold 0
+	
+	public static <K, V> OrderedMultiDimensionalMap<K, Integer> rollUpToInt(OrderedMultiDimensionalMap<K, V> map, final ToIntFunction<? super V> value, final int identity, final IntBinaryOperator op, int... collapse) {
+		Collector<V, int[], int[]> collector = Collector.of(
+				() -> new int[] { identity }, 
+				(a, v) -> a[0] = op.applyAsInt(a[0], value.applyAsInt(v)), 
+				(a, b) -> { a[0] = op.applyAsInt(a[0], b[0]); return a; }
+			);
+		
+		return rollUp(map, collector, IntPackedArray::new, (target, a, pos) -> target.setInt(a[0], pos), collapse);
+	}
+	
+	public static <K, V> OrderedMultiDimensionalMap<K, Long> rollUpToLong(OrderedMultiDimensionalMap<K, V> map, final ToLongFunction<? super V> value, final long identity, final LongBinaryOperator op, int... collapse) {
+		Collector<V, long[], long[]> collector = Collector.of(
+				() -> new long[] { identity }, 
+				(a, v) -> a[0] = op.applyAsLong(a[0], value.applyAsLong(v)), 
+				(a, b) -> { a[0] = op.applyAsLong(a[0], b[0]); return a; }
+			);
+		
+		return rollUp(map, collector, LongPackedArray::new, (target, a, pos) -> target.setLong(a[0], pos), collapse);
+	}
+	
+	public static <K, V> OrderedMultiDimensionalMap<K, Double> rollUpToDouble(OrderedMultiDimensionalMap<K, V> map, final ToDoubleFunction<? super V> value, final double identity, final DoubleBinaryOperator op, int... collapse) {
+		Collector<V, double[], double[]> collector = Collector.of(
+				() -> new double[] { identity }, 
+				(a, v) -> a[0] = op.applyAsDouble(a[0], value.applyAsDouble(v)), 
+				(a, b) -> { a[0] = op.applyAsDouble(a[0], b[0]); return a; }
+			);
+		
+		return rollUp(map, collector, DoublePackedArray::new, (target, a, pos) -> target.setDouble(a[0], pos), collapse);
+	}
+	
+	// writes the accumulation of a group into the cell at pos of target
+	private interface Store<T, A> {
+		void store(T target, A result, int[] pos);
+	}
+	
+	private static <K, V, A, R, T extends MultiDimensionalArray<R>> OrderedMultiDimensionalMap<K, R> rollUp(OrderedMultiDimensionalMap<K, V> map, Collector<? super V, A, ?> collector, Function<int[], T> factory, final Store<? super T, A> store, int... collapse) {
+		int n = map.dimensions();
+		
+		boolean[] collapsed = new boolean[n];
+		for (int dimension : collapse) {
+			if (dimension < 0 || dimension >= n)
+				throw new IllegalArgumentException("Illegal dimension: " + dimension);
+			
+			if (collapsed[dimension])
+				throw new IllegalArgumentException("Dimension collapsed twice: " + dimension);
+			
+			collapsed[dimension] = true;
+		}
+		
+		if (collapse.length == n)
+			throw new IllegalArgumentException("Cannot collapse every dimension");
+		
+		int[] kept = new int[n - collapse.length];
+		int[] folded = new int[collapse.length];
+		for (int d = 0, k = 0, f = 0; d < n; d++) {
+			if (collapsed[d])
+				folded[f++] = d;
+			else
+				kept[k++] = d;
+		}
+		
+		int[] keptLengths = new int[kept.length];
+		OrdinalIndex<K>[] index = OrdinalIndex.newArray(kept.length);
+		for (int i = 0; i < kept.length; i++) {
+			index[i] = map.index(kept[i]).trim();
+			keptLengths[i] = index[i].size();
+		}
+		
+		int[] foldedLengths = new int[folded.length];
+		for (int i = 0; i < folded.length; i++)
+			foldedLengths[i] = map.length(folded[i]);
+		
+		final T target = factory.apply(keptLengths.clone());
+		
+		RollUp<V, A> rollUp = new RollUp<V, A>(map.array(), collector, (a, pos) -> store.store(target, a, pos), kept, folded, foldedLengths);
+		new RollUp.Cells(rollUp, new int[kept.length], keptLengths).invoke();
+		
+		return new OrderedMultiDimensionalMap<K, R>(target, index, keptLengths);
+	}
+	
+	private static final class RollUp<V, A> {
+		private final MultiDimensionalArray<V> source;
+		private final Supplier<A> supplier;
+		private final BiConsumer<A, ? super V> accumulator;
+		private final BinaryOperator<A> combiner;
+		private final BiConsumer<A, int[]> store;
+		private final int[] kept;
+		private final int[] folded;
+		private final int[] foldedLengths;
+		private final long foldedVolume;
+		
+		RollUp(MultiDimensionalArray<V> source, Collector<? super V, A, ?> collector, BiConsumer<A, int[]> store, int[] kept, int[] folded, int[] foldedLengths) {
+			this.source = source;
+			this.supplier = collector.supplier();
+			this.accumulator = collector.accumulator();
+			this.combiner = collector.combiner();
+			this.store = store;
+			this.kept = kept;
+			this.folded = folded;
+			this.foldedLengths = foldedLengths;
+			this.foldedVolume = volume(foldedLengths);
+		}
+		
+		// accumulation of one group over a region of the folded dimensions; null if no values
+		A accumulate(int[] keptPos, int[] from, int[] lengths) {
+			int[] pos = new int[kept.length + folded.length];
+			for (int i = 0; i < kept.length; i++)
+				pos[kept[i]] = keptPos[i];
+			for (int i = 0; i < folded.length; i++)
+				pos[folded[i]] = from[i];
+			
+			A result = null;
+			while (true) {
+				V value = MultiDimensionalArrays.get(source, pos);
+				if (value != null) {
+					if (result == null)
+						result = supplier.get();
+					
+					accumulator.accept(result, value);
+				}
+				
+				int i;
+				for (i = folded.length - 1; i >= 0; i--) {
+					if (++pos[folded[i]] < from[i] + lengths[i])
+						break;
+					
+					pos[folded[i]] = from[i];
+				}
+				
+				if (i < 0)
+					return result;
+			}
+		}
+		
+		A combine(A a, A b) {
+			return a == null ? b : b == null ? a : combiner.apply(a, b);
+		}
+		
+		void store(A result, int[] keptPos) {
+			if (result != null)
+				store.accept(result, keptPos);
+		}
+		
+		// groups in a region of the kept dimensions
+		private static final class Cells extends RecursiveAction {
+			private static final long serialVersionUID = 1L;
+			
+			private final RollUp<?, ?> rollUp;
+			private final int[] from;
+			private final int[] lengths;
+			
+			Cells(RollUp<?, ?> rollUp, int[] from, int[] lengths) {
+				this.rollUp = rollUp;
+				this.from = from;
+				this.lengths = lengths;
+			}
+			
+			@Override
+			protected void compute() {
+				compute(rollUp);
+			}
+			
+			private <V, A> void compute(RollUp<V, A> rollUp) {
+				long volume = volume(lengths);
+				if (volume == 0 || rollUp.foldedVolume == 0)
+					return;
+				
+				if (volume * rollUp.foldedVolume > DEFAULT_PARALLEL_THRESHOLD) {
+					int d = outermostSplittable(lengths);
+					
+					if (d >= 0) {
+						int half = lengths[d] / 2;
+						
+						int[] lowerLengths = lengths.clone();
+						lowerLengths[d] = half;
+						
+						int[] upperFrom = from.clone();
+						int[] upperLengths = lengths.clone();
+						upperFrom[d] += half;
+						upperLengths[d] -= half;
+						
+						invokeAll(new Cells(rollUp, from, lowerLengths), new Cells(rollUp, upperFrom, upperLengths));
+					} else {
+						// a single, big group
+						rollUp.store(new Group<A>(rollUp, from, new int[rollUp.folded.length], rollUp.foldedLengths).invoke(), from);
+					}
+					
+					return;
+				}
+				
+				int[] keptPos = from.clone();
+				int[] zeros = new int[rollUp.folded.length];
+				while (true) {
+					rollUp.store(rollUp.accumulate(keptPos, zeros, rollUp.foldedLengths), keptPos);
+					
+					int i;
+					for (i = keptPos.length - 1; i >= 0; i--) {
+						if (++keptPos[i] < from[i] + lengths[i])
+							break;
+						
+						keptPos[i] = from[i];
+					}
+					
+					if (i < 0)
+						return;
+				}
+			}
+		}
+		
+		// one group over a region of the folded dimensions
+		private static final class Group<A> extends RecursiveTask<A> {
+			private static final long serialVersionUID = 1L;
+			
+			private final RollUp<?, A> rollUp;
+			private final int[] keptPos;
+			private final int[] from;
+			private final int[] lengths;
+			
+			Group(RollUp<?, A> rollUp, int[] keptPos, int[] from, int[] lengths) {
+				this.rollUp = rollUp;
+				this.keptPos = keptPos;
+				this.from = from;
+				this.lengths = lengths;
+			}
+			
+			@Override
+			protected A compute() {
+				int d = volume(lengths) > DEFAULT_PARALLEL_THRESHOLD ? outermostSplittable(lengths) : -1;
+				
+				if (d < 0)
+					return rollUp.accumulate(keptPos, from, lengths);
+				
+				int half = lengths[d] / 2;
+				
+				int[] lowerLengths = lengths.clone();
+				lowerLengths[d] = half;
+				
+				int[] upperFrom = from.clone();
+				int[] upperLengths = lengths.clone();
+				upperFrom[d] += half;
+				upperLengths[d] -= half;
+				
+				Group<A> upper = new Group<A>(rollUp, keptPos, upperFrom, upperLengths);
+				upper.fork();
+				A lower = new Group<A>(rollUp, keptPos, from, lowerLengths).compute();
+				
+				return rollUp.combine(lower, upper.join());
+			}
+		}
+		
+		private static long volume(int[] lengths) {
+			long volume = 1;
+			for (int length : lengths)
+				volume *= length;
+			
+			return volume;
+		}
+		
+		private static int outermostSplittable(int[] lengths) {
+			for (int i = 0; i < lengths.length; i++) {
+				if (lengths[i] > 1)
+					return i;
+			}
+			
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,816 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static br.eti.rslemos.tools.collections.MultiDimensionalArrays.DEFAULT_PARALLEL_THRESHOLD;
+import static br.eti.rslemos.tools.collections.MultiDimensionalArrays.isEmpty;
+import static br.eti.rslemos.tools.collections.MultiDimensionalArrays.splittable;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+// element-wise kernels over arrays of the same shape, in row-major order;
+// the parallel variants split along the outermost dimension into fork/join tasks
+// while regions hold more than threshold cells.
+// the primitive variants (mapInt, zipWithInt, ...) work on the storage of the packed arrays directly
+public class MultiDimensionalOperations {
+	
+	private MultiDimensionalOperations() {
+		throw new UnsupportedOperationException(MultiDimensionalOperations.class + " not instantiable");
+	}
+	
+	// generic operations
+	
+	public static <S, T> void map(MultiDimensionalArray<S> src, Function<? super S, ? extends T> fn, MultiDimensionalArray<T> dst) {
+		checkShape(src, dst);
+		mapRegion(src, fn, dst, new int[src.dimensions()], src.length());
+	}
+	
+	public static <S, T> void parallelMap(MultiDimensionalArray<S> src, Function<? super S, ? extends T> fn, MultiDimensionalArray<T> dst) {
+		parallelMap(src, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static <S, T> void parallelMap(final MultiDimensionalArray<S> src, final Function<? super S, ? extends T> fn, final MultiDimensionalArray<T> dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(src, dst);
+		
+		if (!splittable(dst)) {
+			mapRegion(src, fn, dst, new int[src.dimensions()], src.length());
+			return;
+		}
+		
+		invoke(src.length(), -1, threshold, (from, lengths) -> mapRegion(src, fn, dst, from, lengths));
+	}
+	
+	public static <A, B, T> void zipWith(MultiDimensionalArray<A> a, MultiDimensionalArray<B> b, BiFunction<? super A, ? super B, ? extends T> fn, MultiDimensionalArray<T> dst) {
+		checkShape(a, b);
+		checkShape(a, dst);
+		zipRegion(a, b, fn, dst, new int[a.dimensions()], a.length());
+	}
+	
+	public static <A, B, T> void parallelZipWith(MultiDimensionalArray<A> a, MultiDimensionalArray<B> b, BiFunction<? super A, ? super B, ? extends T> fn, MultiDimensionalArray<T> dst) {
+		parallelZipWith(a, b, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static <A, B, T> void parallelZipWith(final MultiDimensionalArray<A> a, final MultiDimensionalArray<B> b, final BiFunction<? super A, ? super B, ? extends T> fn, final MultiDimensionalArray<T> dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(a, b);
+		checkShape(a, dst);
+		
+		if (!splittable(dst)) {
+			zipRegion(a, b, fn, dst, new int[a.dimensions()], a.length());
+			return;
+		}
+		
+		invoke(a.length(), -1, threshold, (from, lengths) -> zipRegion(a, b, fn, dst, from, lengths));
+	}
+	
+	public static <T> T reduce(MultiDimensionalArray<T> array, T identity, BinaryOperator<T> op) {
+		return reduceRegion(array, identity, op, new int[array.dimensions()], array.length());
+	}
+	
+	// op must be associative and identity must be its identity, as partial results get combined in any grouping
+	public static <T> T parallelReduce(MultiDimensionalArray<T> array, T identity, BinaryOperator<T> op) {
+		return parallelReduce(array, identity, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static <T> T parallelReduce(final MultiDimensionalArray<T> array, final T identity, final BinaryOperator<T> op, int threshold) {
+		checkThreshold(threshold);
+		return invoke(array.length(), threshold, (from, lengths) -> reduceRegion(array, identity, op, from, lengths), op);
+	}
+	
+	// cells along a dimension of length 0 reduce to null
+	public static <T> PackedArray<T> reduceAlong(MultiDimensionalArray<T> array, int dimension, BinaryOperator<T> op) {
+		int[] sizes = array.length();
+		PackedArray<T> result = new PackedArray<T>(reduce(sizes, dimension));
+		reduceAlongRegion(array, dimension, op, broadcast(result, sizes, dimension), new int[sizes.length], sizes);
+		return result;
+	}
+	
+	public static <T> PackedArray<T> parallelReduceAlong(MultiDimensionalArray<T> array, int dimension, BinaryOperator<T> op) {
+		return parallelReduceAlong(array, dimension, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static <T> PackedArray<T> parallelReduceAlong(final MultiDimensionalArray<T> array, final int dimension, final BinaryOperator<T> op, int threshold) {
+		checkThreshold(threshold);
+		int[] sizes = array.length();
+		PackedArray<T> result = new PackedArray<T>(reduce(sizes, dimension));
+		final PackedArray<T> target = broadcast(result, sizes, dimension);
+		invoke(sizes, dimension, threshold, (from, lengths) -> reduceAlongRegion(array, dimension, op, target, from, lengths));
+		return result;
+	}
+	
+	private static <S, T> void mapRegion(MultiDimensionalArray<S> src, Function<? super S, ? extends T> fn, MultiDimensionalArray<T> dst, int[] from, int[] lengths) {
+		if (isEmpty(lengths))
+			return;
+		
+		int[] pos = from.clone();
+		do {
+			MultiDimensionalArrays.set(dst, fn.apply(MultiDimensionalArrays.get(src, pos)), pos);
+		} while (next(pos, from, lengths));
+	}
+	
+	private static <A, B, T> void zipRegion(MultiDimensionalArray<A> a, MultiDimensionalArray<B> b, BiFunction<? super A, ? super B, ? extends T> fn, MultiDimensionalArray<T> dst, int[] from, int[] lengths) {
+		if (isEmpty(lengths))
+			return;
+		
+		int[] pos = from.clone();
+		do {
+			MultiDimensionalArrays.set(dst, fn.apply(MultiDimensionalArrays.get(a, pos), MultiDimensionalArrays.get(b, pos)), pos);
+		} while (next(pos, from, lengths));
+	}
+	
+	private static <T> T reduceRegion(MultiDimensionalArray<T> array, T identity, BinaryOperator<T> op, int[] from, int[] lengths) {
+		T result = identity;
+		
+		if (isEmpty(lengths))
+			return result;
+		
+		int[] pos = from.clone();
+		do {
+			result = op.apply(result, MultiDimensionalArrays.get(array, pos));
+		} while (next(pos, from, lengths));
+		
+		return result;
+	}
+	
+	// target has the shape of array but doesn't move along dimension
+	private static <T> void reduceAlongRegion(MultiDimensionalArray<T> array, int dimension, BinaryOperator<T> op, PackedArray<T> target, int[] from, int[] lengths) {
+		if (isEmpty(lengths))
+			return;
+		
+		int[] first = lengths.clone();
+		first[dimension] = 1;
+		MultiDimensionalArrays.copy(array, from.clone(), target, from.clone(), first);
+		
+		int[] restFrom = from.clone();
+		int[] restLengths = lengths.clone();
+		restFrom[dimension]++;
+		restLengths[dimension]--;
+		
+		if (isEmpty(restLengths))
+			return;
+		
+		int[] pos = restFrom.clone();
+		do {
+			MultiDimensionalArrays.set(target, op.apply(MultiDimensionalArrays.get(target, pos), MultiDimensionalArrays.get(array, pos)), pos);
+		} while (next(pos, restFrom, restLengths));
+	}
+	
+	// Int operations
+	
+	public static void mapInt(IntPackedArray src, IntUnaryOperator fn, IntPackedArray dst) {
+		checkShape(src, dst);
+		mapIntRegion(src, fn, dst, new int[src.dimensions()], src.length());
+	}
+	
+	public static void parallelMapInt(IntPackedArray src, IntUnaryOperator fn, IntPackedArray dst) {
+		parallelMapInt(src, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static void parallelMapInt(final IntPackedArray src, final IntUnaryOperator fn, final IntPackedArray dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(src, dst);
+		invoke(src.length(), -1, threshold, (from, lengths) -> mapIntRegion(src, fn, dst, from, lengths));
+	}
+	
+	public static void zipWithInt(IntPackedArray a, IntPackedArray b, IntBinaryOperator fn, IntPackedArray dst) {
+		checkShape(a, b);
+		checkShape(a, dst);
+		zipIntRegion(a, b, fn, dst, new int[a.dimensions()], a.length());
+	}
+	
+	public static void parallelZipWithInt(IntPackedArray a, IntPackedArray b, IntBinaryOperator fn, IntPackedArray dst) {
+		parallelZipWithInt(a, b, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static void parallelZipWithInt(final IntPackedArray a, final IntPackedArray b, final IntBinaryOperator fn, final IntPackedArray dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(a, b);
+		checkShape(a, dst);
+		invoke(a.length(), -1, threshold, (from, lengths) -> zipIntRegion(a, b, fn, dst, from, lengths));
+	}
+	
+	public static int reduceInt(IntPackedArray array, int identity, IntBinaryOperator op) {
+		return reduceIntRegion(array, identity, op, new int[array.dimensions()], array.length());
+	}
+	
+	public static int parallelReduceInt(IntPackedArray array, int identity, IntBinaryOperator op) {
+		return parallelReduceInt(array, identity, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static int parallelReduceInt(final IntPackedArray array, final int identity, final IntBinaryOperator op, int threshold) {
+		checkThreshold(threshold);
+		return invoke(array.length(), threshold, (from, lengths) -> reduceIntRegion(array, identity, op, from, lengths), (x, y) -> op.applyAsInt(x, y));
+	}
+	
+	public static IntPackedArray reduceAlongInt(IntPackedArray array, int dimension, IntBinaryOperator op) {
+		int[] sizes = array.length();
+		IntPackedArray result = new IntPackedArray(reduce(sizes, dimension));
+		reduceAlongIntRegion(array, dimension, op, broadcast(result, sizes, dimension), new int[sizes.length], sizes);
+		return result;
+	}
+	
+	public static IntPackedArray parallelReduceAlongInt(IntPackedArray array, int dimension, IntBinaryOperator op) {
+		return parallelReduceAlongInt(array, dimension, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static IntPackedArray parallelReduceAlongInt(final IntPackedArray array, final int dimension, final IntBinaryOperator op, int threshold) {
+		checkThreshold(threshold);
+		int[] sizes = array.length();
+		IntPackedArray result = new IntPackedArray(reduce(sizes, dimension));
+		final IntPackedArray target = broadcast(result, sizes, dimension);
+		invoke(sizes, dimension, threshold, (from, lengths) -> reduceAlongIntRegion(array, dimension, op, target, from, lengths));
+		return result;
+	}
+	
+	private static void mapIntRegion(IntPackedArray src, IntUnaryOperator fn, IntPackedArray dst, int[] from, int[] lengths) {
+		final int[] in = src.values;
+		final int[] out = dst.values;
+		walk(from, lengths, a -> out[a[1]] = fn.applyAsInt(in[a[0]]), src, dst);
+	}
+	
+	private static void zipIntRegion(IntPackedArray a, IntPackedArray b, IntBinaryOperator fn, IntPackedArray dst, int[] from, int[] lengths) {
+		final int[] left = a.values;
+		final int[] right = b.values;
+		final int[] out = dst.values;
+		walk(from, lengths, x -> out[x[2]] = fn.applyAsInt(left[x[0]], right[x[1]]), a, b, dst);
+	}
+	
+	private static int reduceIntRegion(IntPackedArray array, int identity, IntBinaryOperator op, int[] from, int[] lengths) {
+		final int[] in = array.values;
+		final int[] result = { identity };
+		walk(from, lengths, a -> result[0] = op.applyAsInt(result[0], in[a[0]]), array);
+		return result[0];
+	}
+	
+	private static void reduceAlongIntRegion(IntPackedArray array, int dimension, IntBinaryOperator op, IntPackedArray target, int[] from, int[] lengths) {
+		final int[] in = array.values;
+		final int[] out = target.values;
+		
+		if (isEmpty(lengths))
+			return;
+		
+		int[] first = lengths.clone();
+		first[dimension] = 1;
+		walk(from, first, a -> out[a[1]] = in[a[0]], array, target);
+		
+		int[] restFrom = from.clone();
+		int[] restLengths = lengths.clone();
+		restFrom[dimension]++;
+		restLengths[dimension]--;
+		walk(restFrom, restLengths, a -> out[a[1]] = op.applyAsInt(out[a[1]], in[a[0]]), array, target);
+	}
+	
+	// Long operations
+	
+	public static void mapLong(LongPackedArray src, LongUnaryOperator fn, LongPackedArray dst) {
+		checkShape(src, dst);
+		mapLongRegion(src, fn, dst, new int[src.dimensions()], src.length());
+	}
+	
+	public static void parallelMapLong(LongPackedArray src, LongUnaryOperator fn, LongPackedArray dst) {
+		parallelMapLong(src, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static void parallelMapLong(final LongPackedArray src, final LongUnaryOperator fn, final LongPackedArray dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(src, dst);
+		invoke(src.length(), -1, threshold, (from, lengths) -> mapLongRegion(src, fn, dst, from, lengths));
+	}
+	
+	public static void zipWithLong(LongPackedArray a, LongPackedArray b, LongBinaryOperator fn, LongPackedArray dst) {
+		checkShape(a, b);
+		checkShape(a, dst);
+		zipLongRegion(a, b, fn, dst, new int[a.dimensions()], a.length());
+	}
+	
+	public static void parallelZipWithLong(LongPackedArray a, LongPackedArray b, LongBinaryOperator fn, LongPackedArray dst) {
+		parallelZipWithLong(a, b, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static void parallelZipWithLong(final LongPackedArray a, final LongPackedArray b, final LongBinaryOperator fn, final LongPackedArray dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(a, b);
+		checkShape(a, dst);
+		invoke(a.length(), -1, threshold, (from, lengths) -> zipLongRegion(a, b, fn, dst, from, lengths));
+	}
+	
+	public static long reduceLong(LongPackedArray array, long identity, LongBinaryOperator op) {
+		return reduceLongRegion(array, identity, op, new int[array.dimensions()], array.length());
+	}
+	
+	public static long parallelReduceLong(LongPackedArray array, long identity, LongBinaryOperator op) {
+		return parallelReduceLong(array, identity, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static long parallelReduceLong(final LongPackedArray array, final long identity, final LongBinaryOperator op, int threshold) {
+		checkThreshold(threshold);
+		return invoke(array.length(), threshold, (from, lengths) -> reduceLongRegion(array, identity, op, from, lengths), (x, y) -> op.applyAsLong(x, y));
+	}
+	
+	public static LongPackedArray reduceAlongLong(LongPackedArray array, int dimension, LongBinaryOperator op) {
+		int[] sizes = array.length();
+		LongPackedArray result = new LongPackedArray(reduce(sizes, dimension));
+		reduceAlongLongRegion(array, dimension, op, broadcast(result, sizes, dimension), new int[sizes.length], sizes);
+		return result;
+	}
+	
+	public static LongPackedArray parallelReduceAlongLong(LongPackedArray array, int dimension, LongBinaryOperator op) {
+		return parallelReduceAlongLong(array, dimension, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static LongPackedArray parallelReduceAlongLong(final LongPackedArray array, final int dimension, final LongBinaryOperator op, int threshold) {
+		checkThreshold(threshold);
+		int[] sizes = array.length();
+		LongPackedArray result = new LongPackedArray(reduce(sizes, dimension));
+		final LongPackedArray target = broadcast(result, sizes, dimension);
+		invoke(sizes, dimension, threshold, (from, lengths) -> reduceAlongLongRegion(array, dimension, op, target, from, lengths));
+		return result;
+	}
+	
+	private static void mapLongRegion(LongPackedArray src, LongUnaryOperator fn, LongPackedArray dst, int[] from, int[] lengths) {
+		final long[] in = src.values;
+		final long[] out = dst.values;
+		walk(from, lengths, a -> out[a[1]] = fn.applyAsLong(in[a[0]]), src, dst);
+	}
+	
+	private static void zipLongRegion(LongPackedArray a, LongPackedArray b, LongBinaryOperator fn, LongPackedArray dst, int[] from, int[] lengths) {
+		final long[] left = a.values;
+		final long[] right = b.values;
+		final long[] out = dst.values;
+		walk(from, lengths, x -> out[x[2]] = fn.applyAsLong(left[x[0]], right[x[1]]), a, b, dst);
+	}
+	
+	private static long reduceLongRegion(LongPackedArray array, long identity, LongBinaryOperator op, int[] from, int[] lengths) {
+		final long[] in = array.values;
+		final long[] result = { identity };
+		walk(from, lengths, a -> result[0] = op.applyAsLong(result[0], in[a[0]]), array);
+		return result[0];
+	}
+	
+	private static void reduceAlongLongRegion(LongPackedArray array, int dimension, LongBinaryOperator op, LongPackedArray target, int[] from, int[] lengths) {
+		final long[] in = array.values;
+		final long[] out = target.values;
+		
+		if (isEmpty(lengths))
+			return;
+		
+		int[] first = lengths.clone();
+		first[dimension] = 1;
+		walk(from, first, a -> out[a[1]] = in[a[0]], array, target);
+		
+		int[] restFrom = from.clone();
+		int[] restLengths = lengths.clone();
+		restFrom[dimension]++;
+		restLengths[dimension]--;
+		walk(restFrom, restLengths, a -> out[a[1]] = op.applyAsLong(out[a[1]], in[a[0]]), array, target);
+	}
+	
+	// Float operations
+	
+	public static void mapFloat(FloatPackedArray src, DoubleUnaryOperator fn, FloatPackedArray dst) {
+		checkShape(src, dst);
+		mapFloatRegion(src, fn, dst, new int[src.dimensions()], src.length());
+	}
+	
+	public static void parallelMapFloat(FloatPackedArray src, DoubleUnaryOperator fn, FloatPackedArray dst) {
+		parallelMapFloat(src, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static void parallelMapFloat(final FloatPackedArray src, final DoubleUnaryOperator fn, final FloatPackedArray dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(src, dst);
+		invoke(src.length(), -1, threshold, (from, lengths) -> mapFloatRegion(src, fn, dst, from, lengths));
+	}
+	
+	public static void zipWithFloat(FloatPackedArray a, FloatPackedArray b, DoubleBinaryOperator fn, FloatPackedArray dst) {
+		checkShape(a, b);
+		checkShape(a, dst);
+		zipFloatRegion(a, b, fn, dst, new int[a.dimensions()], a.length());
+	}
+	
+	public static void parallelZipWithFloat(FloatPackedArray a, FloatPackedArray b, DoubleBinaryOperator fn, FloatPackedArray dst) {
+		parallelZipWithFloat(a, b, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static void parallelZipWithFloat(final FloatPackedArray a, final FloatPackedArray b, final DoubleBinaryOperator fn, final FloatPackedArray dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(a, b);
+		checkShape(a, dst);
+		invoke(a.length(), -1, threshold, (from, lengths) -> zipFloatRegion(a, b, fn, dst, from, lengths));
+	}
+	
+	public static float reduceFloat(FloatPackedArray array, float identity, DoubleBinaryOperator op) {
+		return reduceFloatRegion(array, identity, op, new int[array.dimensions()], array.length());
+	}
+	
+	public static float parallelReduceFloat(FloatPackedArray array, float identity, DoubleBinaryOperator op) {
+		return parallelReduceFloat(array, identity, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static float parallelReduceFloat(final FloatPackedArray array, final float identity, final DoubleBinaryOperator op, int threshold) {
+		checkThreshold(threshold);
+		return invoke(array.length(), threshold, (from, lengths) -> reduceFloatRegion(array, identity, op, from, lengths), (x, y) -> (float) op.applyAsDouble(x, y));
+	}
+	
+	public static FloatPackedArray reduceAlongFloat(FloatPackedArray array, int dimension, DoubleBinaryOperator op) {
+		int[] sizes = array.length();
+		FloatPackedArray result = new FloatPackedArray(reduce(sizes, dimension));
+		reduceAlongFloatRegion(array, dimension, op, broadcast(result, sizes, dimension), new int[sizes.length], sizes);
+		return result;
+	}
+	
+	public static FloatPackedArray parallelReduceAlongFloat(FloatPackedArray array, int dimension, DoubleBinaryOperator op) {
+		return parallelReduceAlongFloat(array, dimension, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static FloatPackedArray parallelReduceAlongFloat(final FloatPackedArray array, final int dimension, final DoubleBinaryOperator op, int threshold) {
+		checkThreshold(threshold);
+		int[] sizes = array.length();
+		FloatPackedArray result = new FloatPackedArray(reduce(sizes, dimension));
+		final FloatPackedArray target = broadcast(result, sizes, dimension);
+		invoke(sizes, dimension, threshold, (from, lengths) -> reduceAlongFloatRegion(array, dimension, op, target, from, lengths));
+		return result;
+	}
+	
+	private static void mapFloatRegion(FloatPackedArray src, DoubleUnaryOperator fn, FloatPackedArray dst, int[] from, int[] lengths) {
+		final float[] in = src.values;
+		final float[] out = dst.values;
+		walk(from, lengths, a -> out[a[1]] = (float) fn.applyAsDouble(in[a[0]]), src, dst);
+	}
+	
+	private static void zipFloatRegion(FloatPackedArray a, FloatPackedArray b, DoubleBinaryOperator fn, FloatPackedArray dst, int[] from, int[] lengths) {
+		final float[] left = a.values;
+		final float[] right = b.values;
+		final float[] out = dst.values;
+		walk(from, lengths, x -> out[x[2]] = (float) fn.applyAsDouble(left[x[0]], right[x[1]]), a, b, dst);
+	}
+	
+	private static float reduceFloatRegion(FloatPackedArray array, float identity, DoubleBinaryOperator op, int[] from, int[] lengths) {
+		final float[] in = array.values;
+		final float[] result = { identity };
+		walk(from, lengths, a -> result[0] = (float) op.applyAsDouble(result[0], in[a[0]]), array);
+		return result[0];
+	}
+	
+	private static void reduceAlongFloatRegion(FloatPackedArray array, int dimension, DoubleBinaryOperator op, FloatPackedArray target, int[] from, int[] lengths) {
+		final float[] in = array.values;
+		final float[] out = target.values;
+		
+		if (isEmpty(lengths))
+			return;
+		
+		int[] first = lengths.clone();
+		first[dimension] = 1;
+		walk(from, first, a -> out[a[1]] = in[a[0]], array, target);
+		
+		int[] restFrom = from.clone();
+		int[] restLengths = lengths.clone();
+		restFrom[dimension]++;
+		restLengths[dimension]--;
+		walk(restFrom, restLengths, a -> out[a[1]] = (float) op.applyAsDouble(out[a[1]], in[a[0]]), array, target);
+	}
+	
+	// Double operations
+	
+	public static void mapDouble(DoublePackedArray src, DoubleUnaryOperator fn, DoublePackedArray dst) {
+		checkShape(src, dst);
+		mapDoubleRegion(src, fn, dst, new int[src.dimensions()], src.length());
+	}
+	
+	public static void parallelMapDouble(DoublePackedArray src, DoubleUnaryOperator fn, DoublePackedArray dst) {
+		parallelMapDouble(src, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static void parallelMapDouble(final DoublePackedArray src, final DoubleUnaryOperator fn, final DoublePackedArray dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(src, dst);
+		invoke(src.length(), -1, threshold, (from, lengths) -> mapDoubleRegion(src, fn, dst, from, lengths));
+	}
+	
+	public static void zipWithDouble(DoublePackedArray a, DoublePackedArray b, DoubleBinaryOperator fn, DoublePackedArray dst) {
+		checkShape(a, b);
+		checkShape(a, dst);
+		zipDoubleRegion(a, b, fn, dst, new int[a.dimensions()], a.length());
+	}
+	
+	public static void parallelZipWithDouble(DoublePackedArray a, DoublePackedArray b, DoubleBinaryOperator fn, DoublePackedArray dst) {
+		parallelZipWithDouble(a, b, fn, dst, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static void parallelZipWithDouble(final DoublePackedArray a, final DoublePackedArray b, final DoubleBinaryOperator fn, final DoublePackedArray dst, int threshold) {
+		checkThreshold(threshold);
+		checkShape(a, b);
+		checkShape(a, dst);
+		invoke(a.length(), -1, threshold, (from, lengths) -> zipDoubleRegion(a, b, fn, dst, from, lengths));
+	}
+	
+	public static double reduceDouble(DoublePackedArray array, double identity, DoubleBinaryOperator op) {
+		return reduceDoubleRegion(array, identity, op, new int[array.dimensions()], array.length());
+	}
+	
+	public static double parallelReduceDouble(DoublePackedArray array, double identity, DoubleBinaryOperator op) {
+		return parallelReduceDouble(array, identity, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static double parallelReduceDouble(final DoublePackedArray array, final double identity, final DoubleBinaryOperator op, int threshold) {
+		checkThreshold(threshold);
+		return invoke(array.length(), threshold, (from, lengths) -> reduceDoubleRegion(array, identity, op, from, lengths), (x, y) -> op.applyAsDouble(x, y));
+	}
+	
+	public static DoublePackedArray reduceAlongDouble(DoublePackedArray array, int dimension, DoubleBinaryOperator op) {
+		int[] sizes = array.length();
+		DoublePackedArray result = new DoublePackedArray(reduce(sizes, dimension));
+		reduceAlongDoubleRegion(array, dimension, op, broadcast(result, sizes, dimension), new int[sizes.length], sizes);
+		return result;
+	}
+	
+	public static DoublePackedArray parallelReduceAlongDouble(DoublePackedArray array, int dimension, DoubleBinaryOperator op) {
+		return parallelReduceAlongDouble(array, dimension, op, DEFAULT_PARALLEL_THRESHOLD);
+	}
+	
+	public static DoublePackedArray parallelReduceAlongDouble(final DoublePackedArray array, final int dimension, final DoubleBinaryOperator op, int threshold) {
+		checkThreshold(threshold);
+		int[] sizes = array.length();
+		DoublePackedArray result = new DoublePackedArray(reduce(sizes, dimension));
+		final DoublePackedArray target = broadcast(result, sizes, dimension);
+		invoke(sizes, dimension, threshold, (from, lengths) -> reduceAlongDoubleRegion(array, dimension, op, target, from, lengths));
+		return result;
+	}
+	
+	private static void mapDoubleRegion(DoublePackedArray src, DoubleUnaryOperator fn, DoublePackedArray dst, int[] from, int[] lengths) {
+		final double[] in = src.values;
+		final double[] out = dst.values;
+		walk(from, lengths, a -> out[a[1]] = fn.applyAsDouble(in[a[0]]), src, dst);
+	}
+	
+	private static void zipDoubleRegion(DoublePackedArray a, DoublePackedArray b, DoubleBinaryOperator fn, DoublePackedArray dst, int[] from, int[] lengths) {
+		final double[] left = a.values;
+		final double[] right = b.values;
+		final double[] out = dst.values;
+		walk(from, lengths, x -> out[x[2]] = fn.applyAsDouble(left[x[0]], right[x[1]]), a, b, dst);
+	}
+	
+	private static double reduceDoubleRegion(DoublePackedArray array, double identity, DoubleBinaryOperator op, int[] from, int[] lengths) {
+		final double[] in = array.values;
+		final double[] result = { identity };
+		walk(from, lengths, a -> result[0] = op.applyAsDouble(result[0], in[a[0]]), array);
+		return result[0];
+	}
+	
+	private static void reduceAlongDoubleRegion(DoublePackedArray array, int dimension, DoubleBinaryOperator op, DoublePackedArray target, int[] from, int[] lengths) {
+		final double[] in = array.values;
+		final double[] out = target.values;
+		
+		if (isEmpty(lengths))
+			return;
+		
+		int[] first = lengths.clone();
+		first[dimension] = 1;
+		walk(from, first, a -> out[a[1]] = in[a[0]], array, target);
+		
+		int[] restFrom = from.clone();
+		int[] restLengths = lengths.clone();
+		restFrom[dimension]++;
+		restLengths[dimension]--;
+		walk(restFrom, restLengths, a -> out[a[1]] = op.applyAsDouble(out[a[1]], in[a[0]]), array, target);
+	}
+	
+	// auxiliary methods
+	
+	private static void checkShape(MultiDimensionalArray<?> a, MultiDimensionalArray<?> b) {
+		if (!Arrays.equals(a.length(), b.length()))
+			throw new IllegalArgumentException("Shapes differ: " + Arrays.toString(a.length()) + ", " + Arrays.toString(b.length()));
+	}
+	
+	private static void checkThreshold(int threshold) {
+		if (threshold < 1)
+			throw new IllegalArgumentException("Illegal threshold: " + threshold);
+	}
+	
+	// sizes without dimension; as arrays of no dimensions hold no cells, a 1-dimensional array reduces to a single cell
+	private static int[] reduce(int[] sizes, int dimension) {
+		if (dimension < 0 || dimension >= sizes.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		return sizes.length > 1 ? remove(sizes, dimension) : new int[] {1};
+	}
+	
+	private static int[] remove(int[] sizes, int dimension) {
+		int[] result = new int[sizes.length - 1];
+		System.arraycopy(sizes, 0, result, 0, dimension);
+		System.arraycopy(sizes, dimension + 1, result, dimension, result.length - dimension);
+		
+		return result;
+	}
+	
+	// a view of (freshly allocated) result with the given sizes that stands still along dimension
+	@SuppressWarnings("unchecked")
+	private static <A extends PackedArray<?>> A broadcast(A result, int[] sizes, int dimension) {
+		int[] reducedStrides = PackedArray.computeStrides(remove(sizes, dimension));
+		
+		int[] strides = new int[sizes.length];
+		System.arraycopy(reducedStrides, 0, strides, 0, dimension);
+		System.arraycopy(reducedStrides, dimension, strides, dimension + 1, reducedStrides.length - dimension);
+		
+		return (A) result.view(sizes.clone(), strides, 0);
+	}
+	
+	// advances pos to the next address of the region in row-major order
+	private static boolean next(int[] pos, int[] from, int[] lengths) {
+		for (int d = pos.length - 1; d >= 0; d--) {
+			if (++pos[d] < from[d] + lengths[d])
+				return true;
+			
+			pos[d] = from[d];
+		}
+		
+		return false;
+	}
+	
+	private interface AddressKernel {
+		void apply(int[] addresses);
+	}
+	
+	// feeds kernel, in row-major order over the region, with the storage addresses of each array
+	private static void walk(int[] from, int[] lengths, AddressKernel kernel, PackedArray<?>... arrays) {
+		if (isEmpty(lengths))
+			return;
+		
+		int n = lengths.length;
+		int[] addresses = new int[arrays.length];
+		int[][] strides = new int[arrays.length][n];
+		
+		for (int a = 0; a < arrays.length; a++) {
+			addresses[a] = arrays[a].computeAddress(from);
+			
+			for (int d = 0; d < n; d++)
+				strides[a][d] = arrays[a].stride(d);
+		}
+		
+		int[] counter = new int[n];
+		while (true) {
+			kernel.apply(addresses);
+			
+			int d;
+			for (d = n - 1; d >= 0; d--) {
+				if (++counter[d] < lengths[d]) {
+					for (int a = 0; a < arrays.length; a++)
+						addresses[a] += strides[a][d];
+					break;
+				}
+				
+				counter[d] = 0;
+				for (int a = 0; a < arrays.length; a++)
+					addresses[a] -= (lengths[d] - 1) * strides[a][d];
+			}
+			
+			if (d < 0)
+				return;
+		}
+	}
+	
+	private interface RegionKernel {
+		void apply(int[] from, int[] lengths);
+	}
+	
+	private interface RegionFunction<R> {
+		R apply(int[] from, int[] lengths);
+	}
+	
+	// never splits along pinned (-1 for none)
+	private static void invoke(int[] sizes, int pinned, int threshold, RegionKernel kernel) {
+		new RegionAction(new int[sizes.length], sizes, pinned, threshold, kernel).invoke();
+	}
+	
+	private static <R> R invoke(int[] sizes, int threshold, RegionFunction<R> function, BinaryOperator<R> combiner) {
+		return new RegionTask<R>(new int[sizes.length], sizes, threshold, function, combiner).invoke();
+	}
+	
+	private static int splittingDimension(int[] lengths, int pinned, int threshold) {
+		long volume = 1;
+		for (int length : lengths)
+			volume *= Math.max(length, 0);
+		
+		if (volume <= threshold)
+			return -1;
+		
+		for (int i = 0; i < lengths.length; i++) {
+			if (i != pinned && lengths[i] > 1)
+				return i;
+		}
+		
+		return -1;
+	}
+	
+	private static int[][] halves(int[] from, int[] lengths, int d) {
+		int half = lengths[d] / 2;
+		
+		int[] lowerLengths = lengths.clone();
+		lowerLengths[d] = half;
+		
+		int[] upperFrom = from.clone();
+		int[] upperLengths = lengths.clone();
+		upperFrom[d] += half;
+		upperLengths[d] -= half;
+		
+		return new int[][] { from, lowerLengths, upperFrom, upperLengths };
+	}
+	
+	private static final class RegionAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final int[] from;
+		private final int[] lengths;
+		private final int pinned;
+		private final int threshold;
+		private final RegionKernel kernel;
+		
+		RegionAction(int[] from, int[] lengths, int pinned, int threshold, RegionKernel kernel) {
+			this.from = from;
+			this.lengths = lengths;
+			this.pinned = pinned;
+			this.threshold = threshold;
+			this.kernel = kernel;
+		}
+		
+		@Override
+		protected void compute() {
+			int d = splittingDimension(lengths, pinned, threshold);
+			
+			if (d < 0) {
+				kernel.apply(from, lengths);
+				return;
+			}
+			
+			int[][] halves = halves(from, lengths, d);
+			invokeAll(
+					new RegionAction(halves[0], halves[1], pinned, threshold, kernel), 
+					new RegionAction(halves[2], halves[3], pinned, threshold, kernel)
+				);
+		}
+	}
+	
+	private static final class RegionTask<R> extends RecursiveTask<R> {
+		private static final long serialVersionUID = 1L;
+		
+		private final int[] from;
+		private final int[] lengths;
+		private final int threshold;
+		private final RegionFunction<R> function;
+		private final BinaryOperator<R> combiner;
+		
+		RegionTask(int[] from, int[] lengths, int threshold, RegionFunction<R> function, BinaryOperator<R> combiner) {
+			this.from = from;
+			this.lengths = lengths;
+			this.threshold = threshold;
+			this.function = function;
+			this.combiner = combiner;
+		}
+		
+		@Override
+		protected R compute() {
+			int d = splittingDimension(lengths, -1, threshold);
+			
+			if (d < 0)
+				return function.apply(from, lengths);
+			
+			int[][] halves = halves(from, lengths, d);
+			RegionTask<R> lower = new RegionTask<R>(halves[0], halves[1], threshold, function, combiner);
+			RegionTask<R> upper = new RegionTask<R>(halves[2], halves[3], threshold, function, combiner);
+			
+			upper.fork();
+			R result = lower.compute();
+			return combiner.apply(result, upper.join());
+		}
+	}
+}
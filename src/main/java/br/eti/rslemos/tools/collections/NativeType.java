@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.nio.ByteBuffer;
+
+enum NativeType {
+	INT(Integer.class, 4, 'I') {
+		@Override
+		Number get(ByteBuffer buffer, int index) {
+			return buffer.getInt(index);
+		}
+
+		@Override
+		void put(ByteBuffer buffer, int index, Number element) {
+			buffer.putInt(index, element.intValue());
+		}
+	},
+	
+	LONG(Long.class, 8, 'L') {
+		@Override
+		Number get(ByteBuffer buffer, int index) {
+			return buffer.getLong(index);
+		}
+
+		@Override
+		void put(ByteBuffer buffer, int index, Number element) {
+			buffer.putLong(index, element.longValue());
+		}
+	},
+	
+	FLOAT(Float.class, 4, 'F') {
+		@Override
+		Number get(ByteBuffer buffer, int index) {
+			return buffer.getFloat(index);
+		}
+
+		@Override
+		void put(ByteBuffer buffer, int index, Number element) {
+			buffer.putFloat(index, element.floatValue());
+		}
+	},
+	
+	DOUBLE(Double.class, 8, 'D') {
+		@Override
+		Number get(ByteBuffer buffer, int index) {
+			return buffer.getDouble(index);
+		}
+
+		@Override
+		void put(ByteBuffer buffer, int index, Number element) {
+			buffer.putDouble(index, element.doubleValue());
+		}
+	};
+	
+	final Class<? extends Number> type;
+	final int width;
+	final char code;
+
+	private NativeType(Class<? extends Number> type, int width, char code) {
+		this.type = type;
+		this.width = width;
+		this.code = code;
+	}
+
+	abstract Number get(ByteBuffer buffer, int index);
+
+	abstract void put(ByteBuffer buffer, int index, Number element);
+
+	static NativeType of(Class<?> type) {
+		for (NativeType nativeType : values()) {
+			if (nativeType.type == type)
+				return nativeType;
+		}
+		
+		throw new IllegalArgumentException("Unsupported element type: " + type);
+	}
+
+	static NativeType of(char code) {
+		for (NativeType nativeType : values()) {
+			if (nativeType.code == code)
+				return nativeType;
+		}
+		
+		throw new IllegalArgumentException("Unsupported element type code: " + code);
+	}
+}
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+
+public class OffHeapPackedArray<T extends Number> extends PackedArray<T> implements Closeable {
+	// a single direct buffer cannot go past Integer.MAX_VALUE bytes;
+	// elements are never split between segments since every width divides it
+	static final int SEGMENT_SHIFT = 30;
+	static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+	final NativeType type;
+	final Memory memory;
+	final boolean owner;
+
+	public OffHeapPackedArray(Class<T> type, int... sizes) {
+		this(NativeType.of(type), sizes);
+	}
+
+	public OffHeapPackedArray(Class<T> type, MultiDimensionalArray<T> init) {
+		this(type, init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			T element = init.get(address);
+			if (element != null)
+				set(element, address);
+		}
+	}
+
+	public OffHeapPackedArray(MultiDimensionalArray<T> init) {
+		this(elementType(init), init);
+	}
+
+	public OffHeapPackedArray(Object init, int... sizes) {
+		this(OffHeapPackedArray.<T>componentType(init), new JavaArrayMultiDimensionalArray<T>(init, sizes));
+	}
+
+	private OffHeapPackedArray(NativeType type, int... sizes) {
+		this(type, Memory.allocate((long) computeSize(sizes) * type.width), true, sizes, computeStrides(sizes), 0);
+	}
+
+	protected OffHeapPackedArray(NativeType type, Memory memory, boolean owner, int[] sizes, int[] strides, int base) {
+		super(null, sizes, strides, base);
+		this.type = type;
+		this.memory = memory;
+		this.owner = owner;
+	}
+
+	@Override
+	protected OffHeapPackedArray<T> view(int[] sizes, int[] strides, int base) {
+		return new OffHeapPackedArray<T>(type, memory, false, sizes, strides, base);
+	}
+
+	@SuppressWarnings("unchecked")
+	public Class<T> elementType() {
+		return (Class<T>) type.type;
+	}
+
+	// only the array that allocated the region may release it, and every view with it;
+	// closing a view does nothing
+	public void close() {
+		if (owner)
+			memory.close();
+	}
+
+	// storage methods
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T load(int address) {
+		long index = (long) address * type.width;
+		return (T) type.get(memory.segment(index), (int) (index & SEGMENT_MASK));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T store(int address, T element) {
+		if (element == null)
+			throw new NullPointerException();
+		
+		long index = (long) address * type.width;
+		ByteBuffer segment = memory.segment(index);
+		
+		T old = (T) type.get(segment, (int) (index & SEGMENT_MASK));
+		type.put(segment, (int) (index & SEGMENT_MASK), element);
+		return old;
+	}
+
+	public int getInt(int... pos) {
+		checkBoundaries(pos);
+		long index = address(NativeType.INT, pos);
+		return memory.segment(index).getInt((int) (index & SEGMENT_MASK));
+	}
+
+	public int setInt(int element, int... pos) {
+		checkBoundaries(pos);
+		long index = address(NativeType.INT, pos);
+		ByteBuffer segment = memory.segment(index);
+		int old = segment.getInt((int) (index & SEGMENT_MASK));
+		segment.putInt((int) (index & SEGMENT_MASK), element);
+		return old;
+	}
+
+	public long getLong(int... pos) {
+		checkBoundaries(pos);
+		long index = address(NativeType.LONG, pos);
+		return memory.segment(index).getLong((int) (index & SEGMENT_MASK));
+	}
+
+	public long setLong(long element, int... pos) {
+		checkBoundaries(pos);
+		long index = address(NativeType.LONG, pos);
+		ByteBuffer segment = memory.segment(index);
+		long old = segment.getLong((int) (index & SEGMENT_MASK));
+		segment.putLong((int) (index & SEGMENT_MASK), element);
+		return old;
+	}
+
+	public float getFloat(int... pos) {
+		checkBoundaries(pos);
+		long index = address(NativeType.FLOAT, pos);
+		return memory.segment(index).getFloat((int) (index & SEGMENT_MASK));
+	}
+
+	public float setFloat(float element, int... pos) {
+		checkBoundaries(pos);
+		long index = address(NativeType.FLOAT, pos);
+		ByteBuffer segment = memory.segment(index);
+		float old = segment.getFloat((int) (index & SEGMENT_MASK));
+		segment.putFloat((int) (index & SEGMENT_MASK), element);
+		return old;
+	}
+
+	public double getDouble(int... pos) {
+		checkBoundaries(pos);
+		long index = address(NativeType.DOUBLE, pos);
+		return memory.segment(index).getDouble((int) (index & SEGMENT_MASK));
+	}
+
+	public double setDouble(double element, int... pos) {
+		checkBoundaries(pos);
+		long index = address(NativeType.DOUBLE, pos);
+		ByteBuffer segment = memory.segment(index);
+		double old = segment.getDouble((int) (index & SEGMENT_MASK));
+		segment.putDouble((int) (index & SEGMENT_MASK), element);
+		return old;
+	}
+
+	// view methods
+
+	@Override
+	public OffHeapPackedArray<T> slice(int dimension, int from, int to) {
+		return (OffHeapPackedArray<T>) super.slice(dimension, from, to);
+	}
+
+	@Override
+	public OffHeapPackedArray<T> swap(int dimensionA, int dimensionB) {
+		return (OffHeapPackedArray<T>) super.swap(dimensionA, dimensionB);
+	}
+
+	@Override
+	public OffHeapPackedArray<T> transpose() {
+		return (OffHeapPackedArray<T>) super.transpose();
+	}
+
+	@Override
+	public OffHeapPackedArray<T> fix(int dimension, int index) {
+		return (OffHeapPackedArray<T>) super.fix(dimension, index);
+	}
+
+	// auxiliary methods
+
+	@SuppressWarnings("unchecked")
+	private static <T> Class<T> elementType(MultiDimensionalArray<T> array) {
+		if (array instanceof OffHeapPackedArray)
+			return (Class<T>) ((OffHeapPackedArray<?>) array).type.type;
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(array.length());
+		while(addresses.hasNext()) {
+			T element = array.get(addresses.next());
+			if (element != null)
+				return (Class<T>) element.getClass();
+		}
+		
+		throw new IllegalArgumentException("Cannot infer element type");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Class<T> componentType(Object javaArray) {
+		if (javaArray == null)
+			throw new IllegalArgumentException("Cannot infer element type");
+		
+		Class<?> type = javaArray.getClass();
+		while (type.isArray())
+			type = type.getComponentType();
+		
+		return (Class<T>) type;
+	}
+
+	private long address(NativeType expected, int... pos) {
+		if (type != expected)
+			throw new UnsupportedOperationException("Elements are of type " + type.type.getName());
+		
+		return (long) computeAddress(pos) * type.width;
+	}
+
+	// shared by an array and all of its views; closing frees the native memory right away
+	// (unmapping, for mapped buffers), so it must not race with accesses from other threads,
+	// while accesses that start after close fail fast; closed is a plain field so that
+	// every access does not pay for a volatile read
+	static class Memory {
+		private static final Deallocator DEALLOCATOR = Deallocator.find();
+		
+		private final ByteBuffer[] segments;
+		private boolean closed;
+
+		Memory(ByteBuffer... segments) {
+			this.segments = segments;
+		}
+
+		static Memory allocate(long bytes) {
+			ByteBuffer[] segments = new ByteBuffer[(int) ((bytes + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+			for (int i = 0; i < segments.length; i++) {
+				int size = (int) Math.min(bytes - ((long) i << SEGMENT_SHIFT), SEGMENT_MASK + 1);
+				segments[i] = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+			}
+			
+			return new Memory(segments);
+		}
+
+		ByteBuffer segment(long index) {
+			return segments()[(int) (index >>> SEGMENT_SHIFT)];
+		}
+
+		ByteBuffer[] segments() {
+			if (closed)
+				throw new IllegalStateException("Memory already released");
+			
+			return segments;
+		}
+
+		boolean isClosed() {
+			return closed;
+		}
+
+		synchronized void close() {
+			if (closed)
+				return;
+			
+			closed = true;
+			for (ByteBuffer segment : segments)
+				DEALLOCATOR.free(segment);
+		}
+	}
+
+	// frees the native memory of a direct buffer without waiting for it to be collected:
+	// through Unsafe.invokeCleaner on Java 9 and later, through the buffer's own cleaner
+	// on Java 8; where neither is reachable, memory goes back when the buffer is collected
+	private static abstract class Deallocator {
+		abstract void free(ByteBuffer buffer);
+
+		static Deallocator find() {
+			try {
+				Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+				theUnsafe.setAccessible(true);
+				
+				final Object unsafe = theUnsafe.get(null);
+				final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				
+				return new Deallocator() {
+					@Override
+					void free(ByteBuffer buffer) {
+						invoke(invokeCleaner, unsafe, buffer);
+					}
+				};
+			} catch (Exception e) {
+				// no invokeCleaner before Java 9
+			}
+			
+			try {
+				final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+				final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+				
+				Deallocator deallocator = new Deallocator() {
+					@Override
+					void free(ByteBuffer buffer) {
+						Object bufferCleaner = invoke(cleaner, buffer);
+						if (bufferCleaner != null)
+							invoke(clean, bufferCleaner);
+					}
+				};
+				
+				// fails right here if the runtime denies access
+				deallocator.free(ByteBuffer.allocateDirect(1));
+				return deallocator;
+			} catch (Exception e) {
+				return new Deallocator() {
+					@Override
+					void free(ByteBuffer buffer) {
+					}
+				};
+			}
+		}
+
+		private static Object invoke(Method method, Object target, Object... args) {
+			try {
+				return method.invoke(target, args);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+}
@@ -20,79 +20,386 @@
  ******************************************************************************/
 package br.eti.rslemos.tools.collections;
 
+import java.util.AbstractMap;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class OrderedMultiDimensionalMap<K, V> implements MultiDimensionalMap<K, V> {
 
 	private final MultiDimensionalArray<V> array;
-	private K[][] index;
-	private int[] length;
+	private final OrdinalIndex<K>[] index;
+	private final int[] capacity;
+	// neither keys nor elements may be added or changed
+	private final boolean frozen;
+	// if not null, the keys of every dimension are numbered in this order (frozen maps only)
+	private final Comparator<? super K> comparator;
 
-	@SuppressWarnings("unchecked")
+	// grows every dimension on demand
+	public OrderedMultiDimensionalMap(int dimensions) {
+		this(new ChunkedArray<V>(new int[dimensions]));
+	}
+
+	// bounded by array.length(), unless array is a ChunkedArray, which grows on demand
 	public OrderedMultiDimensionalMap(MultiDimensionalArray<V> array) {
 		this.array = array;
-		index = (K[][]) new Object[array.dimensions()][];
-		length = new int[array.dimensions()];
+		capacity = array.length();
+		index = OrdinalIndex.newArray(array.dimensions());
 		for (int i = 0; i < index.length; i++) {
-			index[i] = (K[]) new Object[array.length()[i]];
+			index[i] = new OrdinalIndex<K>(capacity[i]);
 		}
+		frozen = false;
+		comparator = null;
+	}
+
+	OrderedMultiDimensionalMap(MultiDimensionalArray<V> array, OrdinalIndex<K>[] index, int[] capacity) {
+		this(array, index, capacity, false, null);
+	}
+
+	private OrderedMultiDimensionalMap(MultiDimensionalArray<V> array, OrdinalIndex<K>[] index, int[] capacity, boolean frozen, Comparator<? super K> comparator) {
+		this.array = array;
+		this.index = index;
+		this.capacity = capacity;
+		this.frozen = frozen;
+		this.comparator = comparator;
+	}
+
+	MultiDimensionalArray<V> array() {
+		return array;
+	}
+
+	OrdinalIndex<K> index(int dimension) {
+		return index[dimension];
 	}
 
 	private int[] computeAddress(K... key) {
-		if (key.length != index.length)
-			throw new IllegalArgumentException("Wrong number of dimensions: " + key.length);
-		
 		int[] address = new int[key.length];
-		Arrays.fill(address, -1);
 		
 		for (int i = 0; i < key.length; i++) {
-			K[] index = this.index[i];
-			if (key[i] != null) {
-				for (int j = 0; j < index.length; j++) {
-					if (key[i].equals(index[j])) {
-						address[i] = j;
-					}
-				}
-			} else {
-				for (int j = 0; j < index.length; j++) {
-					if (index[j] == null) {
-						address[i] = j;
-					}
-				}
-			}
+			address[i] = computeAddress(i, key[i]);
 		}
 		
-		for (int i = 0; i < address.length; i++) {
-			if (address[i] < 0) {
-				allocAddress(i, key[i], address);
-			}
+		return address;
+	}
+
+	private int computeAddress(int dimension, K key) {
+		int ordinal = index[dimension].indexOf(key);
+		
+		return ordinal >= 0 ? ordinal : allocAddress(dimension, key);
+	}
+
+	private int allocAddress(int dimension, K key) {
+		if (frozen)
+			throw new UnsupportedOperationException("Frozen map");
+		
+		// maps fixed out of this one register keys in the same index, and may have grown
+		// the storage already
+		int length = index[dimension].size() + 1;
+		if (length > capacity[dimension]) {
+			if (array instanceof ChunkedArray)
+				((ChunkedArray<V>) array).grow(dimension, length);
+			else if (!(array instanceof ArrayView && ((ArrayView<V>) array).grow(dimension, length)))
+				throw new ArrayIndexOutOfBoundsException(capacity[dimension]);
+			
+			capacity[dimension] = length;
 		}
 		
-		return address;
+		return index[dimension].add(key);
 	}
 
-	private void allocAddress(int dimension, K key, int[] address) {
-		address[dimension] = length[dimension]++;
-		index[dimension][address[dimension]] = key;
+	private void checkDimensions(K... key) {
+		if (key.length != index.length)
+			throw new IllegalArgumentException("Wrong number of dimensions: " + key.length);
 	}
 
+	// reads never register keys: a key unknown to any dimension means there's no element there
 	public V get(K... key) {
-		return array.get(computeAddress(key));
+		checkDimensions(key);
+		
+		switch (key.length) {
+		case 1: {
+			int i = index[0].indexOf(key[0]);
+			return i < 0 ? null : array.get(i);
+		}
+		case 2: {
+			int i = index[0].indexOf(key[0]);
+			int j = index[1].indexOf(key[1]);
+			return i < 0 || j < 0 ? null : array.get(i, j);
+		}
+		case 3: {
+			int i = index[0].indexOf(key[0]);
+			int j = index[1].indexOf(key[1]);
+			int k = index[2].indexOf(key[2]);
+			return i < 0 || j < 0 || k < 0 ? null : array.get(i, j, k);
+		}
+		default: {
+			int[] address = new int[key.length];
+			for (int d = 0; d < key.length; d++) {
+				if ((address[d] = index[d].indexOf(key[d])) < 0)
+					return null;
+			}
+			
+			return array.get(address);
+		}
+		}
 	}
 
 	public void put(V element, K... key) {
-		array.set(element, computeAddress(key));
+		checkDimensions(key);
+		
+		if (frozen)
+			throw new UnsupportedOperationException("Frozen map");
+		
+		switch (key.length) {
+		case 1:
+			array.set(element, computeAddress(0, key[0]));
+			break;
+		case 2:
+			array.set(element, computeAddress(0, key[0]), computeAddress(1, key[1]));
+			break;
+		case 3:
+			array.set(element, computeAddress(0, key[0]), computeAddress(1, key[1]), computeAddress(2, key[2]));
+			break;
+		default:
+			array.set(element, computeAddress(key));
+		}
 	}
 
 	public int length(int dimension) {
-		if (dimension < 0 || dimension >= length.length)
+		if (dimension < 0 || dimension >= index.length)
 			throw new IllegalArgumentException("Illegal dimension: " + dimension);
 		
-		return length[dimension];
+		return index[dimension].size();
 	}
 
 	public int dimensions() {
 		return array.dimensions();
 	}
 
+	// the populated cells, as (keys, value) in row-major order of ordinals; bounded by the
+	// lengths at the time of the call, so capacity never handed out is not even visited;
+	// splits along the outermost dimension when run in parallel
+	public Stream<Map.Entry<List<K>, V>> entries() {
+		int[] lengths = new int[index.length];
+		for (int d = 0; d < lengths.length; d++)
+			lengths[d] = index[d].size();
+		
+		return StreamSupport.stream(new Entries<K, V>(array, index, lengths, 0, AddressSpliterator.volume(lengths)), false);
+	}
+
+	private static final class Entries<K, V> extends AddressSpliterator<Map.Entry<List<K>, V>> {
+		private final MultiDimensionalArray<V> array;
+		private final OrdinalIndex<K>[] index;
+		
+		// value at the last accepted address
+		private V value;
+
+		Entries(MultiDimensionalArray<V> array, OrdinalIndex<K>[] index, int[] sizes, long from, long fence) {
+			super(sizes, from, fence);
+			this.array = array;
+			this.index = index;
+		}
+
+		@Override
+		protected boolean accept(int[] pos) {
+			return (value = MultiDimensionalArrays.get(array, pos)) != null;
+		}
+
+		@Override
+		protected Map.Entry<List<K>, V> element(int[] pos) {
+			@SuppressWarnings("unchecked")
+			K[] keys = (K[]) new Object[pos.length];
+			for (int d = 0; d < pos.length; d++)
+				keys[d] = index[d].key(pos[d]);
+			
+			return new AbstractMap.SimpleImmutableEntry<List<K>, V>(Collections.unmodifiableList(Arrays.asList(keys)), value);
+		}
+
+		@Override
+		protected AddressSpliterator<Map.Entry<List<K>, V>> split(long from, long fence) {
+			return new Entries<K, V>(array, index, sizes, from, fence);
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL | DISTINCT;
+		}
+	}
+
+	// view methods
+
+	// the cells at key along dimension, as a live map of one dimension less that shares
+	// storage and keys with this one; like get, never registers key, so key must be
+	// known already. Over a growing map, both maps keep growing the same storage
+	public OrderedMultiDimensionalMap<K, V> fix(int dimension, K key) {
+		if (dimension < 0 || dimension >= index.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		int ordinal = index[dimension].indexOf(key);
+		if (ordinal < 0)
+			throw new NoSuchElementException("Unknown key: " + key);
+		MultiDimensionalArray<V> view = array instanceof PackedArray 
+				? ((PackedArray<V>) array).fix(dimension, ordinal) 
+				: ArrayView.of(array).fix(dimension, ordinal);
+		
+		OrdinalIndex<K>[] newIndex = OrdinalIndex.newArray(index.length - 1);
+		System.arraycopy(index, 0, newIndex, 0, dimension);
+		System.arraycopy(index, dimension + 1, newIndex, dimension, newIndex.length - dimension);
+		
+		int[] newCapacity = new int[capacity.length - 1];
+		System.arraycopy(capacity, 0, newCapacity, 0, dimension);
+		System.arraycopy(capacity, dimension + 1, newCapacity, dimension, newCapacity.length - dimension);
+		
+		return new OrderedMultiDimensionalMap<K, V>(view, newIndex, newCapacity, frozen, comparator);
+	}
+
+	// the cells whose keys along dimension lie in [from, to), as a slice of the storage
+	// of this map; only for maps compacted with a comparator, whose keys are numbered in order
+	public OrderedMultiDimensionalMap<K, V> range(int dimension, K from, K to) {
+		if (dimension < 0 || dimension >= index.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		if (comparator == null)
+			throw new UnsupportedOperationException("Keys not sorted");
+		
+		if (comparator.compare(from, to) > 0)
+			throw new IllegalArgumentException("Illegal range: " + from + " > " + to);
+		
+		int lower = lowerBound(index[dimension], from);
+		int upper = lowerBound(index[dimension], to);
+		
+		MultiDimensionalArray<V> view = array.slice(dimension, lower, upper);
+		
+		OrdinalIndex<K>[] newIndex = index.clone();
+		newIndex[dimension] = index[dimension].range(lower, upper);
+		
+		int[] newCapacity = capacity.clone();
+		newCapacity[dimension] = upper - lower;
+		
+		return new OrderedMultiDimensionalMap<K, V>(view, newIndex, newCapacity, true, comparator);
+	}
+
+	// ordinal of the first key not less than key
+	private int lowerBound(OrdinalIndex<K> index, K key) {
+		int low = 0;
+		int high = index.size();
+		
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (comparator.compare(index.key(mid), key) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		
+		return low;
+	}
+
+	// a frozen copy of this map, over a PackedArray sized exactly to the lengths of each
+	// dimension (of the same storage kind, if this map is over a primitive PackedArray);
+	// rows are moved in bulk whenever both storages allow it
+	public OrderedMultiDimensionalMap<K, V> compact() {
+		int[] lengths = new int[index.length];
+		OrdinalIndex<K>[] newIndex = OrdinalIndex.newArray(index.length);
+		for (int d = 0; d < index.length; d++) {
+			newIndex[d] = index[d].trim();
+			lengths[d] = newIndex[d].size();
+		}
+		
+		PackedArray<V> compacted = allocate(lengths);
+		MultiDimensionalArrays.parallelCopy(array, new int[lengths.length], compacted, new int[lengths.length], lengths);
+		
+		return new OrderedMultiDimensionalMap<K, V>(compacted, newIndex, lengths, true, null);
+	}
+
+	// as compact(), but renumbering the keys of every dimension in the given order, so that
+	// the resulting map answers range queries; dimensions whose keys were already in order,
+	// if innermost, still have their rows moved in bulk
+	public OrderedMultiDimensionalMap<K, V> compact(Comparator<? super K> comparator) {
+		if (comparator == null)
+			throw new NullPointerException("comparator");
+		
+		int n = index.length;
+		int[] lengths = new int[n];
+		OrdinalIndex<K>[] newIndex = OrdinalIndex.newArray(n);
+		// old ordinal of each new ordinal
+		int[][] order = new int[n][];
+		
+		for (int d = 0; d < n; d++) {
+			OrdinalIndex<K> keys = index[d];
+			lengths[d] = keys.size();
+			
+			Integer[] sorted = new Integer[lengths[d]];
+			for (int ordinal = 0; ordinal < sorted.length; ordinal++)
+				sorted[ordinal] = ordinal;
+			
+			// stable, so that keys comparing equal keep their relative order
+			Arrays.sort(sorted, (a, b) -> comparator.compare(keys.key(a), keys.key(b)));
+			
+			order[d] = new int[lengths[d]];
+			newIndex[d] = new OrdinalIndex<K>(lengths[d]);
+			for (int ordinal = 0; ordinal < sorted.length; ordinal++) {
+				order[d][ordinal] = sorted[ordinal];
+				newIndex[d].add(keys.key(sorted[ordinal]));
+			}
+		}
+		
+		PackedArray<V> compacted = allocate(lengths);
+		
+		// innermost dimensions already in order are moved as whole blocks
+		int s = n;
+		while (s > 0 && isIdentity(order[s - 1]))
+			s--;
+		
+		if (s == 0) {
+			MultiDimensionalArrays.parallelCopy(array, new int[n], compacted, new int[n], lengths);
+		} else if (s < n) {
+			int[] blockLengths = lengths.clone();
+			Arrays.fill(blockLengths, 0, s, 1);
+			
+			Iterator<int[]> blocks = MultiDimensionalArrays.allAddresses(Arrays.copyOf(lengths, s));
+			while (blocks.hasNext()) {
+				int[] dstFrom = Arrays.copyOf(blocks.next(), n);
+				int[] srcFrom = new int[n];
+				for (int d = 0; d < s; d++)
+					srcFrom[d] = order[d][dstFrom[d]];
+				
+				MultiDimensionalArrays.copy(array, srcFrom, compacted, dstFrom, blockLengths);
+			}
+		} else {
+			int[] srcPos = new int[n];
+			Iterator<int[]> cells = MultiDimensionalArrays.allAddresses(lengths);
+			while (cells.hasNext()) {
+				int[] dstPos = cells.next();
+				for (int d = 0; d < n; d++)
+					srcPos[d] = order[d][dstPos[d]];
+				
+				MultiDimensionalArrays.set(compacted, MultiDimensionalArrays.get(array, srcPos), dstPos);
+			}
+		}
+		
+		return new OrderedMultiDimensionalMap<K, V>(compacted, newIndex, lengths, true, comparator);
+	}
+
+	private PackedArray<V> allocate(int[] lengths) {
+		return array instanceof PackedArray 
+				? ((PackedArray<V>) array).allocate(lengths.clone()) 
+				: new PackedArray<V>(lengths.clone());
+	}
+
+	private static boolean isIdentity(int[] order) {
+		for (int i = 0; i < order.length; i++) {
+			if (order[i] != i)
+				return false;
+		}
+		
+		return true;
+	}
+
 }
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Arrays;
+
+// numbers distinct keys (null included) 0, 1, 2... in insertion order;
+// open addressing (linear probing) from key to ordinal, null kept aside
+class OrdinalIndex<K> {
+	private static final int MINIMUM_CAPACITY = 16;
+	
+	// ordinal + 1 of the key living in each slot; 0 marks free slots
+	private int[] table;
+	private K[] keys;
+	private int size;
+	private int nullOrdinal = -1;
+
+	OrdinalIndex() {
+		this(MINIMUM_CAPACITY);
+	}
+
+	@SuppressWarnings("unchecked")
+	OrdinalIndex(int expectedSize) {
+		int capacity = MINIMUM_CAPACITY;
+		while (capacity * 3 < expectedSize * 4)
+			capacity <<= 1;
+		
+		table = new int[capacity];
+		keys = (K[]) new Object[Math.max(expectedSize, 1)];
+	}
+
+	int size() {
+		return size;
+	}
+
+	K key(int ordinal) {
+		if (ordinal < 0 || ordinal >= size)
+			throw new ArrayIndexOutOfBoundsException(ordinal);
+		
+		return keys[ordinal];
+	}
+
+	// a copy numbering the same keys alike, sized for no more than them
+	OrdinalIndex<K> trim() {
+		int size = size();
+		OrdinalIndex<K> trimmed = new OrdinalIndex<K>(size);
+		for (int ordinal = 0; ordinal < size; ordinal++)
+			trimmed.add(key(ordinal));
+		
+		return trimmed;
+	}
+
+	// the keys numbered [from, to), renumbered from 0 and sharing this index; read-only
+	OrdinalIndex<K> range(int from, int to) {
+		if (from < 0 || from > to || to > size())
+			throw new ArrayIndexOutOfBoundsException(from < 0 || from > to ? from : to);
+		
+		return new Range<K>(this, from, to);
+	}
+
+	// -1 if absent
+	int indexOf(Object key) {
+		if (key == null)
+			return nullOrdinal;
+		
+		int[] table = this.table;
+		int mask = table.length - 1;
+		for (int i = hash(key) & mask; table[i] != 0; i = (i + 1) & mask) {
+			int ordinal = table[i] - 1;
+			if (key.equals(keys[ordinal]))
+				return ordinal;
+		}
+		
+		return -1;
+	}
+
+	// the ordinal of key, numbering it first if absent
+	int add(K key) {
+		if (key == null) {
+			if (nullOrdinal < 0)
+				nullOrdinal = append(null);
+			
+			return nullOrdinal;
+		}
+		
+		int mask = table.length - 1;
+		int i;
+		for (i = hash(key) & mask; table[i] != 0; i = (i + 1) & mask) {
+			int ordinal = table[i] - 1;
+			if (key.equals(keys[ordinal]))
+				return ordinal;
+		}
+		
+		int ordinal = append(key);
+		table[i] = ordinal + 1;
+		
+		if (size * 4 > table.length * 3)
+			rehash(table.length << 1);
+		
+		return ordinal;
+	}
+
+	private int append(K key) {
+		if (size == keys.length)
+			keys = Arrays.copyOf(keys, size << 1);
+		
+		keys[size] = key;
+		return size++;
+	}
+
+	private void rehash(int capacity) {
+		table = new int[capacity];
+		
+		int mask = capacity - 1;
+		for (int ordinal = 0; ordinal < size; ordinal++) {
+			if (ordinal != nullOrdinal) {
+				int i = hash(keys[ordinal]) & mask;
+				while (table[i] != 0)
+					i = (i + 1) & mask;
+				
+				table[i] = ordinal + 1;
+			}
+		}
+	}
+
+	private static final class Range<K> extends OrdinalIndex<K> {
+		private final OrdinalIndex<K> parent;
+		private final int from;
+		private final int to;
+
+		Range(OrdinalIndex<K> parent, int from, int to) {
+			super(0);
+			this.parent = parent;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		int size() {
+			return to - from;
+		}
+
+		@Override
+		K key(int ordinal) {
+			if (ordinal < 0 || ordinal >= to - from)
+				throw new ArrayIndexOutOfBoundsException(ordinal);
+			
+			return parent.key(from + ordinal);
+		}
+
+		@Override
+		int indexOf(Object key) {
+			int ordinal = parent.indexOf(key);
+			return ordinal >= from && ordinal < to ? ordinal - from : -1;
+		}
+
+		@Override
+		int add(K key) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	static int hash(Object key) {
+		// multiplicative (Fibonacci) hashing, folded onto the low bits
+		int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	// one index per dimension
+	@SuppressWarnings("unchecked")
+	static <K> OrdinalIndex<K>[] newArray(int length) {
+		return (OrdinalIndex<K>[]) new OrdinalIndex<?>[length];
+	}
+}
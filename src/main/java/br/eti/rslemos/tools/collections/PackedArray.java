@@ -20,27 +20,27 @@
  ******************************************************************************/
 package br.eti.rslemos.tools.collections;
 
-import java.util.Arrays;
 import java.util.Iterator;
 
 public class PackedArray<T> extends SimplePackedArray<T> {
 	private final int[] strides;
-	private final int[] offsets;
+	// storage address of the first cell
+	private final int base;
 
 	public PackedArray(int... sizes) {
-		this(sizes, computeStrides(sizes), computeOffsets(sizes));
+		this(sizes, computeStrides(sizes), 0);
 	}
 
 	public PackedArray(MultiDimensionalArray<T> init) {
 		super(init, false);
 		
-		if (init instanceof PackedArray) {
+		if (init instanceof PackedArray && ((PackedArray<T>) init).data != null) {
 			PackedArray<T> packed = (PackedArray<T>) init;
 			this.strides = packed.strides;
-			this.offsets = packed.offsets;
+			this.base = packed.base;
 		} else {
 			this.strides = computeStrides(sizes);
-			this.offsets = computeOffsets(sizes);
+			this.base = 0;
 			
 			Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
 			while(addresses.hasNext()) {
@@ -54,7 +54,7 @@ public class PackedArray<T> extends SimplePackedArray<T> {
 		this(new JavaArrayMultiDimensionalArray<T>(init, sizes));
 	}
 	
-	private static int[] computeStrides(int[] sizes) {
+	protected static int[] computeStrides(int[] sizes) {
 		int[] strides = sizes.clone();
 		
 		if (strides.length > 0) {
@@ -69,34 +69,100 @@ public class PackedArray<T> extends SimplePackedArray<T> {
 		return strides;
 	}
 
-	private static int[] computeOffsets(int[] sizes) {
-		int[] offsets = sizes.clone();
-		Arrays.fill(offsets, 0);
-		return offsets;
-	}
-
-	protected PackedArray(int[] sizes, int[] strides, int[] offsets) {
+	protected PackedArray(int[] sizes, int[] strides, int base) {
 		super(sizes);
 		this.strides = strides;
-		this.offsets = offsets;
+		this.base = base;
 	}
 	
-	private PackedArray(T[] data, int[] sizes, int[] strides, int[] offsets) {
+	protected PackedArray(T[] data, int[] sizes, int[] strides, int base) {
 		super(data, sizes);
 		this.strides = strides;
-		this.offsets = offsets;
+		this.base = base;
+	}
+
+	// subclasses with their own storage override this, so that
+	// slice, swap and transpose keep returning views of their own kind
+	protected PackedArray<T> view(int[] sizes, int[] strides, int base) {
+		return new PackedArray<T>(this.data, sizes, strides, base);
+	}
+
+	// a new, empty array of the given sizes, with storage of the same kind as this one
+	// if that's plain heap storage, so that copies between them can move rows in bulk
+	protected PackedArray<T> allocate(int[] sizes) {
+		return new PackedArray<T>(sizes);
+	}
+
+	@Override
+	protected int stride(int dimension) {
+		return strides[dimension];
 	}
 
 	@Override
 	protected int computeAddress(int... pos) {
-		int address = 0;
+		int address = base;
 		for (int i = 0; i < pos.length; i++) {
-			address += (pos[i] + offsets[i]) * strides[i];
+			address += pos[i] * strides[i];
 		}
 		
 		return address;
 	}
 
+	@Override
+	protected int computeAddress(int i) {
+		return base + i * strides[0];
+	}
+
+	@Override
+	protected int computeAddress(int i, int j) {
+		return base + i * strides[0] + j * strides[1];
+	}
+
+	@Override
+	protected int computeAddress(int i, int j, int k) {
+		return base + i * strides[0] + j * strides[1] + k * strides[2];
+	}
+
+	// traversal methods
+
+	@Override
+	public Cursor<T> cursor() {
+		return new PackedCursor();
+	}
+
+	// steps the storage address by strides instead of recomputing it
+	private class PackedCursor extends Cursor<T> {
+		private int address;
+
+		PackedCursor() {
+			super(PackedArray.this.sizes);
+			address = base;
+		}
+
+		@Override
+		protected void moved(int dimension, int delta) {
+			address += delta * strides[dimension];
+		}
+
+		@Override
+		public int linearOffset() {
+			checkPosition();
+			return address;
+		}
+
+		@Override
+		public T get() {
+			checkPosition();
+			return load(address);
+		}
+
+		@Override
+		public T set(T element) {
+			checkPosition();
+			return store(address, element);
+		}
+	}
+
 	@Override
 	public PackedArray<T> slice(int dimension, int from, int to) {
 		if (dimension < 0 || dimension >= sizes.length)
@@ -114,16 +180,13 @@ public class PackedArray<T> extends SimplePackedArray<T> {
 		int[] newSizes = sizes.clone();
 		newSizes[dimension] = to - from;
 		
-		int[] newOffsets = offsets.clone();
-		newOffsets[dimension] += from;
-		
-		return new PackedArray<T>(this.data, newSizes, strides, newOffsets);
+		return view(newSizes, strides, base + from * strides[dimension]);
 	}
 
 	@Override
 	public PackedArray<T> swap(int dimensionA, int dimensionB) {
 		if (dimensionA < 0 || dimensionA >= sizes.length)
-			throw new IllegalArgumentException("Illegal dimension: " + dimensionB);
+			throw new IllegalArgumentException("Illegal dimension: " + dimensionA);
 
 		if (dimensionB < 0 || dimensionB >= sizes.length)
 			throw new IllegalArgumentException("Illegal dimension: " + dimensionB);
@@ -136,18 +199,31 @@ public class PackedArray<T> extends SimplePackedArray<T> {
 		newStrides[dimensionA] = strides[dimensionB];
 		newStrides[dimensionB] = strides[dimensionA];
 		
-		int[] newOffsets = offsets.clone();
-		newOffsets[dimensionA] = newOffsets[dimensionB];
-		newOffsets[dimensionB] = newOffsets[dimensionA];
-		
-		return new PackedArray<T>(this.data, newSizes, newStrides, newOffsets);
+		return view(newSizes, newStrides, base);
 	}
 
 	public PackedArray<T> transpose() {
-		return new PackedArray<T>(this.data, 
-				reverse(sizes.clone()), 
+		return view(reverse(sizes.clone()), 
 				reverse(strides.clone()), 
-				reverse(offsets.clone()));
+				base);
+	}
+
+	// the cells at index along dimension, as an array of one dimension less
+	public PackedArray<T> fix(int dimension, int index) {
+		if (dimension < 0 || dimension >= sizes.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		if (index < 0 || index >= sizes[dimension])
+			throw new ArrayIndexOutOfBoundsException(index);
+		
+		return view(remove(sizes, dimension), remove(strides, dimension), base + index * strides[dimension]);
+	}
+
+	private static int[] remove(int[] is, int i) {
+		int[] result = new int[is.length - 1];
+		System.arraycopy(is, 0, result, 0, i);
+		System.arraycopy(is, i + 1, result, i, result.length - i);
+		return result;
 	}
 
 	private static int[] reverse(int[] is) {
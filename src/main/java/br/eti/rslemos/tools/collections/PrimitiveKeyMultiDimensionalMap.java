@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+// common ground of the maps keyed by primitive coordinates; unboxed keys are widened to long
+abstract class PrimitiveKeyMultiDimensionalMap<V> {
+
+	private final MultiDimensionalArray<V> array;
+	private final LongOrdinalIndex[] index;
+	private final int[] capacity;
+
+	// bounded by array.length(), unless array grows on demand (a ChunkedArray, or a view of one)
+	PrimitiveKeyMultiDimensionalMap(MultiDimensionalArray<V> array) {
+		this.array = array;
+		capacity = array.length();
+		index = new LongOrdinalIndex[array.dimensions()];
+		for (int i = 0; i < index.length; i++) {
+			index[i] = new LongOrdinalIndex(capacity[i]);
+		}
+	}
+
+	// makes room for one more key along dimension; puts reserve every dimension whose key
+	// is new before registering any of them, so a put that doesn't fit leaves no key behind
+	private void reserve(int dimension) {
+		int length = index[dimension].size() + 1;
+		if (length > capacity[dimension]) {
+			if (array instanceof ChunkedArray)
+				((ChunkedArray<V>) array).grow(dimension, length);
+			else if (!(array instanceof ArrayView && ((ArrayView<V>) array).grow(dimension, length)))
+				throw new ArrayIndexOutOfBoundsException(capacity[dimension]);
+			
+			capacity[dimension] = length;
+		}
+	}
+
+	// ordinal as found by indexOf, or the one key gets once registered
+	private int register(int dimension, int ordinal, long key) {
+		return ordinal >= 0 ? ordinal : index[dimension].add(key);
+	}
+
+	final void checkDimensions(int dimensions) {
+		if (dimensions != index.length)
+			throw new IllegalArgumentException("Wrong number of dimensions: " + dimensions);
+	}
+
+	// reads never register keys: a key unknown to any dimension means there's no element there
+
+	final V get0(long i) {
+		checkDimensions(1);
+		
+		int a = index[0].indexOf(i);
+		return a < 0 ? null : array.get(a);
+	}
+
+	final V get0(long i, long j) {
+		checkDimensions(2);
+		
+		int a = index[0].indexOf(i);
+		int b = index[1].indexOf(j);
+		return a < 0 || b < 0 ? null : array.get(a, b);
+	}
+
+	final V get0(long i, long j, long k) {
+		checkDimensions(3);
+		
+		int a = index[0].indexOf(i);
+		int b = index[1].indexOf(j);
+		int c = index[2].indexOf(k);
+		return a < 0 || b < 0 || c < 0 ? null : array.get(a, b, c);
+	}
+
+	final V get0(long[] key) {
+		checkDimensions(key.length);
+		
+		int[] address = new int[key.length];
+		for (int i = 0; i < key.length; i++) {
+			if ((address[i] = index[i].indexOf(key[i])) < 0)
+				return null;
+		}
+		
+		return array.get(address);
+	}
+
+	final void put0(V element, long i) {
+		checkDimensions(1);
+		
+		int a = index[0].indexOf(i);
+		if (a < 0)
+			reserve(0);
+		
+		array.set(element, register(0, a, i));
+	}
+
+	final void put0(V element, long i, long j) {
+		checkDimensions(2);
+		
+		int a = index[0].indexOf(i);
+		int b = index[1].indexOf(j);
+		if (a < 0)
+			reserve(0);
+		if (b < 0)
+			reserve(1);
+		
+		array.set(element, register(0, a, i), register(1, b, j));
+	}
+
+	final void put0(V element, long i, long j, long k) {
+		checkDimensions(3);
+		
+		int a = index[0].indexOf(i);
+		int b = index[1].indexOf(j);
+		int c = index[2].indexOf(k);
+		if (a < 0)
+			reserve(0);
+		if (b < 0)
+			reserve(1);
+		if (c < 0)
+			reserve(2);
+		
+		array.set(element, register(0, a, i), register(1, b, j), register(2, c, k));
+	}
+
+	final void put0(V element, long[] key) {
+		checkDimensions(key.length);
+		
+		int[] address = new int[key.length];
+		for (int i = 0; i < key.length; i++) {
+			if ((address[i] = index[i].indexOf(key[i])) < 0)
+				reserve(i);
+		}
+		
+		for (int i = 0; i < key.length; i++) {
+			address[i] = register(i, address[i], key[i]);
+		}
+		
+		array.set(element, address);
+	}
+
+	public int length(int dimension) {
+		if (dimension < 0 || dimension >= index.length)
+			throw new IllegalArgumentException("Illegal dimension: " + dimension);
+		
+		return index[dimension].size();
+	}
+
+	public int dimensions() {
+		return array.dimensions();
+	}
+
+}
@@ -43,7 +43,7 @@ public class SimplePackedArray<T> extends AbstractMultiDimensionalArray<T> {
 	protected SimplePackedArray(MultiDimensionalArray<T> init, boolean computeAddress) {
 		super(init instanceof SimplePackedArray ? ((SimplePackedArray<T>) init).sizes : init.length());
 		
-		if (init instanceof SimplePackedArray) {
+		if (init instanceof SimplePackedArray && ((SimplePackedArray<T>) init).data != null) {
 			SimplePackedArray<T> packed = (SimplePackedArray<T>) init;
 			this.data = packed.data.clone();
 		} else {
@@ -80,13 +80,58 @@ public class SimplePackedArray<T> extends AbstractMultiDimensionalArray<T> {
 
 	public T get(int... pos) {
 		checkBoundaries(pos);
-		return data[computeAddress(pos)];
+		return load(computeAddress(pos));
 	}
 
 	public T set(T element, int... pos) {
 		checkBoundaries(pos);
-		T old = data[computeAddress(pos)];
-		data[computeAddress(pos)] = element;
+		return store(computeAddress(pos), element);
+	}
+
+	@Override
+	public T get(int i) {
+		checkBoundaries(i);
+		return load(computeAddress(i));
+	}
+
+	@Override
+	public T get(int i, int j) {
+		checkBoundaries(i, j);
+		return load(computeAddress(i, j));
+	}
+
+	@Override
+	public T get(int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return load(computeAddress(i, j, k));
+	}
+
+	@Override
+	public T set(T element, int i) {
+		checkBoundaries(i);
+		return store(computeAddress(i), element);
+	}
+
+	@Override
+	public T set(T element, int i, int j) {
+		checkBoundaries(i, j);
+		return store(computeAddress(i, j), element);
+	}
+
+	@Override
+	public T set(T element, int i, int j, int k) {
+		checkBoundaries(i, j, k);
+		return store(computeAddress(i, j, k), element);
+	}
+
+	// subclasses with their own storage override these two
+	protected T load(int address) {
+		return data[address];
+	}
+
+	protected T store(int address, T element) {
+		T old = data[address];
+		data[address] = element;
 		return old;
 	}
 
@@ -104,6 +149,108 @@ public class SimplePackedArray<T> extends AbstractMultiDimensionalArray<T> {
 		throw new UnsupportedOperationException();
 	}
 
+	// bulk methods
+
+	// copies contiguous runs along the innermost dimension with System.arraycopy;
+	// answers false (having copied nothing) whenever the layouts don't allow it
+	boolean bulkCopy(int[] srcFrom, SimplePackedArray<T> dst, int[] dstFrom, int[] lengths) {
+		Object srcStorage = this.storage();
+		Object dstStorage = dst.storage();
+		
+		if (srcStorage == null || dstStorage == null || srcStorage.getClass() != dstStorage.getClass())
+			return false;
+		
+		// views over the same storage may overlap in ways only src == dst accounts for
+		if (srcStorage == dstStorage && this != dst)
+			return false;
+		
+		int n = lengths.length;
+		if (n == 0)
+			return true;
+		
+		for (int i = 0; i < n; i++) {
+			if (lengths[i] < 0 
+					|| srcFrom[i] < 0 || srcFrom[i] + lengths[i] > this.sizes[i] 
+					|| dstFrom[i] < 0 || dstFrom[i] + lengths[i] > dst.sizes[i])
+				return false;
+			
+			if (lengths[i] == 0)
+				return true;
+		}
+		
+		if (this.stride(n - 1) != 1 || dst.stride(n - 1) != 1)
+			return false;
+		
+		int srcAddress = this.computeAddress(srcFrom);
+		int dstAddress = dst.computeAddress(dstFrom);
+		
+		// copying onto itself: walk runs from the highest address down when moving forward,
+		// which is only safe if runs are laid out in row-major order
+		boolean backward = this == dst && dstAddress > srcAddress;
+		if (this == dst) {
+			for (int i = 1; i < n; i++) {
+				if (stride(i - 1) < stride(i))
+					return false;
+			}
+		}
+		
+		int[] counter = new int[n - 1];
+		if (backward) {
+			for (int i = 0; i < n - 1; i++) {
+				counter[i] = lengths[i] - 1;
+				srcAddress += counter[i] * this.stride(i);
+				dstAddress += counter[i] * dst.stride(i);
+			}
+		}
+		
+		int run = lengths[n - 1];
+		while (true) {
+			System.arraycopy(srcStorage, srcAddress, dstStorage, dstAddress, run);
+			
+			int d;
+			for (d = n - 2; d >= 0; d--) {
+				if (!backward) {
+					if (++counter[d] < lengths[d]) {
+						srcAddress += this.stride(d);
+						dstAddress += dst.stride(d);
+						break;
+					}
+					
+					counter[d] = 0;
+					srcAddress -= (lengths[d] - 1) * this.stride(d);
+					dstAddress -= (lengths[d] - 1) * dst.stride(d);
+				} else {
+					if (--counter[d] >= 0) {
+						srcAddress -= this.stride(d);
+						dstAddress -= dst.stride(d);
+						break;
+					}
+					
+					counter[d] = lengths[d] - 1;
+					srcAddress += (lengths[d] - 1) * this.stride(d);
+					dstAddress += (lengths[d] - 1) * dst.stride(d);
+				}
+			}
+			
+			if (d < 0)
+				return true;
+		}
+	}
+
+	// the java array holding the cells, if any; subclasses with their own storage override it
+	Object storage() {
+		return data;
+	}
+
+	// distance, in storage, between neighbors along dimension
+	protected int stride(int dimension) {
+		int stride = 1;
+		for (int i = sizes.length - 1; i > dimension; i--)
+			stride *= sizes[i];
+		
+		return stride;
+	}
+
 	// auxiliary methods
 
 	protected int computeAddress(int... pos) {
@@ -117,4 +264,16 @@ public class SimplePackedArray<T> extends AbstractMultiDimensionalArray<T> {
 		
 		return address;
 	}
+
+	protected int computeAddress(int i) {
+		return i;
+	}
+
+	protected int computeAddress(int i, int j) {
+		return i * sizes[1] + j;
+	}
+
+	protected int computeAddress(int i, int j, int k) {
+		return (i * sizes[1] + j) * sizes[2] + k;
+	}
 }
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import java.util.Iterator;
+
+public class SparsePackedArray<T> extends PackedArray<T> {
+	// only non-null cells are kept, keyed by their linear address
+	final LongHashMap<T> cells;
+
+	public SparsePackedArray(int... sizes) {
+		this(new LongHashMap<T>(), sizes, computeStrides(sizes), 0);
+	}
+
+	public SparsePackedArray(MultiDimensionalArray<T> init) {
+		this(init.length());
+		
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(sizes);
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			T element = init.get(address);
+			if (element != null)
+				cells.put(computeAddress(address), element);
+		}
+	}
+
+	public SparsePackedArray(Object init, int... sizes) {
+		this(new JavaArrayMultiDimensionalArray<T>(init, sizes));
+	}
+
+	protected SparsePackedArray(LongHashMap<T> cells, int[] sizes, int[] strides, int base) {
+		super(null, sizes, strides, base);
+		this.cells = cells;
+	}
+
+	@Override
+	protected SparsePackedArray<T> view(int[] sizes, int[] strides, int base) {
+		return new SparsePackedArray<T>(cells, sizes, strides, base);
+	}
+
+	// storage methods
+
+	@Override
+	protected T load(int address) {
+		return cells.get(address);
+	}
+
+	@Override
+	protected T store(int address, T element) {
+		return cells.put(address, element);
+	}
+
+	// view methods
+
+	@Override
+	public SparsePackedArray<T> slice(int dimension, int from, int to) {
+		return (SparsePackedArray<T>) super.slice(dimension, from, to);
+	}
+
+	@Override
+	public SparsePackedArray<T> swap(int dimensionA, int dimensionB) {
+		return (SparsePackedArray<T>) super.swap(dimensionA, dimensionB);
+	}
+
+	@Override
+	public SparsePackedArray<T> transpose() {
+		return (SparsePackedArray<T>) super.transpose();
+	}
+
+	@Override
+	public SparsePackedArray<T> fix(int dimension, int index) {
+		return (SparsePackedArray<T>) super.fix(dimension, index);
+	}
+}
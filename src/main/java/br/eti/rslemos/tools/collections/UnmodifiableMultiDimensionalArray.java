@@ -40,6 +40,28 @@ public class UnmodifiableMultiDimensionalArray<T> extends ForwardingMultiDimensi
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public T set(T element, int i) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public T set(T element, int i, int j) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public T set(T element, int i, int j, int k) {
+		throw new UnsupportedOperationException();
+	}
+
+	// traversal methods
+
+	@Override
+	public Cursor<T> cursor() {
+		return Cursor.over(this);
+	}
+
 	// view methods
 
 	@Override
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+import org.junit.Test;
+
+public class AddressSpliteratorUnitTest {
+
+	@Test
+	public void testSplitsOnOutermostDimension() {
+		Spliterator<int[]> suffix = AddressSpliterator.addresses(5, 3);
+		Spliterator<int[]> prefix = suffix.trySplit();
+		
+		assertThat(prefix.estimateSize(), is(equalTo(6L)));
+		assertThat(suffix.estimateSize(), is(equalTo(9L)));
+		
+		assertThat(first(prefix), is(equalTo(new int[] {0, 0})));
+		assertThat(first(suffix), is(equalTo(new int[] {2, 0})));
+	}
+
+	@Test
+	public void testSplitsWithinSingleRow() {
+		Spliterator<int[]> suffix = AddressSpliterator.addresses(1, 5);
+		Spliterator<int[]> prefix = suffix.trySplit();
+		
+		assertThat(prefix.estimateSize(), is(equalTo(2L)));
+		assertThat(suffix.estimateSize(), is(equalTo(3L)));
+		
+		assertThat(first(suffix), is(equalTo(new int[] {0, 2})));
+	}
+
+	@Test
+	public void testSplitsDownToSingleElements() {
+		List<Spliterator<int[]>> parts = new ArrayList<Spliterator<int[]>>();
+		split(AddressSpliterator.addresses(3, 2, 2), parts);
+		
+		assertThat(parts.size(), is(equalTo(12)));
+		
+		for (int i = 0; i < parts.size(); i++) {
+			assertThat(parts.get(i).estimateSize(), is(equalTo(1L)));
+			assertThat(first(parts.get(i)), is(equalTo(new int[] {i / 4, (i / 2) % 2, i % 2})));
+		}
+	}
+
+	@Test
+	public void testSplitAfterPartialTraversal() {
+		Spliterator<int[]> suffix = AddressSpliterator.addresses(4, 2);
+		first(suffix);
+		first(suffix);
+		first(suffix);
+		
+		Spliterator<int[]> prefix = suffix.trySplit();
+		
+		assertThat(prefix.estimateSize(), is(equalTo(1L)));
+		assertThat(first(prefix), is(equalTo(new int[] {1, 1})));
+		assertThat(suffix.estimateSize(), is(equalTo(4L)));
+		assertThat(first(suffix), is(equalTo(new int[] {2, 0})));
+	}
+
+	@Test
+	public void testEmpty() {
+		Spliterator<int[]> spliterator = AddressSpliterator.addresses(3, 0);
+		
+		assertThat(spliterator.estimateSize(), is(equalTo(0L)));
+		assertThat(spliterator.trySplit(), is(nullValue()));
+		assertThat(spliterator.tryAdvance(e -> {}), is(equalTo(false)));
+	}
+
+	@Test
+	public void testCharacteristics() {
+		Spliterator<int[]> spliterator = AddressSpliterator.addresses(3, 2);
+		
+		assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED), is(equalTo(true)));
+	}
+
+	private static <T> T first(Spliterator<T> spliterator) {
+		List<T> result = new ArrayList<T>();
+		spliterator.tryAdvance(result::add);
+		return result.get(0);
+	}
+
+	private static <T> void split(Spliterator<T> spliterator, List<Spliterator<T>> parts) {
+		Spliterator<T> prefix = spliterator.trySplit();
+		if (prefix == null) {
+			parts.add(spliterator);
+		} else {
+			split(prefix, parts);
+			split(spliterator, parts);
+		}
+	}
+}
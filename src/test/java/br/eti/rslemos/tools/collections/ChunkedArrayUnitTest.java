@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public abstract class ChunkedArrayUnitTest extends MultiDimensionalArrayAbstractUnitTest<String> {
+	
+	public static class OneDimension extends ChunkedArrayUnitTest {
+		ChunkedArray<String> array;
+		int[] sizes;
+		String[] model;
+
+		{
+			sizes = new int[] {6};
+			
+			array = new ChunkedArray<String>(sizes);
+			array.set("[0]", 0);
+			array.set("[4]", 4);
+			
+			model = new String[] {"[0]", null, null, null, "[4]", null};
+		}
+
+		@Override
+		protected ChunkedArray<String> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected String[] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<String> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<String> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<String> {}
+	}
+	
+	public static class TwoDimensions extends ChunkedArrayUnitTest {
+		ChunkedArray<String> array;
+		int[] sizes;
+		String[][] model;
+
+		{
+			sizes = new int[] {3, 4};
+			
+			array = new ChunkedArray<String>(sizes);
+			array.set("[0, 0]", 0, 0);
+			array.set("[1, 2]", 1, 2);
+			array.set("[2, 3]", 2, 3);
+			
+			model = new String[][] {
+					{ "[0, 0]", null, null, null },
+					{ null, null, "[1, 2]", null },
+					{ null, null, null, "[2, 3]" },
+				};
+		}
+
+		@Override
+		protected ChunkedArray<String> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected String[][] createModel() {
+			return model;
+		}
+
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<String> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<String> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<String> {}
+	}
+
+	public static class ThreeDimensions extends ChunkedArrayUnitTest {
+		ChunkedArray<String> array;
+		int[] sizes;
+		String[][][] model;
+		
+		{
+			sizes = new int[] {4, 2, 3};
+			
+			array = new ChunkedArray<String>(sizes);
+			model = new String[4][2][3];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					for(int k = 0; k < sizes[2]; k++) {
+						if ((i + j + k) % 3 == 0) {
+							String data = "[" + i + ", " + j + ", " + k + "]"; 
+							
+							model[i][j][k] = data;
+							array.set(data, i, j, k);
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		protected ChunkedArray<String> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected String[][][] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<String> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<String> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<String> {}
+	}
+
+	protected String createSample() {
+		return "sam" + "ple";
+	}
+	
+	@Test
+	public void testGrowKeepsCells() {
+		ChunkedArray<String> array = new ChunkedArray<String>(new int[] {3, 0});
+		
+		array.grow(1, 2);
+		array.set("[0, 0]", 0, 0);
+		array.set("[2, 1]", 2, 1);
+		
+		for (int length = 3; length < 1000; length++) {
+			array.grow(1, length);
+			array.set("[1, " + (length - 1) + "]", 1, length - 1);
+		}
+		array.grow(0, 100);
+		
+		assertThat(array.length(), is(equalTo(new int[] {100, 999})));
+		assertThat(array.get(0, 0), is(equalTo("[0, 0]")));
+		assertThat(array.get(2, 1), is(equalTo("[2, 1]")));
+		assertThat(array.get(99, 998), is(nullValue(String.class)));
+		
+		for (int j = 2; j < 999; j++)
+			assertThat(array.get(1, j), is(equalTo("[1, " + j + "]")));
+	}
+	
+	@Test
+	public void testGrowNeverShrinks() {
+		ChunkedArray<String> array = new ChunkedArray<String>(new int[] {5});
+		
+		array.grow(0, 2);
+		
+		assertThat(array.length(), is(equalTo(new int[] {5})));
+	}
+	
+	@Test
+	public void testViews() {
+		ChunkedArray<String> array = new ChunkedArray<String>(new int[] {3, 4});
+		array.set("[1, 2]", 1, 2);
+		array.set("[2, 3]", 2, 3);
+		
+		MultiDimensionalArray<String> slice = array.slice(1, 2, 4);
+		assertThat(slice.length(), is(equalTo(new int[] {3, 2})));
+		assertThat(slice.get(1, 0), is(equalTo("[1, 2]")));
+		assertThat(slice.get(2, 1), is(equalTo("[2, 3]")));
+		
+		MultiDimensionalArray<String> transposed = slice.transpose();
+		assertThat(transposed.length(), is(equalTo(new int[] {2, 3})));
+		assertThat(transposed.get(1, 2), is(equalTo("[2, 3]")));
+		
+		transposed.set("[0, 3]", 1, 0);
+		assertThat(array.get(0, 3), is(equalTo("[0, 3]")));
+		assertThat(array.swap(0, 1).get(3, 0), is(equalTo("[0, 3]")));
+		
+		MultiDimensionalArray<String> fixed = array.fix(0, 2);
+		assertThat(fixed.length(), is(equalTo(new int[] {4})));
+		assertThat(fixed.get(3), is(equalTo("[2, 3]")));
+	}
+	
+	@Test
+	public void testViewsFollowGrowth() {
+		ChunkedArray<String> array = new ChunkedArray<String>(new int[] {2, 2});
+		MultiDimensionalArray<String> slice = array.slice(0, 1, 2);
+		MultiDimensionalArray<String> fixed = array.fix(0, 1);
+		
+		array.grow(0, 5);
+		array.grow(1, 100);
+		array.set("[1, 99]", 1, 99);
+		
+		assertThat(slice.length(), is(equalTo(new int[] {1, 100})));
+		assertThat(slice.get(0, 99), is(equalTo("[1, 99]")));
+		assertThat(fixed.length(), is(equalTo(new int[] {100})));
+		assertThat(fixed.get(99), is(equalTo("[1, 99]")));
+	}
+	
+	@Test
+	public void testViewsPrintWhatTheyFollow() {
+		ChunkedArray<String> array = new ChunkedArray<String>(new int[] {1, 1});
+		MultiDimensionalArray<String> fixed = array.fix(0, 0);
+		
+		array.grow(1, 2);
+		array.set("[0, 1]", 0, 1);
+		
+		assertThat(fixed.toString(), is(equalTo("[null, [0, 1]]")));
+		assertThat(fixed.hashCode(), is(equalTo(new PackedArray<String>(fixed).hashCode())));
+	}
+	
+	@Test
+	public void testManyDimensions() {
+		int[] sizes = new int[16];
+		Arrays.fill(sizes, 2);
+		ChunkedArray<String> array = new ChunkedArray<String>(sizes);
+		
+		int[] last = sizes.clone();
+		for (int i = 0; i < last.length; i++)
+			last[i]--;
+		
+		array.set("first", new int[16]);
+		array.set("last", last);
+		
+		assertThat(array.get(new int[16]), is(equalTo("first")));
+		assertThat(array.get(last), is(equalTo("last")));
+	}
+	
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testGrownBoundaries() {
+		ChunkedArray<String> array = new ChunkedArray<String>(new int[] {2, 2, 2});
+		array.grow(2, 3);
+		
+		array.set("a", 1, 1, 2);
+		array.get(1, 2, 2);
+	}
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public abstract class ColumnarArrayUnitTest extends MultiDimensionalArrayAbstractUnitTest<String> {
+	
+	public static class TwoDimensions extends ColumnarArrayUnitTest {
+		ColumnarArray<String> array;
+		int[] sizes;
+		String[][] model;
+
+		{
+			sizes = new int[] {3, 4};
+			
+			array = new ColumnarArray<String>(3, String.class, String.class, Object.class, String.class);
+			array.set("[0, 0]", 0, 0);
+			array.set("[1, 2]", 1, 2);
+			array.set("[2, 3]", 2, 3);
+			
+			model = new String[][] {
+					{ "[0, 0]", null, null, null },
+					{ null, null, "[1, 2]", null },
+					{ null, null, null, "[2, 3]" },
+				};
+		}
+
+		@Override
+		protected ColumnarArray<String> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected String[][] createModel() {
+			return model;
+		}
+	}
+
+	protected String createSample() {
+		return "sam" + "ple";
+	}
+
+	@Override
+	protected MultiDimensionalArray<String> newFromMultiDimensionalArray(MultiDimensionalArray<String> source) {
+		int[] sizes = source.length();
+		ColumnarArray<String> copy = new ColumnarArray<String>(sizes[0], new Class<?>[sizes[1]]);
+		MultiDimensionalArrays.copy(source, copy);
+		
+		return copy;
+	}
+	
+	@Test
+	public void testPrimitiveColumns() {
+		ColumnarArray<Number> array = new ColumnarArray<Number>(2, int.class, long.class, float.class, double.class, Integer.class);
+		
+		assertThat(array.column(0), is(instanceOf(IntPackedArray.class)));
+		assertThat(array.column(1), is(instanceOf(LongPackedArray.class)));
+		assertThat(array.column(2), is(instanceOf(FloatPackedArray.class)));
+		assertThat(array.column(3), is(instanceOf(DoublePackedArray.class)));
+		assertThat(array.column(4).getClass(), is(equalTo((Object) PackedArray.class)));
+		
+		array.set(1, 0, 0);
+		array.set(2L, 0, 1);
+		array.set(3F, 0, 2);
+		array.set(4D, 0, 3);
+		array.set(5, 0, 4);
+		
+		assertThat(array.get(0, 0), is(equalTo((Number) 1)));
+		assertThat(array.get(0, 1), is(equalTo((Number) 2L)));
+		assertThat(array.get(0, 2), is(equalTo((Number) 3F)));
+		assertThat(array.get(0, 3), is(equalTo((Number) 4D)));
+		assertThat(array.get(0, 4), is(equalTo((Number) 5)));
+		
+		assertThat(((IntPackedArray) array.column(0)).getInt(0), is(equalTo(1)));
+		
+		// unset cells read zero in primitive columns
+		assertThat(array.get(1, 0), is(equalTo((Number) 0)));
+		assertThat(array.get(1, 3), is(equalTo((Number) 0D)));
+		assertThat(array.get(1, 4), is(nullValue()));
+		
+		assertThat(array.unset(0, 0), is(equalTo((Number) 1)));
+		assertThat(array.get(0, 0), is(equalTo((Number) 0)));
+		assertThat(array.unset(0, 4), is(equalTo((Number) 5)));
+		assertThat(array.get(0, 4), is(nullValue()));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void testPrimitiveColumnsRejectNull() {
+		ColumnarArray<Number> array = new ColumnarArray<Number>(1, int.class);
+		
+		array.set(null, 0, 0);
+	}
+	
+	@Test
+	public void testGrowKeepsCells() {
+		ColumnarArray<Object> array = new ColumnarArray<Object>(2, int.class, String.class);
+		array.set(7, 1, 0);
+		array.set("x", 1, 1);
+		
+		array.grow(5);
+		
+		assertThat(array.length(), is(equalTo(new int[] {5, 2})));
+		assertThat(array.get(1, 0), is(equalTo((Object) 7)));
+		assertThat(array.get(1, 1), is(equalTo((Object) "x")));
+		assertThat(array.get(4, 0), is(equalTo((Object) 0)));
+		assertThat(array.get(4, 1), is(nullValue()));
+		assertThat(array.column(0).length(), is(equalTo(new int[] {5})));
+		
+		array.grow(3);
+		assertThat(array.length(), is(equalTo(new int[] {5, 2})));
+	}
+	
+	@Test
+	public void testViews() {
+		ColumnarArray<Object> array = new ColumnarArray<Object>(3, int.class, String.class);
+		array.set(1, 1, 0);
+		array.set("x", 2, 1);
+		
+		MultiDimensionalArray<Object> rows = array.slice(0, 1, 3);
+		assertThat(rows.length(), is(equalTo(new int[] {2, 2})));
+		assertThat(rows.get(0, 0), is(equalTo((Object) 1)));
+		assertThat(rows.get(1, 1), is(equalTo((Object) "x")));
+		
+		MultiDimensionalArray<Object> transposed = array.transpose();
+		assertThat(transposed.length(), is(equalTo(new int[] {2, 3})));
+		assertThat(transposed.get(1, 2), is(equalTo((Object) "x")));
+		assertThat(array.swap(0, 1).get(0, 1), is(equalTo((Object) 1)));
+		
+		MultiDimensionalArray<Object> column = array.slice(1, 1, 2);
+		column.set("y", 0, 0);
+		assertThat(array.get(0, 1), is(equalTo((Object) "y")));
+		
+		array.grow(5);
+		assertThat(column.length(), is(equalTo(new int[] {5, 1})));
+		assertThat(transposed.length(), is(equalTo(new int[] {2, 5})));
+		assertThat(rows.length(), is(equalTo(new int[] {2, 2})));
+		assertThat(transposed.get(0, 4), is(equalTo((Object) 0)));
+	}
+	
+	@Test
+	public void testCopyMovesRowsWithinColumns() {
+		ColumnarArray<Object> array = new ColumnarArray<Object>(4, int.class, String.class);
+		for (int i = 0; i < 3; i++) {
+			array.set(i, i, 0);
+			array.set("s" + i, i, 1);
+		}
+		
+		MultiDimensionalArrays.copy(array, new int[] {0, 0}, array, new int[] {1, 0});
+		
+		assertThat(array.get(0, 0), is(equalTo((Object) 0)));
+		for (int i = 0; i < 3; i++) {
+			assertThat(array.get(i + 1, 0), is(equalTo((Object) i)));
+			assertThat(array.get(i + 1, 1), is(equalTo((Object) ("s" + i))));
+		}
+	}
+	
+	@Test
+	public void testColumnScan() {
+		ColumnarArray<Object> array = new ColumnarArray<Object>(1000, String.class, long.class);
+		long expected = 0;
+		for (int i = 0; i < 1000; i++) {
+			array.set(i * 7L, i, 1);
+			expected += i * 7L;
+		}
+		
+		LongPackedArray column = (LongPackedArray) array.column(1);
+		assertThat(MultiDimensionalOperations.reduceLong(column, 0L, Long::sum), is(equalTo(expected)));
+	}
+}
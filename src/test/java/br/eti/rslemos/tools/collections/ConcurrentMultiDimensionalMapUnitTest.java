@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrentMultiDimensionalMapUnitTest {
+	@Test
+	public void testPutGet() {
+		MultiDimensionalMap<String, Integer> map = new ConcurrentMultiDimensionalMap<String, Integer>(3, 3);
+		
+		map.put(1, "a", "x");
+		map.put(2, null, "y");
+		map.put(3, "a", null);
+		
+		assertThat(map.get("a", "x"), is(equalTo(1)));
+		assertThat(map.get(null, "y"), is(equalTo(2)));
+		assertThat(map.get("a", null), is(equalTo(3)));
+		assertThat(map.get("b", "x"), is(nullValue()));
+		assertThat(map.length(0), is(equalTo(2)));
+		assertThat(map.length(1), is(equalTo(3)));
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testCapacityExhausted() {
+		MultiDimensionalMap<String, Integer> map = new ConcurrentMultiDimensionalMap<String, Integer>(1);
+		
+		map.put(1, "a");
+		map.put(2, "b");
+	}
+
+	@Test
+	public void testFailedKeyMayBeRetried() {
+		MultiDimensionalMap<String, Integer> map = new ConcurrentMultiDimensionalMap<String, Integer>(1, 1);
+		map.put(1, "a", "x");
+		
+		for (int i = 0; i < 2; i++) {
+			try {
+				map.put(2, "a", "y");
+			} catch (ArrayIndexOutOfBoundsException e) {
+			}
+		}
+		
+		assertThat(map.get("a", "y"), is(nullValue()));
+		assertThat(map.length(1), is(equalTo(1)));
+	}
+
+	@Test
+	public void testGrowing() {
+		MultiDimensionalMap<Integer, Integer> map = new ConcurrentMultiDimensionalMap<Integer, Integer>(new AtomicChunkedArray<Integer>(new int[2]));
+		
+		for (int i = 0; i < 5000; i++) {
+			map.put(i, i, i % 7);
+		}
+		
+		assertThat(map.length(0), is(equalTo(5000)));
+		assertThat(map.length(1), is(equalTo(7)));
+		for (int i = 0; i < 5000; i++) {
+			assertThat(map.get(i, i % 7), is(equalTo(i)));
+		}
+	}
+
+	@Test
+	public void testFailedGrowthMayBeRetried() {
+		final AtomicInteger growths = new AtomicInteger();
+		MultiDimensionalMap<String, Integer> map = new ConcurrentMultiDimensionalMap<String, Integer>(new AtomicChunkedArray<Integer>(new int[1]) {
+			@Override
+			public void grow(int dimension, int length) {
+				if (growths.getAndIncrement() == 0)
+					throw new OutOfMemoryError();
+				
+				super.grow(dimension, length);
+			}
+		});
+		
+		try {
+			map.put(1, "a");
+			fail("Should have thrown OutOfMemoryError");
+		} catch (OutOfMemoryError expected) {
+		}
+		
+		assertThat(map.length(0), is(equalTo(0)));
+		
+		map.put(1, "a");
+		assertThat(map.get("a"), is(equalTo(1)));
+		assertThat(map.length(0), is(equalTo(1)));
+	}
+
+	@Test
+	public void testFix() {
+		ConcurrentMultiDimensionalMap<String, Integer> map = new ConcurrentMultiDimensionalMap<String, Integer>(2, 2, 2);
+		map.put(1, "a", "x", "p");
+		
+		MultiDimensionalMap<String, Integer> view = map.fix(1, "x");
+		view.put(2, "b", "q");
+		
+		assertThat(view.get("a", "p"), is(equalTo(1)));
+		assertThat(map.get("b", "x", "q"), is(equalTo(2)));
+		assertThat(view.length(0), is(equalTo(2)));
+		assertThat(view.length(1), is(equalTo(2)));
+	}
+
+	@Test
+	public void testFixUnknownKey() {
+		ConcurrentMultiDimensionalMap<String, Integer> map = new ConcurrentMultiDimensionalMap<String, Integer>(2, 2);
+		
+		try {
+			map.fix(1, "x");
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException expected) {
+		}
+		
+		assertThat(map.length(1), is(equalTo(0)));
+	}
+
+	@Test
+	public void testConcurrentWriters() throws Exception {
+		final int threads = 8;
+		final int keys = 500;
+		final MultiDimensionalMap<Integer, String> map = new ConcurrentMultiDimensionalMap<Integer, String>(keys, threads, 1, 1);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>();
+			
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				results.add(executor.submit(new Callable<Void>() {
+					public Void call() {
+						// every thread registers the same keys in the first dimension, in a different order
+						for (int i = 0; i < keys; i++) {
+							int key = (i * 7 + thread * 13) % keys;
+							map.put(key + "/" + thread, key, thread, 0, 0);
+						}
+						return null;
+					}
+				}));
+			}
+			
+			for (Future<Void> result : results)
+				result.get();
+		} finally {
+			executor.shutdown();
+		}
+		
+		assertThat(map.length(0), is(equalTo(keys)));
+		assertThat(map.length(1), is(equalTo(threads)));
+		
+		for (int key = 0; key < keys; key++) {
+			for (int thread = 0; thread < threads; thread++)
+				assertThat(map.get(key, thread, 0, 0), is(equalTo(key + "/" + thread)));
+		}
+	}
+
+	@Test
+	public void testConcurrentWritersOnGrowingStorage() throws Exception {
+		final int threads = 8;
+		final int keys = 500;
+		final MultiDimensionalMap<Integer, String> map = new ConcurrentMultiDimensionalMap<Integer, String>(new AtomicChunkedArray<String>(new int[4]));
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>();
+			
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				results.add(executor.submit(new Callable<Void>() {
+					public Void call() {
+						// every thread registers the same keys in the first dimension, in a different order
+						for (int i = 0; i < keys; i++) {
+							int key = (i * 7 + thread * 13) % keys;
+							map.put(key + "/" + thread, key, thread, 0, 0);
+						}
+						return null;
+					}
+				}));
+			}
+			
+			for (Future<Void> result : results)
+				result.get();
+		} finally {
+			executor.shutdown();
+		}
+		
+		assertThat(map.length(0), is(equalTo(keys)));
+		assertThat(map.length(1), is(equalTo(threads)));
+		
+		for (int key = 0; key < keys; key++) {
+			for (int thread = 0; thread < threads; thread++)
+				assertThat(map.get(key, thread, 0, 0), is(equalTo(key + "/" + thread)));
+		}
+	}
+}
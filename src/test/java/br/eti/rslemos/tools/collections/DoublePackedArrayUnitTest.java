@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.hamcrest.Matcher;
+import org.junit.Test;
+
+public abstract class DoublePackedArrayUnitTest extends MultiDimensionalArrayAbstractUnitTest<Double> {
+	
+	public static class OneDimension extends DoublePackedArrayUnitTest {
+		DoublePackedArray array;
+		int[] sizes;
+		Double[] model;
+
+		{
+			sizes = new int[] {6};
+			
+			array = new DoublePackedArray(sizes);
+			array.setDouble(0d, 0);
+			array.setDouble(1d, 1);
+			array.setDouble(2d, 2);
+			array.setDouble(3d, 3);
+			array.setDouble(4d, 4);
+			array.setDouble(5d, 5);
+			
+			model = new Double[] {0d, 1d, 2d, 3d, 4d, 5d};
+		}
+
+		@Override
+		protected DoublePackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Double[] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Double> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Double> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Double> {}
+	}
+	
+	public static class TwoDimensions extends DoublePackedArrayUnitTest {
+		DoublePackedArray array;
+		int[] sizes;
+		Double[][] model;
+
+		{
+			sizes = new int[] {3, 4};
+			
+			array = new DoublePackedArray(sizes);
+			model = new Double[3][4];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					double data = i*4 + j;
+					
+					model[i][j] = data;
+					array.setDouble(data, i, j);
+				}
+			}
+		}
+
+		@Override
+		protected DoublePackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Double[][] createModel() {
+			return model;
+		}
+
+		@Test
+		public void testViews() {
+			DoublePackedArray slice = array.slice(1, 1, 3);
+			assertThat(slice.length(), is(equalTo(new int[] {3, 2})));
+			assertThat(slice.getDouble(0, 0), is(equalTo(1d)));
+			assertThat(slice.getDouble(2, 1), is(equalTo(10d)));
+			
+			DoublePackedArray transposition = array.transpose();
+			assertThat(transposition.length(), is(equalTo(new int[] {4, 3})));
+			assertThat(transposition.getDouble(3, 1), is(equalTo(7d)));
+			
+			DoublePackedArray swappedSlice = slice.swap(0, 1);
+			assertThat(swappedSlice.getDouble(1, 2), is(equalTo(10d)));
+			
+			swappedSlice.setDouble(-1d, 0, 0);
+			assertThat(array.getDouble(0, 1), is(equalTo(-1d)));
+		}
+
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Double> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Double> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Double> {}
+	}
+
+	public static class ThreeDimensions extends DoublePackedArrayUnitTest {
+		DoublePackedArray array;
+		int[] sizes;
+		Double[][][] model;
+		
+		{
+			sizes = new int[] {4, 2, 3};
+			
+			array = new DoublePackedArray(sizes);
+			model = new Double[4][2][3];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					for(int k = 0; k < sizes[2]; k++) {
+						double data = i*6 + j*3 + k;
+						
+						model[i][j][k] = data;
+						array.setDouble(data, i, j, k);
+					}
+				}
+			}
+		}
+
+		@Override
+		protected DoublePackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Double[][][] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Double> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Double> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Double> {}
+	}
+
+	// boxed doubles are never cached
+	@Override
+	protected Matcher<Double> sameElementAs(Double element) {
+		return equalTo(element);
+	}
+
+	protected Double createSample() {
+		return -1d;
+	}
+	
+	@Test
+	public void testPrimitiveAccessors() {
+		DoublePackedArray array = new DoublePackedArray(new int[] {2, 2});
+		assertThat(array.getDouble(1, 1), is(equalTo(0d)));
+		assertThat(array.setDouble(42d, 1, 1), is(equalTo(0d)));
+		assertThat(array.getDouble(1, 1), is(equalTo(42d)));
+		assertThat(array.get(1, 1), is(equalTo((Double) 42d)));
+	}
+	
+	@Test
+	public void testUnsetCellsReadZero() {
+		DoublePackedArray array = new DoublePackedArray(new int[] {2, 2});
+		assertThat(array.get(0, 1), is(equalTo((Object) 0d)));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void testRejectsNull() {
+		new DoublePackedArray(new int[] {2, 2}).set(null, 0, 1);
+	}
+}
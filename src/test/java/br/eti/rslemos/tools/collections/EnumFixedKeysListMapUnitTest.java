@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class EnumFixedKeysListMapUnitTest {
+	
+	enum Feature {
+		A, B, C
+	}
+	
+	@Test
+	public void testGeneralUsage() {
+		EnumFixedKeysListMap<Feature, String> listMap = new EnumFixedKeysListMap<Feature, String>(Feature.class);
+		
+		assertThat(listMap.size(), is(equalTo(0)));
+		
+		listMap.add(Collections.singletonMap(Feature.A, "0A"));
+		listMap.add(Collections.singletonMap(Feature.B, "1B"));
+		listMap.add(0, Collections.<Feature, String>emptyMap());
+		
+		assertThat(listMap.size(), is(equalTo(3)));
+		assertThat(listMap.get(0, Feature.A), is(nullValue()));
+		assertThat(listMap.get(1, Feature.A), is(equalTo("0A")));
+		assertThat(listMap.get(2, Feature.B), is(equalTo("1B")));
+		
+		assertThat(listMap.put(2, Feature.C, "1C"), is(nullValue()));
+		
+		Map<Feature, String> map2 = listMap.get(2);
+		assertThat(map2.get(Feature.C), is(equalTo("1C")));
+		
+		listMap.remove(0);
+		assertThat(listMap.get(0, Feature.A), is(equalTo("0A")));
+		assertThat(listMap.get(1, Feature.C), is(equalTo("1C")));
+	}
+	
+	@Test
+	public void testColumnar() {
+		EnumFixedKeysListMap<Feature, Object> listMap = new EnumFixedKeysListMap<Feature, Object>(Feature.class, String.class, int.class, double.class);
+		
+		listMap.add(Collections.<Feature, Object>singletonMap(Feature.A, "0A"));
+		listMap.add(Collections.<Feature, Object>emptyMap());
+		listMap.put(1, Feature.B, 7);
+		
+		assertThat(listMap.get(0, Feature.A), is(equalTo((Object) "0A")));
+		assertThat(listMap.get(0, Feature.B), is(equalTo((Object) 0)));
+		assertThat(listMap.get(1, Feature.B), is(equalTo((Object) 7)));
+		assertThat(listMap.get(1).get(Feature.C), is(equalTo((Object) 0D)));
+		assertThat(listMap.column(Feature.B), is(instanceOf(IntPackedArray.class)));
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRowBeyondSize() {
+		// capacity grows ahead of size
+		EnumFixedKeysListMap<Feature, String> listMap = new EnumFixedKeysListMap<Feature, String>(Feature.class);
+		listMap.add(Collections.<Feature, String>emptyMap());
+		
+		listMap.put(1, Feature.A, "1A");
+	}
+}
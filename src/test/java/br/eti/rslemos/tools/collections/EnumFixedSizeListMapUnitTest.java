@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class EnumFixedSizeListMapUnitTest {
+	
+	enum Feature {
+		A, B, C {
+			@Override
+			public String toString() {
+				return "c";
+			}
+		}
+	}
+	
+	enum Other {
+		A
+	}
+	
+	@Test
+	public void testGeneralUsage() {
+		EnumFixedSizeListMap<Feature, String> listMap = new EnumFixedSizeListMap<Feature, String>(Feature.class, 2);
+		
+		assertThat(listMap.size(), is(equalTo(2)));
+		
+		assertThat(listMap.put(0, Feature.A, "0A"), is(nullValue()));
+		assertThat(listMap.put(1, Feature.C, "1C"), is(nullValue()));
+		assertThat(listMap.put(1, Feature.C, "1C'"), is(equalTo("1C")));
+		
+		assertThat(listMap.get(0, Feature.A), is(equalTo("0A")));
+		assertThat(listMap.get(0, Feature.C), is(nullValue()));
+		assertThat(listMap.get(1, Feature.C), is(equalTo("1C'")));
+		
+		Map<Feature, String> map1 = listMap.get(1);
+		assertThat(map1.get(Feature.C), is(equalTo("1C'")));
+		assertThat(map1.put(Feature.B, "1B"), is(nullValue()));
+		assertThat(listMap.get(1, Feature.B), is(equalTo("1B")));
+		assertThat(map1.keySet().toArray(), is(equalTo(new Object[] {Feature.A, Feature.B, Feature.C})));
+	}
+	
+	@Test
+	public void testForeignKeys() {
+		Map<Feature, String> map = new EnumFixedSizeListMap<Feature, String>(Feature.class, 1).get(0);
+		
+		assertThat(map.containsKey(Feature.C), is(equalTo(true)));
+		assertThat(map.containsKey(Other.A), is(equalTo(false)));
+		assertThat(map.containsKey("A"), is(equalTo(false)));
+		assertThat(map.containsKey(null), is(equalTo(false)));
+		assertThat(map.get(Other.A), is(nullValue()));
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRowOutOfBounds() {
+		new EnumFixedSizeListMap<Feature, String>(Feature.class, 1).get(1, Feature.A);
+	}
+}
@@ -126,6 +126,106 @@ public class FixedKeysListMapUnitTest extends TestCase {
 		System.out.println(listMap.toString());
 	}
 	
+	@Test
+	public void testColumnarMode() {
+		FixedKeysListMap<String, Object> listMap = new FixedKeysListMap<String, Object>(new Class<?>[] {String.class, int.class, double.class}, "name", "count", "price");
+		
+		for (int i = 0; i < 20; i++) {
+			Map<String, Object> row = new HashMap<String, Object>();
+			row.put("name", "item" + i);
+			row.put("count", i);
+			row.put("price", i / 2.0);
+			assertThat(listMap.add(row), is(equalTo(true)));
+		}
+		
+		listMap.add(0, new HashMap<String, Object>());
+		listMap.remove(5);
+		
+		assertThat(listMap.size(), is(equalTo(20)));
+		assertThat(listMap.get(0).get("name"), is(nullValue()));
+		assertThat(listMap.get(0).get("count"), is(equalTo((Object) 0)));
+		assertThat(listMap.get(4).get("name"), is(equalTo((Object) "item3")));
+		assertThat(listMap.get(5).get("count"), is(equalTo((Object) 5)));
+		assertThat(listMap.get(19).get("price"), is(equalTo((Object) 9.5)));
+		
+		listMap.get(19).put("count", 100);
+		assertThat(listMap.get(19).get("count"), is(equalTo((Object) 100)));
+		
+		IntPackedArray counts = (IntPackedArray) (PackedArray<?>) listMap.column("count");
+		assertThat(counts.length(), is(equalTo(new int[] {20})));
+		assertThat(counts.getInt(5), is(equalTo(5)));
+		assertThat(MultiDimensionalOperations.reduceInt(counts, 0, Integer::sum), is(equalTo(190 - 4 - 19 + 100)));
+		assertThat(listMap.column("name").get(4), is(equalTo((Object) "item3")));
+	}
+	
+	@Test
+	public void testColumnarModeRejectsNullInPrimitiveColumns() {
+		FixedKeysListMap<String, Object> listMap = new FixedKeysListMap<String, Object>(new Class<?>[] {String.class, int.class}, "name", "count");
+		listMap.add(Collections.<String, Object>emptyMap());
+		
+		try {
+			listMap.get(0).put("count", null);
+			fail("Should have thrown NullPointerException");
+		} catch (NullPointerException expected) {
+		}
+		
+		listMap.get(0).put("name", null);
+		assertThat(listMap.get(0).get("count"), is(equalTo((Object) 0)));
+	}
+	
+	@Test
+	public void testCursorOverColumns() {
+		FixedKeysListMap<String, Number> listMap = new FixedKeysListMap<String, Number>(
+				new Class<?>[] {int.class, long.class, float.class, double.class, Double.class}, "i", "l", "f", "d", "boxed");
+		int i = listMap.columnOf("i");
+		int l = listMap.columnOf("l");
+		int f = listMap.columnOf("f");
+		int d = listMap.columnOf("d");
+		int boxed = listMap.columnOf("boxed");
+		
+		FixedKeysListMap<String, Number>.RowCursor cursor = listMap.cursor();
+		for (int row = 0; row < 10; row++) {
+			listMap.add(Collections.<String, Number>emptyMap());
+			
+			cursor.moveTo(row);
+			cursor.setInt(i, row);
+			cursor.setLong(l, row * 1000000000000L);
+			cursor.setFloat(f, row / 4F);
+			cursor.setDouble(d, row / 8D);
+			cursor.setDouble(boxed, -row);
+		}
+		
+		double sum = 0;
+		cursor = listMap.cursor();
+		while (cursor.advance()) {
+			int row = cursor.row();
+			assertThat(cursor.getInt(i), is(equalTo(row)));
+			assertThat(cursor.getLong(l), is(equalTo(row * 1000000000000L)));
+			assertThat(cursor.getFloat(f), is(equalTo(row / 4F)));
+			assertThat(cursor.getDouble(d), is(equalTo(row / 8D)));
+			sum += cursor.getDouble(boxed);
+		}
+		
+		assertThat(sum, is(equalTo(-45D)));
+		assertThat(listMap.get(3).get("l"), is(equalTo((Number) 3000000000000L)));
+	}
+	
+	@Test
+	public void testColumn() {
+		FixedKeysListMap<String, String> listMap = new FixedKeysListMap<String, String>("featureA", "featureB");
+		for (int i = 0; i < 5; i++)
+			listMap.add(Collections.singletonMap("featureB", "B" + i));
+		
+		MultiDimensionalArray<String> column = listMap.column("featureB");
+		
+		// bounded by size, not by capacity
+		assertThat(column.length(), is(equalTo(new int[] {5})));
+		assertThat(column.get(3), is(equalTo("B3")));
+		column.set("B3'", 3);
+		assertThat(listMap.get(3).get("featureB"), is(equalTo("B3'")));
+		assertThat(listMap.column("featureA").get(3), is(nullValue(String.class)));
+	}
+	
 	private static final class TestListMapGenerator implements TestListGenerator<Map<String, String>> {
 		public List<Map<String, String>> create(Map<String, String>... elements) {
 			List<Map<String, String>> fixedSizeListMap = new FixedKeysListMap<String, String>("A", "B", "C", "D");
@@ -32,6 +32,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeMap;
 
@@ -160,6 +161,149 @@ public class FixedSizeListMapUnitTest extends TestCase {
 
 		System.out.println(listMap.toString());
 	}
+
+	@Test
+	public void testNonComparableKeys() {
+		Object keyA = new Object();
+		Object keyB = new Object();
+		FixedSizeListMap<Object, String> listMap = new FixedSizeListMap<Object, String>(2, keyA, keyB);
+		
+		listMap.get(0).put(keyA, "0A");
+		listMap.get(1).put(keyB, "1B");
+		
+		assertThat(listMap.get(0).get(keyA), is(equalTo("0A")));
+		assertThat(listMap.get(0).get(keyB), is(nullValue(String.class)));
+		assertThat(listMap.get(1).get(keyB), is(equalTo("1B")));
+		assertThat(listMap.get(1).containsKey(new Object()), is(equalTo(false)));
+		assertThat(listMap.get(1).get(new Object()), is(nullValue(String.class)));
+	}
+	
+	@Test
+	public void testNullKey() {
+		try {
+			new FixedSizeListMap<String, String>(1, "featureA", null);
+			fail("Should have thrown NullPointerException");
+		} catch (NullPointerException expected) {
+		}
+	}
+	
+	@Test
+	public void testNullLookup() {
+		FixedSizeListMap<String, String> listMap = new FixedSizeListMap<String, String>(1, "featureA", "featureB");
+		
+		try {
+			listMap.get(0).get(null);
+			fail("Should have thrown NullPointerException");
+		} catch (NullPointerException expected) {
+		}
+		
+		try {
+			listMap.get(0).containsKey(null);
+			fail("Should have thrown NullPointerException");
+		} catch (NullPointerException expected) {
+		}
+	}
+	
+	@Test
+	public void testKeysInSortedOrder() {
+		FixedSizeListMap<String, String> listMap = new FixedSizeListMap<String, String>(1, "featureC", "featureA", "featureB");
+		listMap.get(0).put("featureC", "0C");
+		
+		Set<String> keys = listMap.get(0).keySet();
+		assertThat(keys.toArray(), is(equalTo(new Object[] {"featureA", "featureB", "featureC"})));
+		assertThat(listMap.get(0).get("featureC"), is(equalTo("0C")));
+	}
+	
+	@Test
+	public void testNonComparableKeysInGivenOrder() {
+		Object keyA = new Object();
+		Object keyB = new Object();
+		FixedSizeListMap<Object, String> listMap = new FixedSizeListMap<Object, String>(1, keyB, keyA);
+		
+		Set<Object> keys = listMap.get(0).keySet();
+		assertThat(keys.toArray(), is(equalTo(new Object[] {keyB, keyA})));
+	}
+	
+	@Test
+	public void testColumn() {
+		FixedSizeListMap<String, String> listMap = new FixedSizeListMap<String, String>(3, "featureA", "featureB");
+		listMap.get(0).put("featureB", "0B");
+		listMap.get(2).put("featureB", "2B");
+		
+		MultiDimensionalArray<String> column = listMap.column("featureB");
+		
+		assertThat(column.length(), is(equalTo(new int[] {3})));
+		assertThat(column.get(0), is(equalTo("0B")));
+		assertThat(column.get(1), is(nullValue(String.class)));
+		assertThat(column.get(2), is(equalTo("2B")));
+		
+		// live, both ways
+		column.set("1B", 1);
+		assertThat(listMap.get(1).get("featureB"), is(equalTo("1B")));
+		listMap.get(2).put("featureB", "2B'");
+		assertThat(column.get(2), is(equalTo("2B'")));
+		assertThat(listMap.column("featureA").get(2), is(nullValue(String.class)));
+	}
+	
+	@Test
+	public void testColumnOfUnknownKey() {
+		try {
+			new FixedSizeListMap<String, String>(1, "featureA").column("featureB");
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+	
+	@Test
+	public void testCursor() {
+		FixedSizeListMap<String, Object> listMap = new FixedSizeListMap<String, Object>(3, "name", "count");
+		int name = listMap.columnOf("name");
+		int count = listMap.columnOf("count");
+		
+		FixedSizeListMap<String, Object>.RowCursor cursor = listMap.cursor();
+		while (cursor.advance()) {
+			cursor.set(name, "row" + cursor.row());
+			cursor.setInt(count, cursor.row() * 10);
+		}
+		
+		assertThat(cursor.advance(), is(equalTo(false)));
+		
+		assertThat(listMap.get(1).get("name"), is(equalTo((Object) "row1")));
+		assertThat(listMap.get(2).get("count"), is(equalTo((Object) 20)));
+		
+		assertThat(cursor.moveTo(1).getInt(count), is(equalTo(10)));
+		assertThat(cursor.getKey(name), is(equalTo("name")));
+		assertThat(cursor.get(name), is(equalTo((Object) "row1")));
+		assertThat(cursor.advance(), is(equalTo(true)));
+		assertThat(cursor.row(), is(equalTo(2)));
+	}
+	
+	@Test
+	public void testCursorOffRows() {
+		FixedSizeListMap<String, Object> listMap = new FixedSizeListMap<String, Object>(1, "name");
+		FixedSizeListMap<String, Object>.RowCursor cursor = listMap.cursor();
+		
+		try {
+			cursor.get(0);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException expected) {
+		}
+		
+		try {
+			cursor.moveTo(1);
+			fail("Should have thrown IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException expected) {
+		}
+	}
+	
+	@Test
+	public void testDuplicateKeys() {
+		try {
+			new FixedSizeListMap<String, String>(1, "featureA", "featureB", "featureA");
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
 	
 	private static final class TestListMapGenerator implements TestListGenerator<Map<String, String>> {
 		public List<Map<String, String>> create(Map<String, String>... elements) {
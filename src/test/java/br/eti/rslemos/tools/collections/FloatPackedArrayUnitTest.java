@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.hamcrest.Matcher;
+import org.junit.Test;
+
+public abstract class FloatPackedArrayUnitTest extends MultiDimensionalArrayAbstractUnitTest<Float> {
+	
+	public static class OneDimension extends FloatPackedArrayUnitTest {
+		FloatPackedArray array;
+		int[] sizes;
+		Float[] model;
+
+		{
+			sizes = new int[] {6};
+			
+			array = new FloatPackedArray(sizes);
+			array.setFloat(0f, 0);
+			array.setFloat(1f, 1);
+			array.setFloat(2f, 2);
+			array.setFloat(3f, 3);
+			array.setFloat(4f, 4);
+			array.setFloat(5f, 5);
+			
+			model = new Float[] {0f, 1f, 2f, 3f, 4f, 5f};
+		}
+
+		@Override
+		protected FloatPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Float[] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Float> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Float> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Float> {}
+	}
+	
+	public static class TwoDimensions extends FloatPackedArrayUnitTest {
+		FloatPackedArray array;
+		int[] sizes;
+		Float[][] model;
+
+		{
+			sizes = new int[] {3, 4};
+			
+			array = new FloatPackedArray(sizes);
+			model = new Float[3][4];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					float data = i*4 + j;
+					
+					model[i][j] = data;
+					array.setFloat(data, i, j);
+				}
+			}
+		}
+
+		@Override
+		protected FloatPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Float[][] createModel() {
+			return model;
+		}
+
+		@Test
+		public void testViews() {
+			FloatPackedArray slice = array.slice(1, 1, 3);
+			assertThat(slice.length(), is(equalTo(new int[] {3, 2})));
+			assertThat(slice.getFloat(0, 0), is(equalTo(1f)));
+			assertThat(slice.getFloat(2, 1), is(equalTo(10f)));
+			
+			FloatPackedArray transposition = array.transpose();
+			assertThat(transposition.length(), is(equalTo(new int[] {4, 3})));
+			assertThat(transposition.getFloat(3, 1), is(equalTo(7f)));
+			
+			FloatPackedArray swappedSlice = slice.swap(0, 1);
+			assertThat(swappedSlice.getFloat(1, 2), is(equalTo(10f)));
+			
+			swappedSlice.setFloat(-1f, 0, 0);
+			assertThat(array.getFloat(0, 1), is(equalTo(-1f)));
+		}
+
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Float> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Float> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Float> {}
+	}
+
+	public static class ThreeDimensions extends FloatPackedArrayUnitTest {
+		FloatPackedArray array;
+		int[] sizes;
+		Float[][][] model;
+		
+		{
+			sizes = new int[] {4, 2, 3};
+			
+			array = new FloatPackedArray(sizes);
+			model = new Float[4][2][3];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					for(int k = 0; k < sizes[2]; k++) {
+						float data = i*6 + j*3 + k;
+						
+						model[i][j][k] = data;
+						array.setFloat(data, i, j, k);
+					}
+				}
+			}
+		}
+
+		@Override
+		protected FloatPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Float[][][] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Float> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Float> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Float> {}
+	}
+
+	// boxed floats are never cached
+	@Override
+	protected Matcher<Float> sameElementAs(Float element) {
+		return equalTo(element);
+	}
+
+	protected Float createSample() {
+		return -1f;
+	}
+	
+	@Test
+	public void testPrimitiveAccessors() {
+		FloatPackedArray array = new FloatPackedArray(new int[] {2, 2});
+		assertThat(array.getFloat(1, 1), is(equalTo(0f)));
+		assertThat(array.setFloat(42f, 1, 1), is(equalTo(0f)));
+		assertThat(array.getFloat(1, 1), is(equalTo(42f)));
+		assertThat(array.get(1, 1), is(equalTo((Float) 42f)));
+	}
+	
+	@Test
+	public void testUnsetCellsReadZero() {
+		FloatPackedArray array = new FloatPackedArray(new int[] {2, 2});
+		assertThat(array.get(0, 1), is(equalTo((Object) 0f)));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void testRejectsNull() {
+		new FloatPackedArray(new int[] {2, 2}).set(null, 0, 1);
+	}
+}
@@ -18,44 +18,48 @@
  * 
  * END COPYRIGHT NOTICE
  ******************************************************************************/
-package br.eti.rslemos.tools.collections;
-
+package br.eti.rslemos.tools.collections;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
-import static org.mockito.Mockito.when;
-
-import org.junit.Before;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.Before;
 import org.junit.Ignore;
-import org.junit.Test;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
-
-public class ForwardingMultiDimensionalArrayUnitTest {
-	
-	@Mock private MultiDimensionalArray<String> delegate;
-	private MultiDimensionalArray<String> subject;
-	
-	@Before
-	public void setUp() {
-		MockitoAnnotations.initMocks(this);
-		subject = wrap(delegate);
-	}
-
-	@Test
-	public void testDimensions() {
-		when(delegate.dimensions()).thenReturn(2);
-		
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ForwardingMultiDimensionalArrayUnitTest {
+	
+	@Mock private MultiDimensionalArray<String> delegate;
+	private MultiDimensionalArray<String> subject;
+	
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		subject = wrap(delegate);
+	}
+
+	@Test
+	public void testDimensions() {
+		when(delegate.dimensions()).thenReturn(2);
+		
 		assertThat(subject.dimensions(), is(equalTo(2)));
 		assertThat(subject.dimensions(), is(equalTo(2)));
-
-		verify(delegate, times(2)).dimensions();
-		verifyNoMoreInteractions(delegate);
-	}
+
+		verify(delegate, times(2)).dimensions();
+		verifyNoMoreInteractions(delegate);
+	}
 	
 	@Test
 	public void testLength() {
@@ -100,6 +104,77 @@ public class ForwardingMultiDimensionalArrayUnitTest {
 		verifyNoMoreInteractions(delegate);
 	}
 
+	@Test
+	public void testFixedArityGet() {
+		String value = "this";
+		
+		when(delegate.get(1)).thenReturn(value);
+		when(delegate.get(1, 2)).thenReturn(value);
+		when(delegate.get(1, 2, 3)).thenReturn(value);
+		
+		assertThat(subject.get(1), is(sameInstance(value)));
+		assertThat(subject.get(1, 2), is(sameInstance(value)));
+		assertThat(subject.get(1, 2, 3), is(sameInstance(value)));
+
+		verify(delegate).get(1);
+		verify(delegate).get(1, 2);
+		verify(delegate).get(1, 2, 3);
+		verifyNoMoreInteractions(delegate);
+	}
+
+	@Test
+	public void testFixedAritySet() {
+		String oldValue = "this";
+		String newValue = "that";
+		
+		when(delegate.set(newValue, 1)).thenReturn(oldValue);
+		when(delegate.set(newValue, 1, 2)).thenReturn(oldValue);
+		when(delegate.set(newValue, 1, 2, 3)).thenReturn(oldValue);
+		
+		assertThat(subject.set(newValue, 1), is(sameInstance(oldValue)));
+		assertThat(subject.set(newValue, 1, 2), is(sameInstance(oldValue)));
+		assertThat(subject.set(newValue, 1, 2, 3), is(sameInstance(oldValue)));
+
+		verify(delegate).set(newValue, 1);
+		verify(delegate).set(newValue, 1, 2);
+		verify(delegate).set(newValue, 1, 2, 3);
+		verifyNoMoreInteractions(delegate);
+	}
+
+	@Test
+	public void testCursor() {
+		@SuppressWarnings("unchecked")
+		Cursor<String> cursor = mock(Cursor.class);
+		
+		when(delegate.cursor()).thenReturn(cursor);
+		
+		assertThat(subject.cursor(), is(sameInstance(cursor)));
+		assertThat(subject.cursor(), is(sameInstance(cursor)));
+		
+		verify(delegate, times(2)).cursor();
+		verifyNoMoreInteractions(delegate);
+	}
+
+	@Test
+	public void testStreams() {
+		Stream<String> elements = Stream.empty();
+		Stream<int[]> addresses = Stream.empty();
+		Stream<Map.Entry<int[], String>> entries = Stream.empty();
+		
+		when(delegate.elements()).thenReturn(elements);
+		when(delegate.addresses()).thenReturn(addresses);
+		when(delegate.entries()).thenReturn(entries);
+		
+		assertThat(subject.elements(), is(sameInstance(elements)));
+		assertThat(subject.addresses(), is(sameInstance(addresses)));
+		assertThat(subject.entries(), is(sameInstance(entries)));
+		
+		verify(delegate).elements();
+		verify(delegate).addresses();
+		verify(delegate).entries();
+		verifyNoMoreInteractions(delegate);
+	}
+
 	@Test
 	public void testSlice() {
 		MultiDimensionalArray<String> view = wrap(null);
@@ -184,4 +259,4 @@ public class ForwardingMultiDimensionalArrayUnitTest {
 			@Override protected MultiDimensionalArray<T> delegate() { return delegate; }
 		};
 	}
-}
+}
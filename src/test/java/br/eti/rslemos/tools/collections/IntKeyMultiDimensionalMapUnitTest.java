@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class IntKeyMultiDimensionalMapUnitTest {
+	@Test
+	public void testFixedArity() {
+		IntKeyMultiDimensionalMap<String> map = new IntKeyMultiDimensionalMap<String>(new PackedArray<String>(new int[] {3, 2}));
+		
+		map.put("a", 0, 10);
+		map.put("b", -1, Integer.MAX_VALUE);
+		map.put("c", 0, Integer.MAX_VALUE);
+		
+		assertThat(map.get(0, 10), is(equalTo("a")));
+		assertThat(map.get(-1, Integer.MAX_VALUE), is(equalTo("b")));
+		assertThat(map.get(0, Integer.MAX_VALUE), is(equalTo("c")));
+		assertThat(map.get(-1, 10), is(nullValue()));
+		assertThat(map.get(5, 10), is(nullValue()));
+		
+		assertThat(map.length(0), is(equalTo(2)));
+		assertThat(map.length(1), is(equalTo(2)));
+	}
+
+	@Test
+	public void testVarargs() {
+		IntKeyMultiDimensionalMap<String> map = new IntKeyMultiDimensionalMap<String>(4);
+		
+		for (int i = 0; i < 100; i++) {
+			map.put("[" + i + "]", i, i % 3, i % 5, 42);
+		}
+		
+		for (int i = 0; i < 100; i++) {
+			assertThat(map.get(i, i % 3, i % 5, 42), is(equalTo("[" + i + "]")));
+			assertThat(map.get(i, i % 3, i % 5, 43), is(nullValue()));
+		}
+		
+		assertThat(map.length(0), is(equalTo(100)));
+		assertThat(map.length(1), is(equalTo(3)));
+		assertThat(map.length(2), is(equalTo(5)));
+		assertThat(map.length(3), is(equalTo(1)));
+	}
+
+	@Test
+	public void testGrowing() {
+		IntKeyMultiDimensionalMap<Integer> map = new IntKeyMultiDimensionalMap<Integer>(1);
+		
+		for (int i = 0; i < 10000; i++) {
+			map.put(i * 7, i * 7);
+		}
+		
+		assertThat(map.length(0), is(equalTo(10000)));
+		for (int i = 0; i < 10000; i++) {
+			assertThat(map.get(i * 7), is(equalTo(i * 7)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongNumberOfDimensions() {
+		new IntKeyMultiDimensionalMap<String>(2).get(1, 2, 3);
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testCapacityExhausted() {
+		IntKeyMultiDimensionalMap<String> map = new IntKeyMultiDimensionalMap<String>(new PackedArray<String>(new int[] {1}));
+		
+		map.put("a", 1);
+		map.put("b", 2);
+	}
+
+	@Test
+	public void testFullDimensionLeavesNoKey() {
+		IntKeyMultiDimensionalMap<String> map = new IntKeyMultiDimensionalMap<String>(new PackedArray<String>(new int[] {2, 1}));
+		map.put("a", 0, 0);
+		
+		try {
+			map.put("b", 1, 1);
+			fail("Should have thrown " + ArrayIndexOutOfBoundsException.class);
+		} catch (ArrayIndexOutOfBoundsException expected) {
+		}
+		
+		assertThat(map.length(0), is(equalTo(1)));
+		assertThat(map.length(1), is(equalTo(1)));
+		
+		map.put("b", 1, 0);
+		assertThat(map.get(1, 0), is(equalTo("b")));
+	}
+
+	@Test
+	public void testGrowingView() {
+		ChunkedArray<Integer> array = new ChunkedArray<Integer>(new int[2]);
+		IntKeyMultiDimensionalMap<Integer> map = new IntKeyMultiDimensionalMap<Integer>(array.transpose());
+		
+		for (int i = 0; i < 100; i++) {
+			map.put(i, i, -i);
+		}
+		
+		assertThat(map.length(0), is(equalTo(100)));
+		assertThat(array.get(99, 99), is(equalTo(99)));
+	}
+}
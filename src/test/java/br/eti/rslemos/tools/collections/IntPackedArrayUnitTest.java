@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public abstract class IntPackedArrayUnitTest extends MultiDimensionalArrayAbstractUnitTest<Integer> {
+	
+	public static class OneDimension extends IntPackedArrayUnitTest {
+		IntPackedArray array;
+		int[] sizes;
+		Integer[] model;
+
+		{
+			sizes = new int[] {6};
+			
+			array = new IntPackedArray(sizes);
+			array.setInt(0, 0);
+			array.setInt(1, 1);
+			array.setInt(2, 2);
+			array.setInt(3, 3);
+			array.setInt(4, 4);
+			array.setInt(5, 5);
+			
+			model = new Integer[] {0, 1, 2, 3, 4, 5};
+		}
+
+		@Override
+		protected IntPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Integer[] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Integer> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Integer> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Integer> {}
+	}
+	
+	public static class TwoDimensions extends IntPackedArrayUnitTest {
+		IntPackedArray array;
+		int[] sizes;
+		Integer[][] model;
+
+		{
+			sizes = new int[] {3, 4};
+			
+			array = new IntPackedArray(sizes);
+			model = new Integer[3][4];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					int data = i*4 + j;
+					
+					model[i][j] = data;
+					array.setInt(data, i, j);
+				}
+			}
+		}
+
+		@Override
+		protected IntPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Integer[][] createModel() {
+			return model;
+		}
+
+		@Test
+		public void testViews() {
+			IntPackedArray slice = array.slice(1, 1, 3);
+			assertThat(slice.length(), is(equalTo(new int[] {3, 2})));
+			assertThat(slice.getInt(0, 0), is(equalTo(1)));
+			assertThat(slice.getInt(2, 1), is(equalTo(10)));
+			
+			IntPackedArray transposition = array.transpose();
+			assertThat(transposition.length(), is(equalTo(new int[] {4, 3})));
+			assertThat(transposition.getInt(3, 1), is(equalTo(7)));
+			
+			IntPackedArray swappedSlice = slice.swap(0, 1);
+			assertThat(swappedSlice.getInt(1, 2), is(equalTo(10)));
+			
+			swappedSlice.setInt(-1, 0, 0);
+			assertThat(array.getInt(0, 1), is(equalTo(-1)));
+		}
+
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Integer> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Integer> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Integer> {}
+	}
+
+	public static class ThreeDimensions extends IntPackedArrayUnitTest {
+		IntPackedArray array;
+		int[] sizes;
+		Integer[][][] model;
+		
+		{
+			sizes = new int[] {4, 2, 3};
+			
+			array = new IntPackedArray(sizes);
+			model = new Integer[4][2][3];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					for(int k = 0; k < sizes[2]; k++) {
+						int data = i*6 + j*3 + k;
+						
+						model[i][j][k] = data;
+						array.setInt(data, i, j, k);
+					}
+				}
+			}
+		}
+
+		@Override
+		protected IntPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Integer[][][] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Integer> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Integer> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Integer> {}
+	}
+
+	protected Integer createSample() {
+		return -1;
+	}
+	
+	@Test
+	public void testPrimitiveAccessors() {
+		IntPackedArray array = new IntPackedArray(new int[] {2, 2});
+		assertThat(array.getInt(1, 1), is(equalTo(0)));
+		assertThat(array.setInt(42, 1, 1), is(equalTo(0)));
+		assertThat(array.getInt(1, 1), is(equalTo(42)));
+		assertThat(array.get(1, 1), is(equalTo((Integer) 42)));
+	}
+	
+	@Test
+	public void testUnsetCellsReadZero() {
+		IntPackedArray array = new IntPackedArray(new int[] {2, 2});
+		assertThat(array.get(0, 1), is(equalTo((Object) 0)));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void testRejectsNull() {
+		new IntPackedArray(new int[] {2, 2}).set(null, 0, 1);
+	}
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongHashMapUnitTest {
+	@Test
+	public void testPutGetRemove() {
+		LongHashMap<String> map = new LongHashMap<String>();
+		
+		assertThat(map.put(0, "zero"), is(nullValue(String.class)));
+		assertThat(map.put(-1, "minus one"), is(nullValue(String.class)));
+		assertThat(map.put(Long.MAX_VALUE, "max"), is(nullValue(String.class)));
+		assertThat(map.size(), is(equalTo(3)));
+		
+		assertThat(map.get(0), is(equalTo("zero")));
+		assertThat(map.get(-1), is(equalTo("minus one")));
+		assertThat(map.get(Long.MAX_VALUE), is(equalTo("max")));
+		assertThat(map.get(1), is(nullValue(String.class)));
+		
+		assertThat(map.put(0, null), is(equalTo("zero")));
+		assertThat(map.remove(-1), is(equalTo("minus one")));
+		assertThat(map.size(), is(equalTo(1)));
+		assertThat(map.get(0), is(nullValue(String.class)));
+		assertThat(map.get(-1), is(nullValue(String.class)));
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		LongHashMap<Integer> subject = new LongHashMap<Integer>();
+		Map<Long, Integer> model = new HashMap<Long, Integer>();
+		Random random = new Random(0);
+		
+		// a small key range forces collisions, growth and backward shifts
+		for (int i = 0; i < 100000; i++) {
+			long key = random.nextInt(2000) - 1000;
+			
+			if (random.nextInt(3) == 0)
+				assertThat(subject.remove(key), is(equalTo(model.remove(key))));
+			else
+				assertThat(subject.put(key, i), is(equalTo(model.put(key, i))));
+		}
+		
+		assertThat(subject.size(), is(equalTo(model.size())));
+		for (long key = -1000; key < 1000; key++)
+			assertThat(subject.get(key), is(equalTo(model.get(key))));
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class LongKeyMultiDimensionalMapUnitTest {
+	@Test
+	public void testFixedArity() {
+		LongKeyMultiDimensionalMap<String> map = new LongKeyMultiDimensionalMap<String>(new PackedArray<String>(new int[] {3, 2}));
+		
+		map.put("a", 0, 10);
+		map.put("b", -1, Long.MAX_VALUE);
+		map.put("c", 0, Long.MAX_VALUE);
+		
+		assertThat(map.get(0, 10), is(equalTo("a")));
+		assertThat(map.get(-1, Long.MAX_VALUE), is(equalTo("b")));
+		assertThat(map.get(0, Long.MAX_VALUE), is(equalTo("c")));
+		assertThat(map.get(-1, 10), is(nullValue()));
+		assertThat(map.get(5, 10), is(nullValue()));
+		
+		assertThat(map.length(0), is(equalTo(2)));
+		assertThat(map.length(1), is(equalTo(2)));
+	}
+
+	@Test
+	public void testVarargs() {
+		LongKeyMultiDimensionalMap<String> map = new LongKeyMultiDimensionalMap<String>(4);
+		
+		for (long i = 0; i < 100; i++) {
+			map.put("[" + i + "]", i, i % 3, i % 5, 42);
+		}
+		
+		for (long i = 0; i < 100; i++) {
+			assertThat(map.get(i, i % 3, i % 5, 42), is(equalTo("[" + i + "]")));
+			assertThat(map.get(i, i % 3, i % 5, 43), is(nullValue()));
+		}
+		
+		assertThat(map.length(0), is(equalTo(100)));
+		assertThat(map.length(1), is(equalTo(3)));
+		assertThat(map.length(2), is(equalTo(5)));
+		assertThat(map.length(3), is(equalTo(1)));
+	}
+
+	@Test
+	public void testGrowing() {
+		LongKeyMultiDimensionalMap<Long> map = new LongKeyMultiDimensionalMap<Long>(1);
+		
+		for (long i = 0; i < 10000; i++) {
+			map.put(i * 7, i * 7);
+		}
+		
+		assertThat(map.length(0), is(equalTo(10000)));
+		for (long i = 0; i < 10000; i++) {
+			assertThat(map.get(i * 7), is(equalTo(i * 7)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongNumberOfDimensions() {
+		new LongKeyMultiDimensionalMap<String>(2).get(1, 2, 3);
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testCapacityExhausted() {
+		LongKeyMultiDimensionalMap<String> map = new LongKeyMultiDimensionalMap<String>(new PackedArray<String>(new int[] {1}));
+		
+		map.put("a", 1);
+		map.put("b", 2);
+	}
+
+	@Test
+	public void testFullDimensionLeavesNoKey() {
+		LongKeyMultiDimensionalMap<String> map = new LongKeyMultiDimensionalMap<String>(new PackedArray<String>(new int[] {2, 2, 2, 1}));
+		map.put("a", 0L, 0L, 0L, 0L);
+		
+		try {
+			map.put("b", 1L, 1L, 1L, 1L);
+			fail("Should have thrown " + ArrayIndexOutOfBoundsException.class);
+		} catch (ArrayIndexOutOfBoundsException expected) {
+		}
+		
+		for (int d = 0; d < 4; d++)
+			assertThat(map.length(d), is(equalTo(1)));
+	}
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongOrdinalIndexUnitTest {
+	@Test
+	public void testAddIndexOf() {
+		LongOrdinalIndex index = new LongOrdinalIndex();
+		
+		assertThat(index.indexOf(7), is(equalTo(-1)));
+		assertThat(index.indexOf(0), is(equalTo(-1)));
+		
+		assertThat(index.add(7), is(equalTo(0)));
+		assertThat(index.add(0), is(equalTo(1)));
+		assertThat(index.add(Long.MIN_VALUE), is(equalTo(2)));
+		assertThat(index.add(7), is(equalTo(0)));
+		assertThat(index.add(0), is(equalTo(1)));
+		assertThat(index.size(), is(equalTo(3)));
+		
+		assertThat(index.indexOf(7), is(equalTo(0)));
+		assertThat(index.indexOf(0), is(equalTo(1)));
+		assertThat(index.indexOf(Long.MIN_VALUE), is(equalTo(2)));
+		assertThat(index.indexOf(-7), is(equalTo(-1)));
+		
+		assertThat(index.key(0), is(equalTo(7L)));
+		assertThat(index.key(1), is(equalTo(0L)));
+		assertThat(index.key(2), is(equalTo(Long.MIN_VALUE)));
+	}
+
+	@Test
+	public void testAgainstList() {
+		LongOrdinalIndex subject = new LongOrdinalIndex(0);
+		List<Long> model = new ArrayList<Long>();
+		Random random = new Random(0);
+		
+		for (int i = 0; i < 50000; i++) {
+			long key = (long) (random.nextInt(5000) - 2500) << 32;
+			
+			if (!model.contains(key))
+				model.add(key);
+			
+			assertThat(subject.add(key), is(equalTo(model.indexOf(key))));
+		}
+		
+		assertThat(subject.size(), is(equalTo(model.size())));
+		for (int i = 0; i < model.size(); i++) {
+			assertThat(subject.indexOf(model.get(i)), is(equalTo(i)));
+			assertThat(subject.key(i), is(equalTo((long) model.get(i))));
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public abstract class LongPackedArrayUnitTest extends MultiDimensionalArrayAbstractUnitTest<Long> {
+	
+	public static class OneDimension extends LongPackedArrayUnitTest {
+		LongPackedArray array;
+		int[] sizes;
+		Long[] model;
+
+		{
+			sizes = new int[] {6};
+			
+			array = new LongPackedArray(sizes);
+			array.setLong(0L, 0);
+			array.setLong(1L, 1);
+			array.setLong(2L, 2);
+			array.setLong(3L, 3);
+			array.setLong(4L, 4);
+			array.setLong(5L, 5);
+			
+			model = new Long[] {0L, 1L, 2L, 3L, 4L, 5L};
+		}
+
+		@Override
+		protected LongPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Long[] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Long> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Long> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Long> {}
+	}
+	
+	public static class TwoDimensions extends LongPackedArrayUnitTest {
+		LongPackedArray array;
+		int[] sizes;
+		Long[][] model;
+
+		{
+			sizes = new int[] {3, 4};
+			
+			array = new LongPackedArray(sizes);
+			model = new Long[3][4];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					long data = i*4 + j;
+					
+					model[i][j] = data;
+					array.setLong(data, i, j);
+				}
+			}
+		}
+
+		@Override
+		protected LongPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Long[][] createModel() {
+			return model;
+		}
+
+		@Test
+		public void testViews() {
+			LongPackedArray slice = array.slice(1, 1, 3);
+			assertThat(slice.length(), is(equalTo(new int[] {3, 2})));
+			assertThat(slice.getLong(0, 0), is(equalTo(1L)));
+			assertThat(slice.getLong(2, 1), is(equalTo(10L)));
+			
+			LongPackedArray transposition = array.transpose();
+			assertThat(transposition.length(), is(equalTo(new int[] {4, 3})));
+			assertThat(transposition.getLong(3, 1), is(equalTo(7L)));
+			
+			LongPackedArray swappedSlice = slice.swap(0, 1);
+			assertThat(swappedSlice.getLong(1, 2), is(equalTo(10L)));
+			
+			swappedSlice.setLong(-1L, 0, 0);
+			assertThat(array.getLong(0, 1), is(equalTo(-1L)));
+		}
+
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Long> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Long> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Long> {}
+	}
+
+	public static class ThreeDimensions extends LongPackedArrayUnitTest {
+		LongPackedArray array;
+		int[] sizes;
+		Long[][][] model;
+		
+		{
+			sizes = new int[] {4, 2, 3};
+			
+			array = new LongPackedArray(sizes);
+			model = new Long[4][2][3];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					for(int k = 0; k < sizes[2]; k++) {
+						long data = i*6 + j*3 + k;
+						
+						model[i][j][k] = data;
+						array.setLong(data, i, j, k);
+					}
+				}
+			}
+		}
+
+		@Override
+		protected LongPackedArray createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Long[][][] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Long> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Long> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Long> {}
+	}
+
+	protected Long createSample() {
+		return -1L;
+	}
+	
+	@Test
+	public void testPrimitiveAccessors() {
+		LongPackedArray array = new LongPackedArray(new int[] {2, 2});
+		assertThat(array.getLong(1, 1), is(equalTo(0L)));
+		assertThat(array.setLong(42L, 1, 1), is(equalTo(0L)));
+		assertThat(array.getLong(1, 1), is(equalTo(42L)));
+		assertThat(array.get(1, 1), is(equalTo((Long) 42L)));
+	}
+	
+	@Test
+	public void testUnsetCellsReadZero() {
+		LongPackedArray array = new LongPackedArray(new int[] {2, 2});
+		assertThat(array.get(0, 1), is(equalTo((Object) 0L)));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void testRejectsNull() {
+		new LongPackedArray(new int[] {2, 2}).set(null, 0, 1);
+	}
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedPackedArrayUnitTest {
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("mapped", ".mda");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testCreateAndReopen() throws IOException {
+		MappedPackedArray<Integer> array = MappedPackedArray.create(file, Integer.class, 3, 4);
+		for(int i = 0; i < 3; i++) {
+			for(int j = 0; j < 4; j++) {
+				array.setInt(i*4 + j, i, j);
+			}
+		}
+		array.close();
+		
+		MappedPackedArray<?> reopened = MappedPackedArray.open(file);
+		try {
+			assertThat(reopened.elementType(), is(equalTo((Object) Integer.class)));
+			assertThat(reopened.length(), is(equalTo(new int[] {3, 4})));
+			assertThat(reopened.getInt(0, 0), is(equalTo(0)));
+			assertThat(reopened.getInt(1, 2), is(equalTo(6)));
+			assertThat(reopened.getInt(2, 3), is(equalTo(11)));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void testOpenReadOnly() throws IOException {
+		MappedPackedArray<Long> array = MappedPackedArray.create(file, Long.class, 2, 2);
+		array.setLong(42L, 1, 0);
+		array.close();
+		file.setReadOnly();
+		
+		MappedPackedArray<Long> reopened = MappedPackedArray.open(file, Long.class, MapMode.READ_ONLY);
+		try {
+			assertThat(reopened.getLong(1, 0), is(equalTo(42L)));
+			assertThat(reopened.get(1, 0), is(equalTo((Long) 42L)));
+			
+			try {
+				reopened.set(1L, 1, 0);
+				fail("Should have thrown " + UnsupportedOperationException.class);
+			} catch (UnsupportedOperationException expected) {
+			}
+			
+			try {
+				reopened.setLong(1L, 0, 0);
+				fail("Should have thrown " + UnsupportedOperationException.class);
+			} catch (UnsupportedOperationException expected) {
+			}
+			
+			assertThat(reopened.getLong(1, 0), is(equalTo(42L)));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void testViewsShareMapping() throws IOException {
+		MappedPackedArray<Double> array = MappedPackedArray.create(file, Double.class, 3, 4);
+		try {
+			MappedPackedArray<Double> view = array.slice(1, 1, 3).transpose();
+			assertThat(view.length(), is(equalTo(new int[] {2, 3})));
+			
+			view.setDouble(42d, 1, 2);
+			assertThat(array.getDouble(2, 2), is(equalTo(42d)));
+		} finally {
+			array.close();
+		}
+		
+		MappedPackedArray<Double> reopened = MappedPackedArray.open(file, Double.class);
+		try {
+			assertThat(reopened.get(2, 2), is(equalTo(42d)));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	public void testOpenWithWrongType() throws IOException {
+		MappedPackedArray.create(file, Long.class, 2).close();
+		
+		try {
+			MappedPackedArray.open(file, Float.class);
+			fail("Should have thrown " + IOException.class);
+		} catch (IOException expected) {
+		}
+	}
+
+	@Test
+	public void testOpenGarbage() throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+		} finally {
+			out.close();
+		}
+		
+		try {
+			MappedPackedArray.open(file);
+			fail("Should have thrown " + IOException.class);
+		} catch (IOException expected) {
+		}
+	}
+
+	@Test
+	public void testOpenTruncated() throws IOException {
+		MappedPackedArray.create(file, Long.class, 2).close();
+		
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.getChannel().truncate(20);
+		} finally {
+			raf.close();
+		}
+		
+		try {
+			MappedPackedArray.open(file);
+			fail("Should have thrown " + IOException.class);
+		} catch (IOException expected) {
+		}
+	}
+
+	@Test
+	public void testOpenHugeDimensionCount() throws IOException {
+		MappedPackedArray.create(file, Long.class, 2).close();
+		patch(8, Integer.MAX_VALUE);
+		
+		try {
+			MappedPackedArray.open(file);
+			fail("Should have thrown " + IOException.class);
+		} catch (IOException expected) {
+			assertThat(expected.getMessage().contains("dimensions"), is(true));
+		}
+	}
+
+	@Test
+	public void testOpenNegativeLength() throws IOException {
+		MappedPackedArray.create(file, Long.class, 2, 2).close();
+		patch(16, -1);
+		
+		try {
+			MappedPackedArray.open(file);
+			fail("Should have thrown " + IOException.class);
+		} catch (IOException expected) {
+			assertThat(expected.getMessage().contains("negative length -1 along dimension 1"), is(true));
+		}
+	}
+
+	@Test
+	public void testOpenTooManyCells() throws IOException {
+		MappedPackedArray.create(file, Integer.class, 1, 1).close();
+		patch(12, 1 << 16);
+		patch(16, 1 << 16);
+		
+		try {
+			MappedPackedArray.open(file);
+			fail("Should have thrown " + IOException.class);
+		} catch (IOException expected) {
+			assertThat(expected.getMessage().contains("cells"), is(true));
+		}
+	}
+
+	private void patch(long position, int value) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.seek(position);
+			raf.writeInt(value);
+		} finally {
+			raf.close();
+		}
+	}
+}
@@ -34,9 +34,14 @@ import static org.junit.Assume.assumeThat;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -64,6 +69,11 @@ public abstract class MultiDimensionalArrayAbstractUnitTest<V> {
 
 	protected abstract V createSample();
 
+	// arrays that box their elements on the way out can only be asked for equality
+	protected Matcher<V> sameElementAs(V element) {
+		return sameInstance(element);
+	}
+
 	@Test
 	public void testDimensions() {
 		assertThat(subject.dimensions(), is(equalTo(sizes.length)));
@@ -119,8 +129,8 @@ public abstract class MultiDimensionalArrayAbstractUnitTest<V> {
 			assertThat(newData, is(not(equalTo(modelData))));
 			assertThat(oldData, is(equalTo(modelData)));
 			
-			assertThat(subject.set(newData, address), is(sameInstance(oldData)));
-			assertThat(subject.get(address), is(sameInstance(newData)));
+			assertThat(subject.set(newData, address), is(sameElementAs(oldData)));
+			assertThat(subject.get(address), is(sameElementAs(newData)));
 		}
 	}
 
@@ -134,6 +144,141 @@ public abstract class MultiDimensionalArrayAbstractUnitTest<V> {
 		}
 	}
 
+	@Test
+	public void testFixedArityAccessorsAtValidAddress() {
+		assumeThat(sizes.length, is(greaterThan(0)));
+		assumeThat(sizes.length, is(not(greaterThan(3))));
+		
+		Iterator<int[]> addresses = allAddresses(sizes);
+		
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			V modelData = model.get(address);
+			V newData = createSample();
+			
+			assertThat(getFixedArity(subject, address), is(equalTo(modelData)));
+			assertThat(setFixedArity(subject, newData, address), is(equalTo(modelData)));
+			assertThat(subject.get(address), is(sameElementAs(newData)));
+			assertThat(getFixedArity(subject, address), is(sameElementAs(newData)));
+		}
+	}
+
+	@Test
+	public void testFixedArityAccessorsAlongBoundaryAddress() {
+		assumeThat(sizes.length, is(greaterThan(0)));
+		assumeThat(sizes.length, is(not(greaterThan(3))));
+		
+		Iterator<int[]> addresses = allBoundaryAddresses();
+		
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			
+			try {
+				getFixedArity(subject, address);
+				fail("Should have thrown " + ArrayIndexOutOfBoundsException.class);
+			} catch (ArrayIndexOutOfBoundsException expected) {
+			}
+			
+			try {
+				setFixedArity(subject, null, address);
+				fail("Should have thrown " + ArrayIndexOutOfBoundsException.class);
+			} catch (ArrayIndexOutOfBoundsException expected) {
+			}
+		}
+	}
+
+	@Test
+	public void testCursorWalksEveryElement() {
+		Iterator<int[]> addresses = allAddresses(sizes);
+		Cursor<V> cursor = subject.cursor();
+		
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			
+			assertThat(cursor.advance(), is(equalTo(true)));
+			for (int i = 0; i < address.length; i++)
+				assertThat(cursor.coordinate(i), is(equalTo(address[i])));
+			
+			assertThat(cursor.get(), is(equalTo(model.get(address))));
+		}
+		
+		assertThat(cursor.advance(), is(equalTo(false)));
+		assertThat(cursor.advance(), is(equalTo(false)));
+	}
+
+	@Test
+	public void testCursorSetsElements() {
+		Cursor<V> cursor = subject.cursor();
+		
+		while(cursor.advance()) {
+			V oldData = cursor.get();
+			V newData = createSample();
+			
+			assertThat(cursor.set(newData), is(sameElementAs(oldData)));
+			assertThat(cursor.get(), is(sameElementAs(newData)));
+		}
+		
+		Iterator<int[]> addresses = allAddresses(sizes);
+		while(addresses.hasNext()) {
+			assertThat(subject.get(addresses.next()), is(equalTo(createSample())));
+		}
+	}
+
+	@Test
+	public void testElementsStreamWalksEveryElement() {
+		Iterator<int[]> addresses = allAddresses(sizes);
+		Iterator<V> elements = subject.elements().iterator();
+		
+		while(addresses.hasNext()) {
+			assertThat(elements.hasNext(), is(equalTo(true)));
+			assertThat(elements.next(), is(equalTo(model.get(addresses.next()))));
+		}
+		
+		assertThat(elements.hasNext(), is(equalTo(false)));
+	}
+
+	@Test
+	public void testAddressesStreamWalksEveryAddress() {
+		Iterator<int[]> expected = allAddresses(sizes);
+		Iterator<int[]> addresses = subject.addresses().iterator();
+		
+		while(expected.hasNext()) {
+			assertThat(addresses.hasNext(), is(equalTo(true)));
+			assertThat(addresses.next(), is(equalTo(expected.next())));
+		}
+		
+		assertThat(addresses.hasNext(), is(equalTo(false)));
+	}
+
+	@Test
+	public void testEntriesStreamWalksEveryCell() {
+		Iterator<int[]> addresses = allAddresses(sizes);
+		Iterator<Map.Entry<int[], V>> entries = subject.entries().iterator();
+		
+		while(addresses.hasNext()) {
+			int[] address = addresses.next();
+			
+			assertThat(entries.hasNext(), is(equalTo(true)));
+			Map.Entry<int[], V> entry = entries.next();
+			assertThat(entry.getKey(), is(equalTo(address)));
+			assertThat(entry.getValue(), is(equalTo(model.get(address))));
+		}
+		
+		assertThat(entries.hasNext(), is(equalTo(false)));
+	}
+
+	@Test
+	public void testParallelStreamsKeepOrder() {
+		List<V> expected = new ArrayList<V>();
+		Iterator<int[]> addresses = allAddresses(sizes);
+		while(addresses.hasNext())
+			expected.add(model.get(addresses.next()));
+		
+		assertThat(subject.elements().parallel().collect(Collectors.toList()), is(equalTo(expected)));
+		assertThat(subject.addresses().parallel().count(), is(equalTo((long) expected.size())));
+		assertThat(subject.entries().parallel().map(Map.Entry::getValue).collect(Collectors.toList()), is(equalTo(expected)));
+	}
+
 	@Test
 	public void testCellIndependency() {
 		Iterator<int[]> targetAddresses = allAddresses(sizes);
@@ -295,6 +440,24 @@ public abstract class MultiDimensionalArrayAbstractUnitTest<V> {
 		};
 	}
 	
+	private static <V> V getFixedArity(MultiDimensionalArray<V> array, int... pos) {
+		switch (pos.length) {
+		case 1: return array.get(pos[0]);
+		case 2: return array.get(pos[0], pos[1]);
+		case 3: return array.get(pos[0], pos[1], pos[2]);
+		default: throw new IllegalArgumentException();
+		}
+	}
+
+	private static <V> V setFixedArity(MultiDimensionalArray<V> array, V element, int... pos) {
+		switch (pos.length) {
+		case 1: return array.set(element, pos[0]);
+		case 2: return array.set(element, pos[0], pos[1]);
+		case 3: return array.set(element, pos[0], pos[1], pos[2]);
+		default: throw new IllegalArgumentException();
+		}
+	}
+
 	public static <V, E extends RuntimeException> void getAndExpect(Class<E> clazz, MultiDimensionalArray<V> array, int... pos) {
 		try {
 			array.get(pos);
@@ -349,6 +512,11 @@ public abstract class MultiDimensionalArrayAbstractUnitTest<V> {
 		protected V createSample() {
 			return enclosing.createSample();
 		}
+
+		@Override
+		protected Matcher<V> sameElementAs(V element) {
+			return enclosing.sameElementAs(element);
+		}
 	}
 
 	public abstract static class ConstructorFromItself<V> extends RecursiveUnitTest<V> {
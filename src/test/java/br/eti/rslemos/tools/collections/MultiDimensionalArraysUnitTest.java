@@ -789,6 +789,196 @@ public abstract class MultiDimensionalArraysUnitTest {
 		}
 	}
 
+	public static class BulkCopy {
+		
+		@Test
+		public void testCopyBetweenPackedArrays() {
+			PackedArray<String> source = new PackedArray<String>(new String[][] {
+					{ "[0, 0]", "[0, 1]", "[0, 2]" },
+					{ "[1, 0]", "[1, 1]", "[1, 2]" },
+				}, 2, 3);
+			PackedArray<String> destination = new PackedArray<String>(new int[] {3, 4});
+			
+			MultiDimensionalArrays.copy(source, new int[] {0, 1}, destination, new int[] {1, 0}, new int[] {2, 2});
+			
+			assertThat(destination.toString(), is(equalTo(
+					"[[null, null, null, null], [[0, 1], [0, 2], null, null], [[1, 1], [1, 2], null, null]]")));
+		}
+		
+		@Test
+		public void testCopyBetweenPrimitiveArrays() {
+			IntPackedArray source = new IntPackedArray(new Integer[][] {
+					{ 1, 2, 3 },
+					{ 4, 5, 6 },
+				}, 2, 3);
+			IntPackedArray destination = new IntPackedArray(new int[] {2, 3});
+			
+			MultiDimensionalArrays.copy(source, destination);
+			
+			assertThat(destination.equals(source), is(equalTo(true)));
+		}
+		
+		@Test
+		public void testCopyIntoTransposedView() {
+			PackedArray<String> source = new PackedArray<String>(new String[][] {
+					{ "[0, 0]", "[0, 1]", "[0, 2]" },
+					{ "[1, 0]", "[1, 1]", "[1, 2]" },
+				}, 2, 3);
+			PackedArray<String> destination = new PackedArray<String>(new int[] {3, 2}).transpose();
+			
+			MultiDimensionalArrays.copy(source, destination);
+			
+			assertThat(destination.equals(source), is(equalTo(true)));
+		}
+		
+		@Test
+		public void testCopyFromItselfForward() {
+			SimplePackedArray<Integer> array = new SimplePackedArray<Integer>(new Integer[][] {
+					{ 0, 1 },
+					{ 2, 3 },
+					{ 4, 5 },
+					{ null, null },
+				}, 4, 2);
+			
+			MultiDimensionalArrays.copy(array, new int[] {0, 0}, array, new int[] {1, 0});
+			
+			assertThat(array.toString(), is(equalTo("[[0, 1], [0, 1], [2, 3], [4, 5]]")));
+		}
+		
+		@Test
+		public void testCopyFromItselfBackward() {
+			SimplePackedArray<Integer> array = new SimplePackedArray<Integer>(new Integer[][] {
+					{ 0, 1 },
+					{ 2, 3 },
+					{ 4, 5 },
+					{ 6, 7 },
+				}, 4, 2);
+			
+			MultiDimensionalArrays.copy(array, new int[] {1, 0}, array, new int[] {0, 0}, new int[] {3, 2});
+			
+			assertThat(array.toString(), is(equalTo("[[2, 3], [4, 5], [6, 7], [6, 7]]")));
+		}
+		
+		@Test
+		public void testCopyFromItselfDiagonally() {
+			PackedArray<Integer> array = new PackedArray<Integer>(new Integer[][] {
+					{ 0, 1, 2 },
+					{ 3, 4, 5 },
+					{ 6, 7, 8 },
+				}, 3, 3);
+			
+			MultiDimensionalArrays.copy(array, new int[] {0, 0}, array, new int[] {1, 1});
+			
+			assertThat(array.toString(), is(equalTo("[[0, 1, 2], [3, 0, 1], [6, 3, 4]]")));
+		}
+	}
+
+	public static class Parallel {
+		
+		private PackedArray<Integer> source;
+		
+		@Before
+		public void setUp() {
+			source = new PackedArray<Integer>(new int[] {37, 23});
+			
+			Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(source.length());
+			while (addresses.hasNext()) {
+				int[] address = addresses.next();
+				source.set(address[0] * 100 + address[1], address);
+			}
+		}
+		
+		@Test
+		public void testParallelCopy() {
+			PackedArray<Integer> destination = new PackedArray<Integer>(new int[] {37, 23});
+			
+			MultiDimensionalArrays.parallelCopy(source, destination, 16);
+			
+			assertThat(destination.equals(source), is(equalTo(true)));
+		}
+		
+		@Test
+		public void testParallelCopyRegion() {
+			PackedArray<Integer> expected = new PackedArray<Integer>(new int[] {40, 30});
+			PackedArray<Integer> destination = new PackedArray<Integer>(new int[] {40, 30});
+			
+			MultiDimensionalArrays.copy(source, new int[] {3, 5}, expected, new int[] {10, 2}, new int[] {30, 17});
+			MultiDimensionalArrays.parallelCopy(source, new int[] {3, 5}, destination, new int[] {10, 2}, new int[] {30, 17}, 7);
+			
+			assertThat(destination.equals(expected), is(equalTo(true)));
+		}
+		
+		@Test
+		public void testParallelCopyBetweenDisjointSlices() {
+			PackedArray<Integer> upper = source.slice(0, 0, 18);
+			PackedArray<Integer> lower = source.slice(0, 18, 36);
+			PackedArray<Integer> expected = new PackedArray<Integer>(lower);
+			
+			MultiDimensionalArrays.parallelCopy(lower, upper, 16);
+			
+			assertThat(upper.equals(expected), is(equalTo(true)));
+			assertThat(lower.equals(expected), is(equalTo(true)));
+		}
+		
+		@Test
+		public void testParallelCopyOntoOverlappingRegion() {
+			PackedArray<Integer> expected = new PackedArray<Integer>(source);
+			
+			MultiDimensionalArrays.copy(expected, new int[] {0, 0}, expected, new int[] {1, 1}, new int[] {36, 22});
+			MultiDimensionalArrays.parallelCopy(source, new int[] {0, 0}, source, new int[] {1, 1}, new int[] {36, 22}, 16);
+			
+			assertThat(source.equals(expected), is(equalTo(true)));
+		}
+		
+		@Test
+		public void testParallelFill() {
+			MultiDimensionalArrays.parallelFill(source, 42, 16);
+			
+			Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(source.length());
+			while (addresses.hasNext())
+				assertThat(source.get(addresses.next()), is(equalTo(42)));
+		}
+		
+		@Test
+		public void testParallelFillRegion() {
+			PackedArray<Integer> expected = new PackedArray<Integer>(source);
+			
+			MultiDimensionalArrays.fill(expected, new int[] {2, 3}, new int[] {30, 10}, null);
+			MultiDimensionalArrays.parallelFill(source, new int[] {2, 3}, new int[] {30, 10}, null, 16);
+			
+			assertThat(source.equals(expected), is(equalTo(true)));
+		}
+		
+		@Test
+		public void testParallelFillSparse() {
+			SparsePackedArray<Integer> destination = new SparsePackedArray<Integer>(new int[] {400, 500});
+			
+			MultiDimensionalArrays.parallelFill(destination, 7, 1000);
+			
+			assertThat(destination.cells.size(), is(equalTo(400 * 500)));
+			Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(destination.length());
+			while (addresses.hasNext())
+				assertThat(destination.get(addresses.next()), is(equalTo(7)));
+		}
+		
+		@Test
+		public void testParallelCopySparse() {
+			PackedArray<Integer> wide = new PackedArray<Integer>(new int[] {400, 500});
+			MultiDimensionalArrays.fill(wide, 7);
+			SparsePackedArray<Integer> destination = new SparsePackedArray<Integer>(new int[] {400, 500});
+			
+			MultiDimensionalArrays.parallelCopy(wide, destination, 1000);
+			
+			assertThat(destination.cells.size(), is(equalTo(400 * 500)));
+			assertThat(destination.equals(wide), is(equalTo(true)));
+		}
+		
+		@Test(expected = IllegalArgumentException.class)
+		public void testIllegalThreshold() {
+			MultiDimensionalArrays.parallelFill(source, 42, 0);
+		}
+	}
+
 	private static <T> List<T> asList(Iterator<T> it) {
 		ArrayList<T> list = new ArrayList<T>();
 		
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MultiDimensionalMapsUnitTest {
+	
+	private OrderedMultiDimensionalMap<String, Integer> sales;
+	
+	@Before
+	public void setUp() {
+		// region x year x product
+		sales = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {3, 3, 3}));
+		sales.put(10, "north", "2020", "apples");
+		sales.put(20, "north", "2021", "apples");
+		sales.put(30, "north", "2021", "pears");
+		sales.put(40, "south", "2020", "apples");
+		sales.put( 1, "south", "2020", "plums");
+	}
+	
+	@Test
+	public void testRollUpOneDimension() {
+		OrderedMultiDimensionalMap<String, Integer> byRegionAndProduct = MultiDimensionalMaps.rollUp(sales, Collectors.summingInt((Integer x) -> x), 1);
+		
+		assertThat(byRegionAndProduct.dimensions(), is(equalTo(2)));
+		assertThat(byRegionAndProduct.length(0), is(equalTo(2)));
+		assertThat(byRegionAndProduct.length(1), is(equalTo(3)));
+		
+		assertThat(byRegionAndProduct.get("north", "apples"), is(equalTo(30)));
+		assertThat(byRegionAndProduct.get("north", "pears"), is(equalTo(30)));
+		assertThat(byRegionAndProduct.get("south", "apples"), is(equalTo(40)));
+		assertThat(byRegionAndProduct.get("south", "plums"), is(equalTo(1)));
+		assertThat(byRegionAndProduct.get("north", "plums"), is(nullValue()));
+		assertThat(byRegionAndProduct.get("east", "plums"), is(nullValue()));
+	}
+	
+	@Test
+	public void testRollUpTwoDimensions() {
+		OrderedMultiDimensionalMap<String, String> byYear = MultiDimensionalMaps.rollUp(sales, 
+				Collectors.mapping((Integer x) -> String.valueOf(x), Collectors.joining(",")), 2, 0);
+		
+		assertThat(byYear.length(0), is(equalTo(2)));
+		assertThat(byYear.get("2020"), is(equalTo("10,40,1")));
+		assertThat(byYear.get("2021"), is(equalTo("20,30")));
+	}
+	
+	@Test
+	public void testRollUpNothing() {
+		OrderedMultiDimensionalMap<String, Long> counts = MultiDimensionalMaps.rollUp(sales, Collectors.counting());
+		
+		assertThat(counts.get("north", "2021", "pears"), is(equalTo(1L)));
+		assertThat(counts.get("north", "2020", "pears"), is(nullValue()));
+	}
+	
+	@Test
+	public void testPrimitiveRollUps() {
+		OrderedMultiDimensionalMap<String, Integer> ints = MultiDimensionalMaps.rollUpToInt(sales, x -> x, 0, Math::max, 0, 2);
+		assertThat(ints.get("2020"), is(equalTo(40)));
+		assertThat(ints.get("2021"), is(equalTo(30)));
+		assertThat(ints.array(), is(instanceOf(IntPackedArray.class)));
+		assertThat(((IntPackedArray) ints.array()).getInt(ints.index(0).indexOf("2020")), is(equalTo(40)));
+		
+		OrderedMultiDimensionalMap<String, Long> longs = MultiDimensionalMaps.rollUpToLong(sales, x -> x, 1, (x, y) -> x * y, 1, 2);
+		assertThat(longs.get("north"), is(equalTo(6000L)));
+		assertThat(longs.get("south"), is(equalTo(40L)));
+		
+		OrderedMultiDimensionalMap<String, Double> doubles = MultiDimensionalMaps.rollUpToDouble(sales, x -> x / 2.0, 0, Double::sum, 0);
+		assertThat(doubles.get("2020", "apples"), is(equalTo(25.0)));
+		assertThat(doubles.get("2021", "plums"), is(equalTo(0.0)));
+	}
+	
+	@Test
+	public void testParallelRollUp() {
+		int[] sizes = { 60, 70, 50 };
+		OrderedMultiDimensionalMap<Integer, Integer> cube = new OrderedMultiDimensionalMap<Integer, Integer>(new PackedArray<Integer>(sizes));
+		long[][] expected = new long[sizes[0]][sizes[2]];
+		long total = 0;
+		
+		for (int i = 0; i < sizes[0]; i++) {
+			for (int j = 0; j < sizes[1]; j++) {
+				for (int k = 0; k < sizes[2]; k++) {
+					if ((i + j + k) % 5 != 0) {
+						int value = i * j - k;
+						cube.put(value, i, j, k);
+						expected[i][k] += value;
+						total += value;
+					}
+				}
+			}
+		}
+		
+		OrderedMultiDimensionalMap<Integer, Long> byIK = MultiDimensionalMaps.rollUpToLong(cube, x -> x, 0, Long::sum, 1);
+		for (int i = 0; i < sizes[0]; i++) {
+			for (int k = 0; k < sizes[2]; k++)
+				assertThat(byIK.get(i, k), is(equalTo(expected[i][k])));
+		}
+		
+		OrderedMultiDimensionalMap<Integer, Long> all = MultiDimensionalMaps.rollUp(
+				MultiDimensionalMaps.rollUp(cube, Collectors.summingLong((Integer x) -> x), 0, 2), 
+				Collectors.summingLong((Long x) -> x), new int[0]);
+		long actual = 0;
+		for (int j = 0; j < sizes[1]; j++)
+			actual += all.get(j);
+		assertThat(actual, is(equalTo(total)));
+	}
+	
+	@Test
+	public void testParallelRollUpOfSingleGroup() {
+		OrderedMultiDimensionalMap<Integer, Integer> cube = new OrderedMultiDimensionalMap<Integer, Integer>(new PackedArray<Integer>(new int[] {1, 300, 300}));
+		long total = 0;
+		
+		for (int j = 0; j < 300; j++) {
+			for (int k = 0; k < 300; k++) {
+				cube.put(j - k, 0, j, k);
+				total += j - k + 1;
+			}
+		}
+		
+		OrderedMultiDimensionalMap<Integer, Long> sum = MultiDimensionalMaps.rollUp(cube, Collectors.summingLong((Integer x) -> x + 1), 1, 2);
+		assertThat(sum.get(0), is(equalTo(total)));
+		
+		OrderedMultiDimensionalMap<Integer, Long> count = MultiDimensionalMaps.rollUp(cube, Collectors.counting(), 2, 1);
+		assertThat(count.get(0), is(equalTo(90000L)));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testCollapseEverything() {
+		MultiDimensionalMaps.rollUp(sales, Collectors.counting(), 0, 1, 2);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testCollapseTwice() {
+		MultiDimensionalMaps.rollUp(sales, Collectors.counting(), 1, 1);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testCollapseIllegalDimension() {
+		MultiDimensionalMaps.rollUp(sales, Collectors.counting(), 3);
+	}
+}
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MultiDimensionalOperationsUnitTest {
+
+	private PackedArray<Integer> small;
+	private IntPackedArray smallInts;
+	
+	// big enough to be split among tasks
+	private IntPackedArray big;
+	
+	@Before
+	public void setUp() {
+		small = new PackedArray<Integer>(new Integer[][] {
+				{ 1, 2, 3 },
+				{ 4, 5, 6 },
+			}, 2, 3);
+		smallInts = new IntPackedArray(small);
+		
+		big = new IntPackedArray(new int[] {300, 7, 50});
+		Iterator<int[]> addresses = MultiDimensionalArrays.allAddresses(big.length());
+		while (addresses.hasNext()) {
+			int[] address = addresses.next();
+			big.setInt(address[0] - address[1] + address[2] % 13, address);
+		}
+	}
+	
+	@Test
+	public void testMap() {
+		PackedArray<String> dst = new PackedArray<String>(new int[] {2, 3});
+		
+		MultiDimensionalOperations.map(small, x -> "<" + x + ">", dst);
+		
+		assertThat(dst.toString(), is(equalTo("[[<1>, <2>, <3>], [<4>, <5>, <6>]]")));
+	}
+	
+	@Test
+	public void testMapOntoTransposedView() {
+		PackedArray<Integer> dst = new PackedArray<Integer>(new int[] {3, 2}).transpose();
+		
+		MultiDimensionalOperations.map(small, x -> x * 10, dst);
+		
+		assertThat(dst.transpose().toString(), is(equalTo("[[10, 40], [20, 50], [30, 60]]")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testMapShapeMismatch() {
+		MultiDimensionalOperations.map(small, x -> x, new PackedArray<Integer>(new int[] {3, 2}));
+	}
+	
+	@Test
+	public void testZipWith() {
+		PackedArray<Integer> dst = new PackedArray<Integer>(new int[] {2, 3});
+		
+		MultiDimensionalOperations.zipWith(small, small.slice(0, 0, 2), (x, y) -> x * y, dst);
+		
+		assertThat(dst.toString(), is(equalTo("[[1, 4, 9], [16, 25, 36]]")));
+	}
+	
+	@Test
+	public void testReduce() {
+		assertThat(MultiDimensionalOperations.reduce(small, 0, (x, y) -> x + y), is(equalTo(21)));
+	}
+	
+	@Test
+	public void testReduceAlong() {
+		assertThat(MultiDimensionalOperations.reduceAlong(small, 0, (x, y) -> x + y).toString(), is(equalTo("[5, 7, 9]")));
+		assertThat(MultiDimensionalOperations.reduceAlong(small, 1, (x, y) -> x + y).toString(), is(equalTo("[6, 15]")));
+	}
+	
+	@Test
+	public void testReduceAlongEmptyDimension() {
+		PackedArray<Integer> reduced = MultiDimensionalOperations.reduceAlong(new PackedArray<Integer>(new int[] {2, 0}), 1, (x, y) -> x + y);
+		
+		assertThat(reduced.length(), is(equalTo(new int[] {2})));
+		assertThat(reduced.get(0), is(nullValue()));
+	}
+	
+	@Test
+	public void testReduceAlongSingleDimension() {
+		PackedArray<Integer> reduced = MultiDimensionalOperations.reduceAlong(small.fix(0, 1), 0, (x, y) -> x + y);
+		
+		assertThat(reduced.length(), is(equalTo(new int[] {1})));
+		assertThat(reduced.get(0), is(equalTo(15)));
+		assertThat(MultiDimensionalOperations.parallelReduceAlongInt(smallInts.fix(1, 2), 0, (x, y) -> x * y).getInt(0), is(equalTo(18)));
+	}
+	
+	@Test
+	public void testPrimitiveMap() {
+		IntPackedArray dst = new IntPackedArray(new int[] {2, 3});
+		
+		MultiDimensionalOperations.mapInt(smallInts, x -> -x, dst);
+		
+		assertThat(dst.toString(), is(equalTo("[[-1, -2, -3], [-4, -5, -6]]")));
+	}
+	
+	@Test
+	public void testPrimitiveZipWith() {
+		DoublePackedArray a = new DoublePackedArray(new Double[] { 1.0, 2.0, 3.0 }, 3);
+		DoublePackedArray dst = new DoublePackedArray(new int[] {3});
+		
+		MultiDimensionalOperations.zipWithDouble(a, a, (x, y) -> x / (x + y), dst);
+		
+		assertThat(dst.toString(), is(equalTo("[0.5, 0.5, 0.5]")));
+	}
+	
+	@Test
+	public void testPrimitiveReduce() {
+		FloatPackedArray a = new FloatPackedArray(new Float[] { 1.5f, 2.5f }, 2);
+		
+		assertThat(MultiDimensionalOperations.reduceInt(smallInts, 1, (x, y) -> x * y), is(equalTo(720)));
+		assertThat(MultiDimensionalOperations.reduceFloat(a, 0f, (x, y) -> x + y), is(equalTo(4f)));
+	}
+	
+	@Test
+	public void testPrimitiveReduceAlong() {
+		LongPackedArray a = new LongPackedArray(new Long[][][] {
+				{ { 1L, 2L }, { 3L, 4L } },
+				{ { 5L, 6L }, { 7L, 8L } },
+			}, 2, 2, 2);
+		
+		assertThat(MultiDimensionalOperations.reduceAlongLong(a, 1, (x, y) -> Math.max(x, y)).toString(), is(equalTo("[[3, 4], [7, 8]]")));
+		assertThat(MultiDimensionalOperations.reduceAlongLong(a.swap(0, 2), 2, (x, y) -> x + y).toString(), is(equalTo("[[6, 10], [8, 12]]")));
+	}
+	
+	@Test
+	public void testPrimitiveReduceAlongEmptyDimension() {
+		IntPackedArray reduced = MultiDimensionalOperations.reduceAlongInt(new IntPackedArray(new int[] {3, 0}), 1, (x, y) -> x + y);
+		
+		assertThat(reduced.toString(), is(equalTo("[0, 0, 0]")));
+		assertThat(MultiDimensionalOperations.parallelReduceAlongDouble(new DoublePackedArray(new int[] {0, 2}), 0, (x, y) -> x + y).toString(), 
+				is(equalTo("[0.0, 0.0]")));
+	}
+	
+	@Test
+	public void testParallelOntoSparse() {
+		PackedArray<Integer> boxed = new PackedArray<Integer>(big);
+		
+		PackedArray<Integer> expected = new PackedArray<Integer>(big.length());
+		SparsePackedArray<Integer> actual = new SparsePackedArray<Integer>(big.length());
+		MultiDimensionalOperations.map(boxed, x -> x * 3, expected);
+		MultiDimensionalOperations.parallelMap(boxed, x -> x * 3, actual);
+		assertThat(actual.equals(expected), is(equalTo(true)));
+		
+		MultiDimensionalOperations.zipWith(boxed, expected, (x, y) -> x - y, expected);
+		MultiDimensionalOperations.parallelZipWith(boxed, actual, (x, y) -> x - y, actual);
+		assertThat(actual.equals(expected), is(equalTo(true)));
+	}
+	
+	@Test
+	public void testParallelMatchesSequential() {
+		PackedArray<Integer> boxed = new PackedArray<Integer>(big);
+		
+		PackedArray<Integer> expected = new PackedArray<Integer>(big.length());
+		PackedArray<Integer> actual = new PackedArray<Integer>(big.length());
+		MultiDimensionalOperations.map(boxed, x -> x * 3, expected);
+		MultiDimensionalOperations.parallelMap(boxed, x -> x * 3, actual);
+		assertThat(actual.equals(expected), is(equalTo(true)));
+		
+		MultiDimensionalOperations.zipWith(boxed, expected, (x, y) -> x - y, expected);
+		MultiDimensionalOperations.parallelZipWith(boxed, actual, (x, y) -> x - y, actual);
+		assertThat(actual.equals(expected), is(equalTo(true)));
+		
+		assertThat(MultiDimensionalOperations.parallelReduce(boxed, 0, (x, y) -> x + y), 
+				is(equalTo(MultiDimensionalOperations.reduce(boxed, 0, (x, y) -> x + y))));
+		
+		for (int d = 0; d < 3; d++) {
+			assertThat(MultiDimensionalOperations.parallelReduceAlong(boxed, d, (x, y) -> x + y), 
+					is(equalTo(MultiDimensionalOperations.reduceAlong(boxed, d, (x, y) -> x + y))));
+		}
+	}
+	
+	@Test
+	public void testPrimitiveParallelMatchesSequential() {
+		IntPackedArray expected = new IntPackedArray(big.length());
+		IntPackedArray actual = new IntPackedArray(big.length());
+		MultiDimensionalOperations.mapInt(big, x -> x * 3, expected);
+		MultiDimensionalOperations.parallelMapInt(big, x -> x * 3, actual);
+		assertThat(actual.equals(expected), is(equalTo(true)));
+		
+		MultiDimensionalOperations.zipWithInt(big, expected, (x, y) -> x - y, expected);
+		MultiDimensionalOperations.parallelZipWithInt(big, actual, (x, y) -> x - y, actual);
+		assertThat(actual.equals(expected), is(equalTo(true)));
+		
+		assertThat(MultiDimensionalOperations.parallelReduceInt(big, 0, (x, y) -> x + y), 
+				is(equalTo(MultiDimensionalOperations.reduceInt(big, 0, (x, y) -> x + y))));
+		
+		for (int d = 0; d < 3; d++) {
+			assertThat(MultiDimensionalOperations.parallelReduceAlongInt(big, d, (x, y) -> x + y), 
+					is(equalTo(MultiDimensionalOperations.reduceAlongInt(big, d, (x, y) -> x + y))));
+		}
+	}
+	
+	@Test
+	public void testParallelThreshold() {
+		PackedArray<Integer> expected = new PackedArray<Integer>(new int[] {2, 3});
+		PackedArray<Integer> actual = new PackedArray<Integer>(new int[] {2, 3});
+		MultiDimensionalOperations.map(small, x -> x * 3, expected);
+		MultiDimensionalOperations.parallelMap(small, x -> x * 3, actual, 1);
+		assertThat(actual.equals(expected), is(equalTo(true)));
+		
+		assertThat(MultiDimensionalOperations.parallelReduceInt(smallInts, 0, (x, y) -> x + y, 1), is(equalTo(21)));
+		assertThat(MultiDimensionalOperations.parallelReduceAlongInt(smallInts, 1, (x, y) -> x + y, 1).toString(), is(equalTo("[6, 15]")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalParallelThreshold() {
+		MultiDimensionalOperations.parallelReduce(small, 0, (x, y) -> x + y, 0);
+	}
+}
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+
+import org.hamcrest.Matcher;
+import org.junit.Test;
+
+public abstract class OffHeapPackedArrayUnitTest extends MultiDimensionalArrayAbstractUnitTest<Double> {
+	
+	public static class OneDimension extends OffHeapPackedArrayUnitTest {
+		OffHeapPackedArray<Double> array;
+		int[] sizes;
+		Double[] model;
+
+		{
+			sizes = new int[] {6};
+			
+			array = new OffHeapPackedArray<Double>(Double.class, sizes);
+			array.setDouble(0d, 0);
+			array.setDouble(1d, 1);
+			array.setDouble(2d, 2);
+			array.setDouble(3d, 3);
+			array.setDouble(4d, 4);
+			array.setDouble(5d, 5);
+			
+			model = new Double[] {0d, 1d, 2d, 3d, 4d, 5d};
+		}
+
+		@Override
+		protected OffHeapPackedArray<Double> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Double[] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Double> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Double> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Double> {}
+	}
+	
+	public static class TwoDimensions extends OffHeapPackedArrayUnitTest {
+		OffHeapPackedArray<Double> array;
+		int[] sizes;
+		Double[][] model;
+
+		{
+			sizes = new int[] {3, 4};
+			
+			array = new OffHeapPackedArray<Double>(Double.class, sizes);
+			model = new Double[3][4];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					double data = i*4 + j;
+					
+					model[i][j] = data;
+					array.setDouble(data, i, j);
+				}
+			}
+		}
+
+		@Override
+		protected OffHeapPackedArray<Double> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected Double[][] createModel() {
+			return model;
+		}
+
+		@Test
+		public void testViews() {
+			OffHeapPackedArray<Double> slice = array.slice(1, 1, 3);
+			assertThat(slice.length(), is(equalTo(new int[] {3, 2})));
+			assertThat(slice.getDouble(0, 0), is(equalTo(1d)));
+			assertThat(slice.getDouble(2, 1), is(equalTo(10d)));
+			
+			OffHeapPackedArray<Double> transposition = array.transpose();
+			assertThat(transposition.length(), is(equalTo(new int[] {4, 3})));
+			assertThat(transposition.getDouble(3, 1), is(equalTo(7d)));
+			
+			OffHeapPackedArray<Double> swappedSlice = slice.swap(0, 1);
+			assertThat(swappedSlice.getDouble(1, 2), is(equalTo(10d)));
+			
+			swappedSlice.setDouble(-1d, 0, 0);
+			assertThat(array.getDouble(0, 1), is(equalTo(-1d)));
+		}
+
+		@Test
+		public void testCopyFromOnHeapArray() {
+			OffHeapPackedArray<Double> copy = new OffHeapPackedArray<Double>(Double.class, new JavaArrayMultiDimensionalArray<Double>(model, sizes));
+			assertThat(copy.equals(array), is(equalTo(true)));
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<Double> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<Double> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<Double> {}
+	}
+
+	// boxed doubles are never cached
+	@Override
+	protected Matcher<Double> sameElementAs(Double element) {
+		return equalTo(element);
+	}
+
+	protected Double createSample() {
+		return -1d;
+	}
+	
+	@Test
+	public void testPrimitiveAccessors() {
+		OffHeapPackedArray<Integer> array = new OffHeapPackedArray<Integer>(Integer.class, 2, 2);
+		assertThat(array.elementType(), is(equalTo(Integer.class)));
+		assertThat(array.getInt(1, 1), is(equalTo(0)));
+		assertThat(array.setInt(42, 1, 1), is(equalTo(0)));
+		assertThat(array.getInt(1, 1), is(equalTo(42)));
+		assertThat(array.get(1, 1), is(equalTo((Integer) 42)));
+		
+		try {
+			array.getDouble(1, 1);
+			fail("Should have thrown " + UnsupportedOperationException.class);
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+	
+	@Test
+	public void testClose() {
+		OffHeapPackedArray<Long> array = new OffHeapPackedArray<Long>(Long.class, 2, 2);
+		OffHeapPackedArray<Long> view = array.transpose();
+		
+		array.close();
+		
+		try {
+			array.getLong(0, 0);
+			fail("Should have thrown " + IllegalStateException.class);
+		} catch (IllegalStateException expected) {
+		}
+		
+		try {
+			view.get(0, 0);
+			fail("Should have thrown " + IllegalStateException.class);
+		} catch (IllegalStateException expected) {
+		}
+	}
+	
+	@Test
+	public void testCloseViewKeepsMemory() {
+		OffHeapPackedArray<Long> array = new OffHeapPackedArray<Long>(Long.class, 2, 2);
+		array.setLong(1L, 0, 1);
+		
+		array.fix(0, 0).close();
+		array.transpose().close();
+		
+		assertThat(array.getLong(0, 1), is(equalTo(1L)));
+		assertThat(array.transpose().getLong(1, 0), is(equalTo(1L)));
+		
+		array.close();
+	}
+	
+	@Test
+	public void testCloseFreesNativeMemory() {
+		OffHeapPackedArray<Long> array = new OffHeapPackedArray<Long>(Long.class, 1024, 1024);
+		long allocated = directMemoryUsed();
+		
+		array.close();
+		array.close();
+		
+		assertThat(allocated - directMemoryUsed() >= 8L * 1024 * 1024, is(equalTo(true)));
+	}
+	
+	private static long directMemoryUsed() {
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if (pool.getName().equals("direct"))
+				return pool.getMemoryUsed();
+		}
+		
+		throw new IllegalStateException("No direct buffer pool");
+	}
+}
@@ -22,15 +22,24 @@ package br.eti.rslemos.tools.collections;
 
 import static junit.framework.Assert.fail;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
 import org.junit.Test;
 
 public class OrderedMultiDimensionalMapUnitTest {
 	@Test
 	public void testOneDimensionalMap() {
-		MultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(10));
+		MultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {10}));
 		
 		// info
 		assertThat(map.dimensions(), is(equalTo(1)));
@@ -70,6 +79,367 @@ public class OrderedMultiDimensionalMapUnitTest {
 		accessAndExpectException(IllegalArgumentException.class, map, "key1", "key2", "key3");
 	}
 
+	@Test
+	public void testKeysTakeSlotsInInsertionOrder() {
+		PackedArray<String> array = new PackedArray<String>(new int[] {3, 2});
+		MultiDimensionalMap<String, String> map = new OrderedMultiDimensionalMap<String, String>(array);
+		
+		map.put("a/x", "a", "x");
+		map.put("b/y", "b", "y");
+		map.put("c/x", "c", "x");
+		map.put("a/y", "a", "y");
+		
+		assertThat(array.toString(), is(equalTo("[[a/x, a/y], [null, b/y], [c/x, null]]")));
+		assertThat(map.length(0), is(equalTo(3)));
+		assertThat(map.length(1), is(equalTo(2)));
+	}
+
+	@Test
+	public void testNullKey() {
+		MultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {3, 3}));
+		
+		map.put(1, null, "a");
+		map.put(2, "a", null);
+		map.put(3, null, null);
+		
+		assertThat(map.get(null, "a"), is(equalTo(1)));
+		assertThat(map.get("a", null), is(equalTo(2)));
+		assertThat(map.get(null, null), is(equalTo(3)));
+		assertThat(map.length(0), is(equalTo(2)));
+		assertThat(map.length(1), is(equalTo(2)));
+	}
+
+	@Test
+	public void testManyKeys() {
+		MultiDimensionalMap<Integer, Integer> map = new OrderedMultiDimensionalMap<Integer, Integer>(new PackedArray<Integer>(new int[] {5000, 2, 1, 1}));
+		
+		for (int i = 0; i < 5000; i++) {
+			map.put(i, i, i % 2, 0, 0);
+		}
+		
+		for (int i = 0; i < 5000; i++) {
+			assertThat(map.get(i, i % 2, 0, 0), is(equalTo(i)));
+		}
+		
+		assertThat(map.length(0), is(equalTo(5000)));
+		assertThat(map.length(1), is(equalTo(2)));
+	}
+
+	@Test
+	public void testCapacityExhausted() {
+		MultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {1}));
+		map.put(1, "a");
+		
+		putAndExpectException(ArrayIndexOutOfBoundsException.class, map, "b");
+		assertThat(map.length(0), is(equalTo(1)));
+	}
+
+	@Test
+	public void testGetUnknownKeyDoesNotRegisterIt() {
+		MultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {2, 2, 2, 2}));
+		map.put(1, "a", "b", "c", "d");
+		
+		assertThat(map.get("a", "b", "c", "d"), is(equalTo(1)));
+		assertThat(map.get("a", "b", "c", "x"), is(nullValue()));
+		assertThat(map.get("x", "b", "c", "d"), is(nullValue()));
+		
+		for (int i = 0; i < 4; i++)
+			assertThat(map.length(i), is(equalTo(1)));
+	}
+
+	@Test
+	public void testGetUnknownKeyFromFullMap() {
+		MultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {1, 1}));
+		map.put(1, "a", "b");
+		
+		assertThat(map.get("a", "x"), is(nullValue()));
+		assertThat(map.get("x", "b"), is(nullValue()));
+		assertThat(map.get(null, null), is(nullValue()));
+		assertThat(map.length(0), is(equalTo(1)));
+		assertThat(map.length(1), is(equalTo(1)));
+	}
+
+	@Test
+	public void testGrowingMap() {
+		MultiDimensionalMap<Integer, String> map = new OrderedMultiDimensionalMap<Integer, String>(3);
+		
+		assertThat(map.length(0), is(equalTo(0)));
+		
+		for (int i = 0; i < 500; i++) {
+			map.put(i + "/" + i % 7, i, i % 7, 0);
+		}
+		
+		assertThat(map.length(0), is(equalTo(500)));
+		assertThat(map.length(1), is(equalTo(7)));
+		assertThat(map.length(2), is(equalTo(1)));
+		
+		for (int i = 0; i < 500; i++) {
+			assertThat(map.get(i, i % 7, 0), is(equalTo(i + "/" + i % 7)));
+			assertThat(map.get(i, (i + 1) % 7, 0), is(nullValue()));
+		}
+	}
+
+	@Test
+	public void testFix() {
+		OrderedMultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {3, 3, 3}));
+		map.put(1, "north", "2020", "apples");
+		map.put(2, "south", "2020", "apples");
+		map.put(3, "north", "2021", "pears");
+		
+		MultiDimensionalMap<String, Integer> north = map.fix(0, "north");
+		assertThat(north.dimensions(), is(equalTo(2)));
+		assertThat(north.get("2020", "apples"), is(equalTo(1)));
+		assertThat(north.get("2021", "pears"), is(equalTo(3)));
+		assertThat(north.get("2021", "apples"), is(nullValue()));
+		
+		// the view is live both ways, keys included
+		north.put(4, "2022", "apples");
+		map.put(5, "north", "2020", "plums");
+		assertThat(map.get("north", "2022", "apples"), is(equalTo(4)));
+		assertThat(north.get("2020", "plums"), is(equalTo(5)));
+		assertThat(north.length(0), is(equalTo(3)));
+		assertThat(map.length(1), is(equalTo(3)));
+		
+		assertThat(map.fix(2, "apples").fix(0, "south").get("2020"), is(equalTo(2)));
+	}
+
+	@Test
+	public void testFixUnknownKey() {
+		OrderedMultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {2, 2}));
+		
+		try {
+			map.fix(1, "x");
+			fail("Should have thrown " + NoSuchElementException.class);
+		} catch (NoSuchElementException expected) {
+		}
+		
+		assertThat(map.length(1), is(equalTo(0)));
+	}
+
+	@Test
+	public void testFixGrowingMap() {
+		OrderedMultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(2);
+		map.put(2, "a", "y");
+		OrderedMultiDimensionalMap<String, Integer> fixed = map.fix(0, "a");
+		
+		fixed.put(1, "x");
+		map.put(3, "b", "z");
+		fixed.put(4, "w");
+		
+		assertThat(map.get("a", "x"), is(equalTo(1)));
+		assertThat(map.get("a", "w"), is(equalTo(4)));
+		assertThat(map.get("b", "w"), is(nullValue()));
+		assertThat(fixed.get("y"), is(equalTo(2)));
+		assertThat(fixed.get("z"), is(nullValue()));
+		assertThat(map.length(1), is(equalTo(4)));
+		
+		map.put(5, "c", "v");
+		assertThat(map.get("c", "v"), is(equalTo(5)));
+		assertThat(fixed.get("v"), is(nullValue()));
+	}
+
+	@Test
+	public void testEntries() {
+		OrderedMultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {10, 10}));
+		map.put(1, "a", "x");
+		map.put(2, "b", "y");
+		map.put(3, "a", "z");
+		map.put(null, "c", "x");
+		
+		List<Map.Entry<List<String>, Integer>> entries = map.entries().collect(Collectors.toList());
+		
+		assertThat(entries.size(), is(equalTo(3)));
+		assertThat(entries.get(0).getKey(), is(equalTo(Arrays.asList("a", "x"))));
+		assertThat(entries.get(0).getValue(), is(equalTo(1)));
+		assertThat(entries.get(1).getKey(), is(equalTo(Arrays.asList("a", "z"))));
+		assertThat(entries.get(1).getValue(), is(equalTo(3)));
+		assertThat(entries.get(2).getKey(), is(equalTo(Arrays.asList("b", "y"))));
+		assertThat(entries.get(2).getValue(), is(equalTo(2)));
+	}
+
+	@Test
+	public void testEntriesOfEmptyMap() {
+		assertThat(new OrderedMultiDimensionalMap<String, Integer>(3).entries().count(), is(equalTo(0L)));
+	}
+
+	@Test
+	public void testParallelEntries() {
+		OrderedMultiDimensionalMap<Integer, Integer> map = new OrderedMultiDimensionalMap<Integer, Integer>(3);
+		long expected = 0;
+		for (int i = 0; i < 50; i++) {
+			for (int j = 0; j < 40; j++) {
+				for (int k = 0; k < 30; k++) {
+					if ((i ^ j ^ k) % 3 == 0) {
+						map.put(i + j + k, i, j, k);
+						expected += i + j + k;
+					}
+				}
+			}
+		}
+		
+		long sum = map.entries().parallel().mapToLong(e -> {
+			List<Integer> key = e.getKey();
+			assertThat(e.getValue(), is(equalTo(key.get(0) + key.get(1) + key.get(2))));
+			return e.getValue();
+		}).sum();
+		
+		assertThat(sum, is(equalTo(expected)));
+		assertThat(map.entries().parallel().collect(Collectors.toList()), is(equalTo(map.entries().collect(Collectors.toList()))));
+	}
+
+	@Test
+	public void testCompact() {
+		OrderedMultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new IntPackedArray(new int[] {100, 50, 20}));
+		map.put(1, "a", "x", "0");
+		map.put(2, "b", "y", "1");
+		map.put(3, "c", "x", "2");
+		map.put(4, null, "z", "0");
+		
+		OrderedMultiDimensionalMap<String, Integer> compact = map.compact();
+		
+		assertThat(compact.array(), is(instanceOf(IntPackedArray.class)));
+		assertThat(compact.array().length(), is(equalTo(new int[] {4, 3, 3})));
+		for (int d = 0; d < 3; d++)
+			assertThat(compact.length(d), is(equalTo(map.length(d))));
+		
+		assertThat(compact.get("a", "x", "0"), is(equalTo(1)));
+		assertThat(compact.get("b", "y", "1"), is(equalTo(2)));
+		assertThat(compact.get("c", "x", "2"), is(equalTo(3)));
+		assertThat(compact.get(null, "z", "0"), is(equalTo(4)));
+		assertThat(compact.get("d", "x", "0"), is(nullValue()));
+		
+		assertThat(compact.entries().collect(Collectors.toList()), is(equalTo(map.entries().collect(Collectors.toList()))));
+		
+		// the original map is still live and independent
+		map.put(5, "a", "x", "0");
+		assertThat(compact.get("a", "x", "0"), is(equalTo(1)));
+	}
+
+	@Test
+	public void testCompactGrowingMap() {
+		OrderedMultiDimensionalMap<Integer, Integer> map = new OrderedMultiDimensionalMap<Integer, Integer>(2);
+		for (int i = 0; i < 70; i++)
+			map.put(i * 3, i, i % 7);
+		
+		OrderedMultiDimensionalMap<Integer, Integer> compact = map.compact();
+		
+		assertThat(compact.array(), is(instanceOf(PackedArray.class)));
+		assertThat(compact.array().length(), is(equalTo(new int[] {70, 7})));
+		for (int i = 0; i < 70; i++) {
+			assertThat(compact.get(i, i % 7), is(equalTo(i * 3)));
+			assertThat(compact.get(i, (i + 1) % 7), is(nullValue()));
+		}
+	}
+
+	@Test
+	public void testCompactIsFrozen() {
+		OrderedMultiDimensionalMap<String, Integer> map = new OrderedMultiDimensionalMap<String, Integer>(new PackedArray<Integer>(new int[] {10, 10}));
+		map.put(1, "a", "x");
+		
+		OrderedMultiDimensionalMap<String, Integer> compact = map.compact();
+		
+		putAndExpectException(UnsupportedOperationException.class, compact, "a", "x");
+		putAndExpectException(UnsupportedOperationException.class, compact, "b", "x");
+		
+		OrderedMultiDimensionalMap<String, Integer> fixed = compact.fix(0, "a");
+		assertThat(fixed.get("x"), is(equalTo(1)));
+		putAndExpectException(UnsupportedOperationException.class, fixed, "x");
+		
+		try {
+			compact.fix(0, "b");
+			fail("Should have thrown " + NoSuchElementException.class);
+		} catch (NoSuchElementException expected) {
+		}
+		
+		assertThat(compact.length(0), is(equalTo(1)));
+	}
+
+	@Test
+	public void testSortedCompact() {
+		OrderedMultiDimensionalMap<Integer, String> map = new OrderedMultiDimensionalMap<Integer, String>(new PackedArray<String>(new int[] {10, 10}));
+		map.put("30/7", 30, 7);
+		map.put("10/5", 10, 5);
+		map.put("20/9", 20, 9);
+		map.put("10/9", 10, 9);
+		
+		OrderedMultiDimensionalMap<Integer, String> sorted = map.compact(Comparator.<Integer>naturalOrder());
+		
+		assertThat(sorted.array().length(), is(equalTo(new int[] {3, 3})));
+		assertThat(sorted.get(30, 7), is(equalTo("30/7")));
+		assertThat(sorted.get(10, 5), is(equalTo("10/5")));
+		assertThat(sorted.get(20, 9), is(equalTo("20/9")));
+		assertThat(sorted.get(10, 9), is(equalTo("10/9")));
+		assertThat(sorted.get(20, 7), is(nullValue()));
+		
+		assertThat(sorted.entries().map(e -> e.getValue()).collect(Collectors.toList()), is(equalTo(Arrays.asList("10/5", "10/9", "20/9", "30/7"))));
+		putAndExpectException(UnsupportedOperationException.class, sorted, 10, 5);
+	}
+
+	@Test
+	public void testSortedCompactMovesBlocks() {
+		// inner dimension already in order, outer dimension reversed
+		OrderedMultiDimensionalMap<Integer, Integer> map = new OrderedMultiDimensionalMap<Integer, Integer>(new IntPackedArray(new int[] {20, 20, 20}));
+		for (int i = 9; i >= 0; i--) {
+			for (int j = 0; j < 5; j++) {
+				for (int k = 0; k < 8; k++)
+					map.put(i * 100 + j * 10 + k, i, j, k);
+			}
+		}
+		
+		OrderedMultiDimensionalMap<Integer, Integer> sorted = map.compact(Comparator.<Integer>naturalOrder());
+		
+		assertThat(sorted.array(), is(instanceOf(IntPackedArray.class)));
+		assertThat(sorted.array().get(0, 0, 0), is(equalTo(0)));
+		assertThat(sorted.array().get(9, 4, 7), is(equalTo(947)));
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 5; j++) {
+				for (int k = 0; k < 8; k++)
+					assertThat(sorted.get(i, j, k), is(equalTo(i * 100 + j * 10 + k)));
+			}
+		}
+	}
+
+	@Test
+	public void testRange() {
+		OrderedMultiDimensionalMap<Integer, Integer> map = new OrderedMultiDimensionalMap<Integer, Integer>(2);
+		for (int t = 100; t > 0; t -= 10) {
+			for (int p = 1; p <= 5; p++)
+				map.put(t * p, t, p);
+		}
+		
+		OrderedMultiDimensionalMap<Integer, Integer> sorted = map.compact(Comparator.<Integer>naturalOrder());
+		OrderedMultiDimensionalMap<Integer, Integer> range = sorted.range(0, 25, 60);
+		
+		assertThat(range.length(0), is(equalTo(3)));
+		assertThat(range.length(1), is(equalTo(5)));
+		assertThat(range.get(30, 2), is(equalTo(60)));
+		assertThat(range.get(50, 5), is(equalTo(250)));
+		assertThat(range.get(20, 2), is(nullValue()));
+		assertThat(range.get(60, 2), is(nullValue()));
+		
+		// a view, sharing storage
+		assertThat(range.array().get(0, 0), is(equalTo(30)));
+		assertThat(sorted.range(0, 30, 30).length(0), is(equalTo(0)));
+		assertThat(sorted.range(0, 0, 1000).length(0), is(equalTo(10)));
+		assertThat(sorted.range(0, 200, 300).length(0), is(equalTo(0)));
+		
+		OrderedMultiDimensionalMap<Integer, Integer> box = range.range(1, 2, 4).range(0, 40, 100);
+		assertThat(box.entries().map(e -> e.getValue()).collect(Collectors.toList()), is(equalTo(Arrays.asList(80, 120, 100, 150))));
+		
+		assertThat(sorted.fix(1, 3).range(0, 90, 101).get(100), is(equalTo(300)));
+		putAndExpectException(UnsupportedOperationException.class, range, 30, 2);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRangeOfUnsortedMap() {
+		new OrderedMultiDimensionalMap<Integer, Integer>(new PackedArray<Integer>(new int[] {10})).compact().range(0, 1, 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalRange() {
+		new OrderedMultiDimensionalMap<Integer, Integer>(new PackedArray<Integer>(new int[] {10})).compact(Comparator.<Integer>naturalOrder()).range(0, 2, 1);
+	}
+
 	private static <K, V, E extends RuntimeException> void accessAndExpectException(Class<E> clazz, MultiDimensionalMap<K, V> map, K... key) {
 		getAndExpectException(clazz, map, key);
 		putAndExpectException(clazz, map, key);
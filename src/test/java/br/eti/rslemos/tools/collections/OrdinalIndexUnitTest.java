@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class OrdinalIndexUnitTest {
+	@Test
+	public void testAddIndexOf() {
+		OrdinalIndex<String> index = new OrdinalIndex<String>();
+		
+		assertThat(index.indexOf("a"), is(equalTo(-1)));
+		assertThat(index.indexOf(null), is(equalTo(-1)));
+		
+		assertThat(index.add("a"), is(equalTo(0)));
+		assertThat(index.add(null), is(equalTo(1)));
+		assertThat(index.add("b"), is(equalTo(2)));
+		assertThat(index.add("a"), is(equalTo(0)));
+		assertThat(index.add(null), is(equalTo(1)));
+		assertThat(index.size(), is(equalTo(3)));
+		
+		assertThat(index.indexOf("a"), is(equalTo(0)));
+		assertThat(index.indexOf(null), is(equalTo(1)));
+		assertThat(index.indexOf("b"), is(equalTo(2)));
+		assertThat(index.indexOf("c"), is(equalTo(-1)));
+		
+		assertThat(index.key(0), is(equalTo("a")));
+		assertThat(index.key(1), is(nullValue()));
+		assertThat(index.key(2), is(equalTo("b")));
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testKeyBeyondSize() {
+		OrdinalIndex<String> index = new OrdinalIndex<String>(10);
+		index.add("a");
+		
+		index.key(1);
+	}
+
+	@Test
+	public void testAgainstList() {
+		OrdinalIndex<Integer> subject = new OrdinalIndex<Integer>(0);
+		List<Integer> model = new ArrayList<Integer>();
+		Random random = new Random(0);
+		
+		// keys sharing their low bits stress probing; growth happens along the way
+		for (int i = 0; i < 50000; i++) {
+			Integer key = (random.nextInt(5000) - 2500) << 10;
+			
+			if (!model.contains(key))
+				model.add(key);
+			
+			assertThat(subject.add(key), is(equalTo(model.indexOf(key))));
+		}
+		
+		assertThat(subject.size(), is(equalTo(model.size())));
+		for (int i = 0; i < model.size(); i++) {
+			assertThat(subject.indexOf(model.get(i)), is(equalTo(i)));
+			assertThat(subject.key(i), is(equalTo(model.get(i))));
+		}
+	}
+}
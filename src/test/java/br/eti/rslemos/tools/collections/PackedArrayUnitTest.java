@@ -96,7 +96,7 @@ public abstract class PackedArrayUnitTest extends MultiDimensionalArrayAbstractU
 		
 		@Test
 		public void testElementLayout() {
-			PackedArray<Object> oneDimArray = new PackedArray<Object>(5);
+			PackedArray<Object> oneDimArray = new PackedArray<Object>(new int[] {5});
 			assertThat(oneDimArray.computeAddress(0), is(equalTo(0)));
 			assertThat(oneDimArray.computeAddress(1), is(equalTo(1)));
 			assertThat(oneDimArray.computeAddress(2), is(equalTo(2)));
@@ -155,7 +155,7 @@ public abstract class PackedArrayUnitTest extends MultiDimensionalArrayAbstractU
 
 		@Test
 		public void testElementLayout() {
-			PackedArray<Object> twoDimArrayBE = new PackedArray<Object>(3, 3);
+			PackedArray<Object> twoDimArrayBE = new PackedArray<Object>(new int[] {3, 3});
 			assertThat(twoDimArrayBE.computeAddress(0, 0), is(equalTo(0)));
 			assertThat(twoDimArrayBE.computeAddress(0, 1), is(equalTo(1)));
 			assertThat(twoDimArrayBE.computeAddress(0, 2), is(equalTo(2)));
@@ -179,6 +179,20 @@ public abstract class PackedArrayUnitTest extends MultiDimensionalArrayAbstractU
 			assertThat(twoDimArrayLE.computeAddress(2, 2), is(equalTo(8)));
 		}
 		
+		@Test
+		public void testCursorLinearOffset() {
+			PackedArray<String> view = array.slice(1, 1, 3).transpose();
+			Cursor<String> cursor = view.cursor();
+			
+			while (cursor.advance()) {
+				int i = cursor.coordinate(0);
+				int j = cursor.coordinate(1);
+				
+				assertThat(cursor.linearOffset(), is(equalTo(view.computeAddress(i, j))));
+				assertThat(cursor.get(), is(equalTo(view.get(i, j))));
+			}
+		}
+		
 		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<String> {}
 		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<String> {}
 		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<String> {}
@@ -224,7 +238,7 @@ public abstract class PackedArrayUnitTest extends MultiDimensionalArrayAbstractU
 		
 		@Test
 		public void testElementLayout() {
-			PackedArray<Object> threeDimArray = new PackedArray<Object>(2, 2, 2);
+			PackedArray<Object> threeDimArray = new PackedArray<Object>(new int[] {2, 2, 2});
 			assertThat(threeDimArray.computeAddress(0, 0, 0), is(equalTo(0)));
 			assertThat(threeDimArray.computeAddress(0, 0, 1), is(equalTo(1)));
 			assertThat(threeDimArray.computeAddress(0, 1, 0), is(equalTo(2)));
@@ -291,6 +305,32 @@ public abstract class PackedArrayUnitTest extends MultiDimensionalArrayAbstractU
 			return model;
 		}
 		
+		@Test
+		public void testFix() {
+			PackedArray<String> fixed = array.fix(2, 4);
+			
+			assertThat(fixed.length(), is(equalTo(new int[] {3, 5, 9})));
+			assertThat(fixed.get(2, 3, 8), is(equalTo("[2, 3, 4, 8]")));
+			assertThat(fixed.fix(0, 1).get(3, 8), is(equalTo("[1, 3, 4, 8]")));
+			
+			fixed.set("fixed", 1, 1, 1);
+			assertThat(array.get(1, 1, 4, 1), is(equalTo("fixed")));
+		}
+		
+		@Test
+		public void testFixOtherViews() {
+			PackedArray<String> view = array.slice(1, 2, 5).transpose().fix(1, 3);
+			
+			assertThat(view.length(), is(equalTo(new int[] {9, 3, 3})));
+			assertThat(view.get(8, 1, 2), is(equalTo("[2, 3, 3, 8]")));
+			assertThat(view.slice(0, 8, 9).fix(0, 0).get(1, 2), is(equalTo("[2, 3, 3, 8]")));
+		}
+		
+		@Test(expected = ArrayIndexOutOfBoundsException.class)
+		public void testFixOutOfBounds() {
+			array.fix(3, 9);
+		}
+		
 		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<String> {}
 		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<String> {}
 		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<String> {}
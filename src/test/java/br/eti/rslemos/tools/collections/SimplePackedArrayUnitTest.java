@@ -96,7 +96,7 @@ public abstract class SimplePackedArrayUnitTest extends MultiDimensionalArrayAbs
 		
 		@Test
 		public void testElementLayout() {
-			SimplePackedArray<Object> oneDimArray = new SimplePackedArray<Object>(5);
+			SimplePackedArray<Object> oneDimArray = new SimplePackedArray<Object>(new int[] {5});
 			assertThat(oneDimArray.computeAddress(0), is(equalTo(0)));
 			assertThat(oneDimArray.computeAddress(1), is(equalTo(1)));
 			assertThat(oneDimArray.computeAddress(2), is(equalTo(2)));
@@ -155,7 +155,7 @@ public abstract class SimplePackedArrayUnitTest extends MultiDimensionalArrayAbs
 
 		@Test
 		public void testElementLayout() {
-			SimplePackedArray<Object> rowMajor = new SimplePackedArray<Object>(3, 3);
+			SimplePackedArray<Object> rowMajor = new SimplePackedArray<Object>(new int[] {3, 3});
 			assertThat(rowMajor.computeAddress(0, 0), is(equalTo(0)));
 			assertThat(rowMajor.computeAddress(0, 1), is(equalTo(1)));
 			assertThat(rowMajor.computeAddress(0, 2), is(equalTo(2)));
@@ -212,7 +212,7 @@ public abstract class SimplePackedArrayUnitTest extends MultiDimensionalArrayAbs
 		
 		@Test
 		public void testElementLayout() {
-			SimplePackedArray<Object> threeDimArray = new SimplePackedArray<Object>(2, 2, 2);
+			SimplePackedArray<Object> threeDimArray = new SimplePackedArray<Object>(new int[] {2, 2, 2});
 			assertThat(threeDimArray.computeAddress(0, 0, 0), is(equalTo(0)));
 			assertThat(threeDimArray.computeAddress(0, 0, 1), is(equalTo(1)));
 			assertThat(threeDimArray.computeAddress(0, 1, 0), is(equalTo(2)));
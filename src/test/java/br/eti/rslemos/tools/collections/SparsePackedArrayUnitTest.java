@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * BEGIN COPYRIGHT NOTICE
+ * 
+ * This file is part of program "Collections"
+ * Copyright 2011  Rodrigo Lemos
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * END COPYRIGHT NOTICE
+ ******************************************************************************/
+package br.eti.rslemos.tools.collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public abstract class SparsePackedArrayUnitTest extends MultiDimensionalArrayAbstractUnitTest<String> {
+	
+	public static class OneDimension extends SparsePackedArrayUnitTest {
+		SparsePackedArray<String> array;
+		int[] sizes;
+		String[] model;
+
+		{
+			sizes = new int[] {6};
+			
+			array = new SparsePackedArray<String>(sizes);
+			array.set("[0]", 0);
+			array.set("[4]", 4);
+			
+			model = new String[] {"[0]", null, null, null, "[4]", null};
+		}
+
+		@Override
+		protected SparsePackedArray<String> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected String[] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<String> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<String> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<String> {}
+	}
+	
+	public static class TwoDimensions extends SparsePackedArrayUnitTest {
+		SparsePackedArray<String> array;
+		int[] sizes;
+		String[][] model;
+
+		{
+			sizes = new int[] {3, 4};
+			
+			array = new SparsePackedArray<String>(sizes);
+			array.set("[0, 0]", 0, 0);
+			array.set("[1, 2]", 1, 2);
+			array.set("[2, 3]", 2, 3);
+			
+			model = new String[][] {
+					{ "[0, 0]", null, null, null },
+					{ null, null, "[1, 2]", null },
+					{ null, null, null, "[2, 3]" },
+				};
+		}
+
+		@Override
+		protected SparsePackedArray<String> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected String[][] createModel() {
+			return model;
+		}
+
+		@Test
+		public void testViews() {
+			SparsePackedArray<String> slice = array.slice(1, 1, 4);
+			assertThat(slice.length(), is(equalTo(new int[] {3, 3})));
+			assertThat(slice.get(1, 1), is(equalTo("[1, 2]")));
+			assertThat(slice.get(2, 2), is(equalTo("[2, 3]")));
+			assertThat(slice.get(0, 0), is(nullValue(String.class)));
+			
+			SparsePackedArray<String> transposition = slice.transpose();
+			assertThat(transposition.get(2, 2), is(equalTo("[2, 3]")));
+			
+			transposition.set("[0, 2]", 1, 0);
+			assertThat(array.get(0, 2), is(equalTo("[0, 2]")));
+			
+			slice.set(null, 1, 1);
+			assertThat(array.get(1, 2), is(nullValue(String.class)));
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<String> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<String> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<String> {}
+	}
+
+	public static class ThreeDimensions extends SparsePackedArrayUnitTest {
+		SparsePackedArray<String> array;
+		int[] sizes;
+		String[][][] model;
+		
+		{
+			sizes = new int[] {4, 2, 3};
+			
+			array = new SparsePackedArray<String>(sizes);
+			model = new String[4][2][3];
+			
+			for(int i = 0; i < sizes[0]; i++) {
+				for(int j = 0; j < sizes[1]; j++) {
+					for(int k = 0; k < sizes[2]; k++) {
+						if ((i + j + k) % 3 == 0) {
+							String data = "[" + i + ", " + j + ", " + k + "]"; 
+							
+							model[i][j][k] = data;
+							array.set(data, i, j, k);
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		protected SparsePackedArray<String> createArray() {
+			return array;
+		}
+
+		@Override
+		protected int[] createLengths() {
+			return sizes;
+		}
+
+		@Override
+		protected String[][][] createModel() {
+			return model;
+		}
+		
+		public static class ConstructorFromItself extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromItself<String> {}
+		public static class ConstructorFromKnownGoodImplementation extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromKnownGoodImplementation<String> {}
+		public static class ConstructorFromRawModel extends MultiDimensionalArrayAbstractUnitTest.ConstructorFromRawModel<String> {}
+	}
+
+	protected String createSample() {
+		return "sam" + "ple";
+	}
+	
+	@Test
+	public void testOnlyNonNullCellsAreKept() {
+		SparsePackedArray<String> array = new SparsePackedArray<String>(new int[] {1000, 1000});
+		assertThat(array.cells.size(), is(equalTo(0)));
+		
+		array.set("a", 999, 999);
+		array.set("b", 0, 0);
+		assertThat(array.cells.size(), is(equalTo(2)));
+		
+		array.set(null, 999, 999);
+		assertThat(array.cells.size(), is(equalTo(1)));
+		assertThat(array.get(0, 0), is(equalTo("b")));
+	}
+}
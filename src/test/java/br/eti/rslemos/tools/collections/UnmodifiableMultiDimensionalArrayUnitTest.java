@@ -54,6 +54,23 @@ public class UnmodifiableMultiDimensionalArrayUnitTest {
 		verifyNoMoreInteractions(delegate);
 	}
 	
+	@Test
+	public void testCursorIsUnmodifiable() {
+		when(delegate.length()).thenReturn(new int[] {1, 1});
+		
+		Cursor<String> cursor = subject.cursor();
+		cursor.advance();
+		
+		try {
+			cursor.set("");
+			fail("Should have thrown " + UnsupportedOperationException.class);
+		} catch (UnsupportedOperationException e) {
+		}
+		
+		verify(delegate).length();
+		verifyNoMoreInteractions(delegate);
+	}
+	
 	@Test
 	public void testSliceViewIsUnmodifiable() {
 		when(delegate.slice(1, 2, 3)).thenReturn(view);